@@ -0,0 +1,69 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import hudson.maven.MavenEmbedder;
+import hudson.maven.MavenEmbedderException;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * build all the maven projects of small, medium and large reactors with a started embedder
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class BuildProjectsBenchmark {
+    @Param({"5", "50", "500"})
+    int modules;
+
+    private Fixtures fixtures;
+
+    private File rootPom;
+
+    private MavenEmbedder mavenEmbedder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MavenEmbedderException {
+        fixtures = Fixtures.extract();
+        rootPom = fixtures.createReactor(modules);
+        mavenEmbedder = new MavenEmbedder(Thread.currentThread().getContextClassLoader(),
+                fixtures.newMavenRequest());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mavenEmbedder.close();
+        fixtures.delete();
+    }
+
+    @Benchmark
+    public List<ProjectBuildingResult> buildProjects() throws ProjectBuildingException, MavenEmbedderException {
+        return mavenEmbedder.buildProjects(rootPom, true);
+    }
+}
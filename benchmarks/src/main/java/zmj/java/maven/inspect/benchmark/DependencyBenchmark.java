@@ -0,0 +1,82 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import zmj.java.maven.inspect.bean.RemoteRepositoryMessageBean;
+import zmj.java.maven.inspect.bean.ResolverOptionBean;
+import zmj.java.maven.inspect.resolver.ResolverContext;
+import zmj.java.maven.inspect.util.DependencyUtil;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * resolve the transitive dependencies of a library from the file:// fixture repository.
+ * the local repository is filled in the setup, a new session is used for every call, so nothing is cached
+ * in memory between the calls. offline, the files are taken from the local repository layout.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class DependencyBenchmark {
+    private static final String LIBRARY = "bench:lib-a:1.0";
+
+    @Param({"false", "true"})
+    boolean offline;
+
+    private Fixtures fixtures;
+
+    private List<RemoteRepositoryMessageBean> repositories;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DependencyResolutionException {
+        fixtures = Fixtures.extract();
+        repositories = Collections.singletonList(
+                new RemoteRepositoryMessageBean("fixtures", "default", fixtures.getRepositoryUrl()));
+        // fill the local repository
+        resolve(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.delete();
+    }
+
+    @Benchmark
+    public DependencyResult getDependencies() throws DependencyResolutionException {
+        return resolve(offline);
+    }
+
+    private DependencyResult resolve(boolean offline) throws DependencyResolutionException {
+        ResolverOptionBean options = new ResolverOptionBean();
+        options.setOffline(offline);
+        ResolverContext context = DependencyUtil.newResolverContext(fixtures.getLocalRepository(),
+                fixtures.getLocalRepository(), repositories, null, options);
+        return DependencyUtil.getDependencies(context, LIBRARY, JavaScopes.COMPILE);
+    }
+}
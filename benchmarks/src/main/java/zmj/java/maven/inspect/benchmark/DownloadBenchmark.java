@@ -0,0 +1,149 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.benchmark.generator.GeneratedFixture;
+import zmj.java.maven.inspect.benchmark.generator.GeneratorOptions;
+import zmj.java.maven.inspect.benchmark.generator.ScaleFixtureGenerator;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.handler.JavaProjectOptionHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the whole inspection of a generated project with an empty local repository, every artifact is downloaded
+ * from a {@link HttpRepositoryServer} with a fixed latency. the requests the server saw are a secondary
+ * result, an inspection sending more concurrent requests than downloadsPerHost fails the benchmark.
+ * <p>
+ * the maven installation is read from the system property maven.home or the environment variable M2_HOME.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DownloadBenchmark {
+    @Param({"1", "5"})
+    int downloadThreads;
+
+    @Param({"2", "8"})
+    int downloadsPerHost;
+
+    @Param({"20"})
+    long latencyMillis;
+
+    private File baseDir;
+
+    private File localRepository;
+
+    private HttpRepositoryServer server;
+
+    private InspectArgumentsBean arguments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String mavenHome = System.getProperty("maven.home", System.getenv("M2_HOME"));
+        if (mavenHome == null) {
+            throw new IllegalStateException("set the system property maven.home or the environment variable M2_HOME");
+        }
+
+        baseDir = Files.createTempDirectory("download-benchmark").toFile();
+        GeneratedFixture fixture = new ScaleFixtureGenerator(new GeneratorOptions()).generate(baseDir);
+        server = new HttpRepositoryServer(fixture.getRepository(), latencyMillis);
+
+        localRepository = fixture.getLocalRepository();
+        File settingsFile = new File(baseDir, "settings-http.xml");
+        String settings = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<settings xmlns=\"http://maven.apache.org/SETTINGS/1.0.0\">\n"
+                + "    <localRepository>" + localRepository.getAbsolutePath() + "</localRepository>\n"
+                + "    <mirrors>\n"
+                + "        <mirror>\n"
+                + "            <id>central</id>\n"
+                + "            <mirrorOf>*</mirrorOf>\n"
+                + "            <url>" + server.getUrl() + "</url>\n"
+                + "        </mirror>\n"
+                + "    </mirrors>\n"
+                + "</settings>\n";
+        Files.write(settingsFile.toPath(), settings.getBytes(StandardCharsets.UTF_8));
+
+        arguments = new InspectArgumentsBean();
+        arguments.setPomFile(fixture.getRootPom().getAbsolutePath());
+        arguments.setMavenHome(mavenHome);
+        arguments.setUserSettingsFile(settingsFile.getAbsolutePath());
+        arguments.setDownloadThreads(downloadThreads);
+        arguments.setDownloadsPerHost(downloadsPerHost);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyLocalRepository() throws IOException {
+        FileUtils.cleanDirectory(localRepository);
+        server.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Benchmark
+    public List<JavaOptionBean> handle(Requests requests) throws MavenProjectInspectException {
+        List<JavaOptionBean> optionBeans = JavaProjectOptionHandler.handle(arguments);
+        if (server.getMaxActiveRequests() > downloadsPerHost) {
+            throw new IllegalStateException(server.getMaxActiveRequests() + " concurrent requests, more than "
+                    + downloadsPerHost);
+        }
+        requests.requests += server.getRequests();
+        return optionBeans;
+    }
+
+    /**
+     * requests the server saw, the secondary result of the benchmark
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Requests {
+        /**
+         * requests to the server
+         */
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+}
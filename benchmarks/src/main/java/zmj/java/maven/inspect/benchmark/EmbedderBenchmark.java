@@ -0,0 +1,59 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import hudson.maven.MavenEmbedder;
+import hudson.maven.MavenEmbedderException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * start a maven embedder, with the plexus container and the settings
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class EmbedderBenchmark {
+    private Fixtures fixtures;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtures = Fixtures.extract();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.delete();
+    }
+
+    /**
+     * the container is built from the class path, a new one for every embedder
+     */
+    @Benchmark
+    public MavenEmbedder construct() throws MavenEmbedderException {
+        MavenEmbedder mavenEmbedder = new MavenEmbedder(Thread.currentThread().getContextClassLoader(),
+                fixtures.newMavenRequest());
+        mavenEmbedder.close();
+        return mavenEmbedder;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import hudson.maven.MavenRequest;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * the checked-in fixtures, extracted to a temporary directory: a file:// repository, a settings file whose
+ * only mirror is that repository, and an empty local repository. nothing is downloaded from the network.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public final class Fixtures {
+    private static final String FIXTURES = "/fixtures/";
+
+    private final File baseDir;
+
+    private Fixtures(File baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    /**
+     * extract the fixtures listed in fixtures/index.txt
+     *
+     * @return the fixtures
+     * @throws IOException if a fixture can't be extracted
+     */
+    public static Fixtures extract() throws IOException {
+        Fixtures fixtures = new Fixtures(Files.createTempDirectory("inspect-benchmark").toFile());
+
+        List<String> paths;
+        try (InputStream in = resource("index.txt")) {
+            paths = IOUtils.readLines(in, StandardCharsets.UTF_8);
+        }
+        for (String path : paths) {
+            if (path.trim().isEmpty()) {
+                continue;
+            }
+            try (InputStream in = resource(path)) {
+                FileUtils.copyInputStreamToFile(in, new File(fixtures.baseDir, path));
+            }
+        }
+
+        String settings = FileUtils.readFileToString(fixtures.getSettingsFile(), StandardCharsets.UTF_8)
+                .replace("${localRepository}", fixtures.getLocalRepository())
+                .replace("${repositoryUrl}", fixtures.getRepositoryUrl());
+        FileUtils.writeStringToFile(fixtures.getSettingsFile(), settings, StandardCharsets.UTF_8);
+        Files.createDirectories(new File(fixtures.getLocalRepository()).toPath());
+        return fixtures;
+    }
+
+    private static InputStream resource(String path) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream(FIXTURES + path);
+        if (in == null) {
+            throw new IOException("fixture " + path + " not found");
+        }
+        return in;
+    }
+
+    /**
+     * url of the file:// repository
+     *
+     * @return url of the repository
+     */
+    public String getRepositoryUrl() {
+        return new File(baseDir, "repository").toURI().toString();
+    }
+
+    /**
+     * local repository, empty after extraction
+     *
+     * @return path of the local repository
+     */
+    public String getLocalRepository() {
+        return new File(baseDir, "local-repository").getAbsolutePath();
+    }
+
+    /**
+     * settings file whose only mirror is the file:// repository
+     *
+     * @return the settings file
+     */
+    public File getSettingsFile() {
+        return new File(baseDir, "settings.xml");
+    }
+
+    /**
+     * a maven request that reads nothing outside the fixtures
+     *
+     * @return the request
+     */
+    public MavenRequest newMavenRequest() {
+        MavenRequest mavenRequest = new MavenRequest();
+        mavenRequest.setGlobalSettingsFile(getSettingsFile().getAbsolutePath());
+        mavenRequest.setUserSettingsFile(getSettingsFile().getAbsolutePath());
+        mavenRequest.setLocalRepositoryPath(getLocalRepository());
+        mavenRequest.setOffline(true);
+        return mavenRequest;
+    }
+
+    /**
+     * write a reactor of a parent and some modules. each module depends on the previous module and on one of
+     * the fixture libraries.
+     *
+     * @param modules count of the modules
+     * @return pom file of the parent
+     * @throws IOException if a pom can't be written
+     */
+    public File createReactor(int modules) throws IOException {
+        File reactorDir = new File(baseDir, "reactor-" + modules);
+        StringBuilder moduleList = new StringBuilder();
+        for (int i = 0; i < modules; i++) {
+            moduleList.append("        <module>module-").append(i).append("</module>\n");
+
+            StringBuilder dependencies = new StringBuilder();
+            dependencies.append(dependency("bench", i % 2 == 0 ? "lib-a" : "lib-d", "1.0"));
+            if (i > 0) {
+                dependencies.append(dependency("bench.reactor", "module-" + (i - 1), "1.0"));
+            }
+            writePom(new File(reactorDir, "module-" + i + "/pom.xml"), "    <parent>\n"
+                    + "        <groupId>bench.reactor</groupId>\n"
+                    + "        <artifactId>parent</artifactId>\n"
+                    + "        <version>1.0</version>\n"
+                    + "    </parent>\n"
+                    + "    <artifactId>module-" + i + "</artifactId>\n"
+                    + "    <dependencies>\n" + dependencies + "    </dependencies>\n");
+        }
+
+        File rootPom = new File(reactorDir, "pom.xml");
+        writePom(rootPom, "    <groupId>bench.reactor</groupId>\n"
+                + "    <artifactId>parent</artifactId>\n"
+                + "    <version>1.0</version>\n"
+                + "    <packaging>pom</packaging>\n"
+                + "    <modules>\n" + moduleList + "    </modules>\n");
+        return rootPom;
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "        <dependency>\n"
+                + "            <groupId>" + groupId + "</groupId>\n"
+                + "            <artifactId>" + artifactId + "</artifactId>\n"
+                + "            <version>" + version + "</version>\n"
+                + "        </dependency>\n";
+    }
+
+    private static void writePom(File pomFile, String content) throws IOException {
+        FileUtils.writeStringToFile(pomFile, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + content
+                + "</project>\n", StandardCharsets.UTF_8);
+    }
+
+    /**
+     * delete everything extracted or created
+     */
+    public void delete() {
+        FileUtils.deleteQuietly(baseDir);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.benchmark.generator.GeneratedFixture;
+import zmj.java.maven.inspect.benchmark.generator.GeneratorOptions;
+import zmj.java.maven.inspect.benchmark.generator.ScaleFixtureGenerator;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.handler.JavaProjectOptionHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * the whole inspection of a generated project, from the pom file to the options of every module. the
+ * repository is a generated file:// one, the local repository is filled by the first invocation.
+ * <p>
+ * the maven installation is read from the system property maven.home or the environment variable M2_HOME.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class HandleBenchmark {
+    @Param({"4"})
+    int fanOut;
+
+    @Param({"2", "3"})
+    int depth;
+
+    @Param({"4"})
+    int transitiveDepth;
+
+    private File baseDir;
+
+    private InspectArgumentsBean arguments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String mavenHome = System.getProperty("maven.home", System.getenv("M2_HOME"));
+        if (mavenHome == null) {
+            throw new IllegalStateException("set the system property maven.home or the environment variable M2_HOME");
+        }
+
+        baseDir = Files.createTempDirectory("inspect-benchmark").toFile();
+        GeneratedFixture fixture = new ScaleFixtureGenerator(new GeneratorOptions().setFanOut(fanOut)
+                .setDepth(depth).setTransitiveDepth(transitiveDepth)).generate(baseDir);
+
+        arguments = new InspectArgumentsBean();
+        arguments.setPomFile(fixture.getRootPom().getAbsolutePath());
+        arguments.setMavenHome(mavenHome);
+        arguments.setUserSettingsFile(fixture.getSettingsFile().getAbsolutePath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Benchmark
+    public List<JavaOptionBean> handle() throws MavenProjectInspectException {
+        return JavaProjectOptionHandler.handle(arguments);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * stand-in http repository on the loopback address, serving the files of a directory (e.g. a generated
+ * repository) with keep-alive connections. every response is delayed by a fixed latency, like a remote
+ * repository manager, and the most concurrent requests are recorded.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class HttpRepositoryServer implements AutoCloseable {
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final File root;
+
+    private final long latencyMillis;
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * start serving a directory on a free port
+     *
+     * @param root          directory of the repository
+     * @param latencyMillis delay of every response
+     * @throws IOException if the server can't be started
+     */
+    public HttpRepositoryServer(File root, long latencyMillis) throws IOException {
+        this.root = root.getCanonicalFile();
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "http-repository");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int active = activeRequests.incrementAndGet();
+        maxActiveRequests.accumulateAndGet(active, Math::max);
+        requests.incrementAndGet();
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            File file = new File(root, exchange.getRequestURI().getPath()).getCanonicalFile();
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            if (!file.toPath().startsWith(root.toPath()) || !file.isFile()) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (head) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(file.length()));
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, file.length());
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(file.toPath(), out);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            activeRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /**
+     * url of the repository
+     *
+     * @return http url ending with a slash
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ':' + server.getAddress().getPort() + '/';
+    }
+
+    /**
+     * most requests served at the same time since the last reset
+     *
+     * @return count of requests
+     */
+    public int getMaxActiveRequests() {
+        return maxActiveRequests.get();
+    }
+
+    /**
+     * requests served since the last reset
+     *
+     * @return count of requests
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * reset the counts of requests
+     */
+    public void reset() {
+        maxActiveRequests.set(0);
+        requests.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
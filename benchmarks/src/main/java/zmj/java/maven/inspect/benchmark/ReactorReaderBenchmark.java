@@ -0,0 +1,101 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import hudson.maven.MavenEmbedder;
+import hudson.maven.MavenEmbedderException;
+import hudson.maven.ReactorReader;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * look up every module of a reactor, and as many artifacts that are not modules
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class ReactorReaderBenchmark {
+    @Param({"500"})
+    int modules;
+
+    private Fixtures fixtures;
+
+    private ReactorReader reactorReader;
+
+    private List<Artifact> moduleArtifacts;
+
+    private List<Artifact> otherArtifacts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MavenEmbedderException, ProjectBuildingException {
+        fixtures = Fixtures.extract();
+        File rootPom = fixtures.createReactor(modules);
+
+        List<MavenProject> projects = new ArrayList<>();
+        try (MavenEmbedder mavenEmbedder = new MavenEmbedder(Thread.currentThread().getContextClassLoader(),
+                fixtures.newMavenRequest())) {
+            for (ProjectBuildingResult result : mavenEmbedder.buildProjects(rootPom, true)) {
+                projects.add(result.getProject());
+            }
+        }
+        reactorReader = new ReactorReader(projects);
+
+        moduleArtifacts = new ArrayList<>();
+        otherArtifacts = new ArrayList<>();
+        for (MavenProject project : projects) {
+            moduleArtifacts.add(new DefaultArtifact(project.getGroupId(), project.getArtifactId(), "jar",
+                    project.getVersion()));
+            otherArtifacts.add(new DefaultArtifact("bench.other", project.getArtifactId(), "jar",
+                    project.getVersion()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.delete();
+    }
+
+    @Benchmark
+    public void findModules(Blackhole blackhole) {
+        for (Artifact artifact : moduleArtifacts) {
+            blackhole.consume(reactorReader.findArtifact(artifact));
+        }
+    }
+
+    @Benchmark
+    public void findOthers(Blackhole blackhole) {
+        for (Artifact artifact : otherArtifacts) {
+            blackhole.consume(reactorReader.findArtifact(artifact));
+        }
+    }
+}
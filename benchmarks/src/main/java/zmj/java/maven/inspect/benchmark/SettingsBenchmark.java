@@ -0,0 +1,57 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark;
+
+import org.apache.maven.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.util.SettingsUtil;
+
+import java.io.IOException;
+
+/**
+ * read the settings file
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@State(Scope.Benchmark)
+public class SettingsBenchmark {
+    private Fixtures fixtures;
+
+    private String settingsFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixtures = Fixtures.extract();
+        settingsFile = fixtures.getSettingsFile().getAbsolutePath();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixtures.delete();
+    }
+
+    @Benchmark
+    public Settings build() throws MavenProjectInspectException {
+        return SettingsUtil.build(settingsFile, settingsFile);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark.generator;
+
+import java.io.File;
+
+/**
+ * files written by {@link ScaleFixtureGenerator}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class GeneratedFixture {
+    private final File rootPom;
+
+    private final File repository;
+
+    private final File localRepository;
+
+    private final File settingsFile;
+
+    private final int modules;
+
+    private final int libraries;
+
+    GeneratedFixture(File rootPom, File repository, File localRepository, File settingsFile, int modules,
+                     int libraries) {
+        this.rootPom = rootPom;
+        this.repository = repository;
+        this.localRepository = localRepository;
+        this.settingsFile = settingsFile;
+        this.modules = modules;
+        this.libraries = libraries;
+    }
+
+    /**
+     * pom file of the root aggregator
+     */
+    public File getRootPom() {
+        return rootPom;
+    }
+
+    /**
+     * the file:// repository
+     */
+    public File getRepository() {
+        return repository;
+    }
+
+    /**
+     * local repository, empty until something is resolved
+     */
+    public File getLocalRepository() {
+        return localRepository;
+    }
+
+    /**
+     * settings file with the local repository and the file:// repository as the only mirror
+     */
+    public File getSettingsFile() {
+        return settingsFile;
+    }
+
+    /**
+     * count of all the modules, aggregators included
+     */
+    public int getModules() {
+        return modules;
+    }
+
+    /**
+     * count of the libraries in the repository
+     */
+    public int getLibraries() {
+        return libraries;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark.generator;
+
+/**
+ * shape of the generated reactor and repository
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class GeneratorOptions {
+    /**
+     * sub modules of each aggregator
+     */
+    private int fanOut = 4;
+
+    /**
+     * levels of aggregators above the jar modules, there are fanOut ^ depth jar modules
+     */
+    private int depth = 2;
+
+    /**
+     * dependencies of a jar module on other (earlier) jar modules
+     */
+    private int moduleEdges = 2;
+
+    /**
+     * additional source roots added by build-helper-maven-plugin to each jar module
+     */
+    private int sourceRoots = 1;
+
+    /**
+     * direct library dependencies of each jar module
+     */
+    private int libraryDependencies = 3;
+
+    /**
+     * libraries on each level of the repository
+     */
+    private int libraryWidth = 20;
+
+    /**
+     * levels of libraries, a library depends on libraries of the next level
+     */
+    private int transitiveDepth = 4;
+
+    /**
+     * dependencies of a library on libraries of the next level
+     */
+    private int libraryFanOut = 2;
+
+    /**
+     * released versions of each library
+     */
+    private int versions = 3;
+
+    /**
+     * part of the dependencies on released libraries that use a version range
+     */
+    private double rangeRatio = 0.2;
+
+    /**
+     * part of the libraries that only have a timestamped SNAPSHOT
+     */
+    private double snapshotRatio = 0.1;
+
+    /**
+     * the same seed generates the same files
+     */
+    private long seed = 1;
+
+    public int getFanOut() {
+        return fanOut;
+    }
+
+    public GeneratorOptions setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public GeneratorOptions setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    public int getModuleEdges() {
+        return moduleEdges;
+    }
+
+    public GeneratorOptions setModuleEdges(int moduleEdges) {
+        this.moduleEdges = moduleEdges;
+        return this;
+    }
+
+    public int getSourceRoots() {
+        return sourceRoots;
+    }
+
+    public GeneratorOptions setSourceRoots(int sourceRoots) {
+        this.sourceRoots = sourceRoots;
+        return this;
+    }
+
+    public int getLibraryDependencies() {
+        return libraryDependencies;
+    }
+
+    public GeneratorOptions setLibraryDependencies(int libraryDependencies) {
+        this.libraryDependencies = libraryDependencies;
+        return this;
+    }
+
+    public int getLibraryWidth() {
+        return libraryWidth;
+    }
+
+    public GeneratorOptions setLibraryWidth(int libraryWidth) {
+        this.libraryWidth = libraryWidth;
+        return this;
+    }
+
+    public int getTransitiveDepth() {
+        return transitiveDepth;
+    }
+
+    public GeneratorOptions setTransitiveDepth(int transitiveDepth) {
+        this.transitiveDepth = transitiveDepth;
+        return this;
+    }
+
+    public int getLibraryFanOut() {
+        return libraryFanOut;
+    }
+
+    public GeneratorOptions setLibraryFanOut(int libraryFanOut) {
+        this.libraryFanOut = libraryFanOut;
+        return this;
+    }
+
+    public int getVersions() {
+        return versions;
+    }
+
+    public GeneratorOptions setVersions(int versions) {
+        this.versions = versions;
+        return this;
+    }
+
+    public double getRangeRatio() {
+        return rangeRatio;
+    }
+
+    public GeneratorOptions setRangeRatio(double rangeRatio) {
+        this.rangeRatio = rangeRatio;
+        return this;
+    }
+
+    public double getSnapshotRatio() {
+        return snapshotRatio;
+    }
+
+    public GeneratorOptions setSnapshotRatio(double snapshotRatio) {
+        this.snapshotRatio = snapshotRatio;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GeneratorOptions setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.benchmark.generator;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * <p>
+ * generate a multi-module project and a matching file:// maven repository, for load testing the inspection
+ * without any network.
+ * </p>
+ * <p>
+ * the project is a tree of aggregators, {@link GeneratorOptions#getFanOut()} sub modules each and
+ * {@link GeneratorOptions#getDepth()} levels deep, with jar modules as leaves. a jar module depends on some
+ * earlier jar modules, on some libraries of the repository, and adds source roots by build-helper-maven-plugin.
+ * </p>
+ * <p>
+ * the libraries are on {@link GeneratorOptions#getTransitiveDepth()} levels, a library depends on libraries of
+ * the next level only, so the transitive graph is as deep as the levels. a library has released versions,
+ * or only a timestamped SNAPSHOT. dependencies on released libraries are a fixed version or a version range.
+ * maven-metadata.xml and sha1 checksums are written the same way as a real repository has them.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class ScaleFixtureGenerator {
+    public static final String REACTOR_GROUP_ID = "scale.reactor";
+
+    public static final String LIBRARY_GROUP_ID = "scale.lib";
+
+    private static final String REACTOR_VERSION = "1.0";
+
+    private static final String SNAPSHOT_VERSION = "1.0-SNAPSHOT";
+
+    private static final String SNAPSHOT_TIMESTAMP = "20261017.000000";
+
+    private static final String LAST_UPDATED = "20261017000000";
+
+    /**
+     * an empty zip file, the inspection never opens the jars
+     */
+    private static final byte[] EMPTY_JAR = {0x50, 0x4b, 0x05, 0x06, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0};
+
+    private final GeneratorOptions options;
+
+    private final Random random;
+
+    /**
+     * jar modules written so far, artifact ids
+     */
+    private final List<String> jarModules = new ArrayList<>();
+
+    /**
+     * libraries having only a SNAPSHOT version, by level and index
+     */
+    private boolean[][] snapshots;
+
+    private int modules;
+
+    public ScaleFixtureGenerator(GeneratorOptions options) {
+        this.options = options;
+        this.random = new Random(options.getSeed());
+    }
+
+    /**
+     * write the project to outDir/reactor, the repository to outDir/repository, and outDir/settings.xml
+     *
+     * @param outDir output directory, created if not exist
+     * @return the generated files
+     * @throws IOException if a file can't be written
+     */
+    public GeneratedFixture generate(File outDir) throws IOException {
+        File repository = new File(outDir, "repository");
+        File localRepository = new File(outDir, "local-repository");
+        File settingsFile = new File(outDir, "settings.xml");
+        Files.createDirectories(localRepository.toPath());
+
+        generateRepository(repository);
+        File rootPom = generateAggregator(new File(outDir, "reactor"), "root", null, options.getDepth());
+        // the mirror has the id of the repository in the super pom, so the central repository brought in by
+        // the library poms is the same repository and nothing is looked up in the network
+        write(settingsFile, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<settings xmlns=\"http://maven.apache.org/SETTINGS/1.0.0\">\n"
+                + "    <localRepository>" + localRepository.getAbsolutePath() + "</localRepository>\n"
+                + "    <mirrors>\n"
+                + "        <mirror>\n"
+                + "            <id>central</id>\n"
+                + "            <mirrorOf>*</mirrorOf>\n"
+                + "            <url>" + repository.toURI() + "</url>\n"
+                + "        </mirror>\n"
+                + "    </mirrors>\n"
+                + "</settings>\n");
+
+        return new GeneratedFixture(rootPom, repository, localRepository, settingsFile, modules,
+                options.getLibraryWidth() * options.getTransitiveDepth());
+    }
+
+    /**
+     * generate a fixture from the command line, for example:
+     * <pre>
+     * java -cp benchmarks.jar zmj.java.maven.inspect.benchmark.generator.ScaleFixtureGenerator \
+     *     --out /tmp/scale --fan-out 10 --depth 3 --transitive-depth 6
+     * </pre>
+     *
+     * @param args command line arguments
+     * @throws IOException if a file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        Options cliOptions = new Options();
+        cliOptions.addOption(Option.builder().longOpt("out").hasArg().required().desc("output directory").build());
+        addIntOption(cliOptions, "fan-out", "sub modules of each aggregator");
+        addIntOption(cliOptions, "depth", "levels of aggregators above the jar modules");
+        addIntOption(cliOptions, "module-edges", "dependencies of a jar module on other jar modules");
+        addIntOption(cliOptions, "source-roots", "build-helper-maven-plugin source roots of each jar module");
+        addIntOption(cliOptions, "library-dependencies", "direct library dependencies of each jar module");
+        addIntOption(cliOptions, "library-width", "libraries on each level of the repository");
+        addIntOption(cliOptions, "transitive-depth", "levels of libraries");
+        addIntOption(cliOptions, "library-fan-out", "dependencies of a library on the next level");
+        addIntOption(cliOptions, "versions", "released versions of each library");
+        cliOptions.addOption(Option.builder().longOpt("range-ratio").hasArg()
+                .desc("part of the library dependencies using a version range").build());
+        cliOptions.addOption(Option.builder().longOpt("snapshot-ratio").hasArg()
+                .desc("part of the libraries only having a SNAPSHOT").build());
+        cliOptions.addOption(Option.builder().longOpt("seed").hasArg().desc("random seed").build());
+
+        CommandLine commandLine;
+        try {
+            commandLine = new DefaultParser().parse(cliOptions, args);
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp(ScaleFixtureGenerator.class.getSimpleName(), cliOptions);
+            System.exit(1);
+            return;
+        }
+
+        GeneratorOptions options = new GeneratorOptions();
+        options.setFanOut(getInt(commandLine, "fan-out", options.getFanOut()))
+                .setDepth(getInt(commandLine, "depth", options.getDepth()))
+                .setModuleEdges(getInt(commandLine, "module-edges", options.getModuleEdges()))
+                .setSourceRoots(getInt(commandLine, "source-roots", options.getSourceRoots()))
+                .setLibraryDependencies(getInt(commandLine, "library-dependencies",
+                        options.getLibraryDependencies()))
+                .setLibraryWidth(getInt(commandLine, "library-width", options.getLibraryWidth()))
+                .setTransitiveDepth(getInt(commandLine, "transitive-depth", options.getTransitiveDepth()))
+                .setLibraryFanOut(getInt(commandLine, "library-fan-out", options.getLibraryFanOut()))
+                .setVersions(getInt(commandLine, "versions", options.getVersions()))
+                .setRangeRatio(Double.parseDouble(commandLine.getOptionValue("range-ratio",
+                        String.valueOf(options.getRangeRatio()))))
+                .setSnapshotRatio(Double.parseDouble(commandLine.getOptionValue("snapshot-ratio",
+                        String.valueOf(options.getSnapshotRatio()))))
+                .setSeed(Long.parseLong(commandLine.getOptionValue("seed", String.valueOf(options.getSeed()))));
+
+        GeneratedFixture fixture = new ScaleFixtureGenerator(options).generate(new File(commandLine
+                .getOptionValue("out")));
+        System.out.println("modules:       " + fixture.getModules());
+        System.out.println("libraries:     " + fixture.getLibraries());
+        System.out.println("pom file:      " + fixture.getRootPom());
+        System.out.println("settings file: " + fixture.getSettingsFile());
+    }
+
+    private static void addIntOption(Options cliOptions, String name, String description) {
+        cliOptions.addOption(Option.builder().longOpt(name).hasArg().desc(description).build());
+    }
+
+    private static int getInt(CommandLine commandLine, String name, int defaultValue) {
+        String value = commandLine.getOptionValue(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    // ----------------------------------------------------------------------
+    // repository
+    // ----------------------------------------------------------------------
+
+    private void generateRepository(File repository) throws IOException {
+        // decided first, a dependency needs to know if its target is a SNAPSHOT
+        snapshots = new boolean[options.getTransitiveDepth()][options.getLibraryWidth()];
+        for (boolean[] level : snapshots) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = random.nextDouble() < options.getSnapshotRatio();
+            }
+        }
+
+        for (int level = 0; level < options.getTransitiveDepth(); level++) {
+            for (int i = 0; i < options.getLibraryWidth(); i++) {
+                StringBuilder dependencies = new StringBuilder();
+                if (level + 1 < options.getTransitiveDepth()) {
+                    for (int target : pick(options.getLibraryWidth(), options.getLibraryFanOut())) {
+                        dependencies.append(dependency(LIBRARY_GROUP_ID, library(level + 1, target),
+                                libraryVersion(snapshots[level + 1][target])));
+                    }
+                }
+                writeLibrary(repository, library(level, i), snapshots[level][i], dependencies.toString());
+            }
+        }
+    }
+
+    private static String library(int level, int index) {
+        return "lib-" + level + "-" + index;
+    }
+
+    /**
+     * version written in a dependency on a library
+     */
+    private String libraryVersion(boolean snapshot) {
+        if (snapshot) {
+            return SNAPSHOT_VERSION;
+        }
+        if (random.nextDouble() < options.getRangeRatio()) {
+            return "[1.0," + releaseVersion(options.getVersions()) + ")";
+        }
+        return releaseVersion(random.nextInt(options.getVersions()));
+    }
+
+    private static String releaseVersion(int index) {
+        return "1." + index;
+    }
+
+    private void writeLibrary(File repository, String artifactId, boolean snapshot, String dependencies)
+            throws IOException {
+        File artifactDir = new File(repository, LIBRARY_GROUP_ID.replace('.', '/') + "/" + artifactId);
+        List<String> versions = new ArrayList<>();
+        if (snapshot) {
+            versions.add(SNAPSHOT_VERSION);
+            String fileVersion = SNAPSHOT_VERSION.replace("SNAPSHOT", SNAPSHOT_TIMESTAMP + "-1");
+            File versionDir = new File(artifactDir, SNAPSHOT_VERSION);
+            writeArtifactFiles(versionDir, artifactId, SNAPSHOT_VERSION, fileVersion, dependencies);
+            writeChecked(new File(versionDir, "maven-metadata.xml"), metadata(artifactId, "    <version>"
+                    + SNAPSHOT_VERSION + "</version>\n"
+                    + "    <versioning>\n"
+                    + "        <snapshot>\n"
+                    + "            <timestamp>" + SNAPSHOT_TIMESTAMP + "</timestamp>\n"
+                    + "            <buildNumber>1</buildNumber>\n"
+                    + "        </snapshot>\n"
+                    + "        <lastUpdated>" + LAST_UPDATED + "</lastUpdated>\n"
+                    + "        <snapshotVersions>\n"
+                    + snapshotVersion("jar", fileVersion)
+                    + snapshotVersion("pom", fileVersion)
+                    + "        </snapshotVersions>\n"
+                    + "    </versioning>\n"));
+        } else {
+            for (int i = 0; i < options.getVersions(); i++) {
+                String version = releaseVersion(i);
+                versions.add(version);
+                writeArtifactFiles(new File(artifactDir, version), artifactId, version, version, dependencies);
+            }
+        }
+
+        StringBuilder versioning = new StringBuilder();
+        versioning.append("    <versioning>\n");
+        String latest = versions.get(versions.size() - 1);
+        versioning.append("        <latest>").append(latest).append("</latest>\n");
+        if (!snapshot) {
+            versioning.append("        <release>").append(latest).append("</release>\n");
+        }
+        versioning.append("        <versions>\n");
+        for (String version : versions) {
+            versioning.append("            <version>").append(version).append("</version>\n");
+        }
+        versioning.append("        </versions>\n");
+        versioning.append("        <lastUpdated>").append(LAST_UPDATED).append("</lastUpdated>\n");
+        versioning.append("    </versioning>\n");
+        writeChecked(new File(artifactDir, "maven-metadata.xml"), metadata(artifactId, versioning.toString()));
+    }
+
+    private static String snapshotVersion(String extension, String value) {
+        return "            <snapshotVersion>\n"
+                + "                <extension>" + extension + "</extension>\n"
+                + "                <value>" + value + "</value>\n"
+                + "                <updated>" + LAST_UPDATED + "</updated>\n"
+                + "            </snapshotVersion>\n";
+    }
+
+    private static String metadata(String artifactId, String content) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<metadata>\n"
+                + "    <groupId>" + LIBRARY_GROUP_ID + "</groupId>\n"
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + content
+                + "</metadata>\n";
+    }
+
+    private void writeArtifactFiles(File versionDir, String artifactId, String version, String fileVersion,
+                                    String dependencies) throws IOException {
+        String baseName = artifactId + "-" + fileVersion;
+        writeChecked(new File(versionDir, baseName + ".pom"), pom("    <groupId>" + LIBRARY_GROUP_ID
+                + "</groupId>\n"
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + "    <version>" + version + "</version>\n"
+                + (dependencies.isEmpty() ? "" : "    <dependencies>\n" + dependencies + "    </dependencies>\n")));
+        writeChecked(new File(versionDir, baseName + ".jar"), EMPTY_JAR);
+    }
+
+    // ----------------------------------------------------------------------
+    // reactor
+    // ----------------------------------------------------------------------
+
+    /**
+     * write an aggregator and everything below it
+     *
+     * @return pom file of the aggregator
+     */
+    private File generateAggregator(File dir, String artifactId, String parentArtifactId, int levels)
+            throws IOException {
+        modules++;
+        StringBuilder moduleList = new StringBuilder();
+        for (int i = 0; i < options.getFanOut(); i++) {
+            String child = (parentArtifactId == null ? "m" : artifactId) + "-" + i;
+            moduleList.append("        <module>").append(child).append("</module>\n");
+            if (levels > 1) {
+                generateAggregator(new File(dir, child), child, artifactId, levels - 1);
+            } else {
+                generateJarModule(new File(dir, child), child, artifactId);
+            }
+        }
+
+        File pomFile = new File(dir, "pom.xml");
+        write(pomFile, pom(parent(parentArtifactId)
+                + (parentArtifactId == null ? "    <groupId>" + REACTOR_GROUP_ID + "</groupId>\n" : "")
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + (parentArtifactId == null ? "    <version>" + REACTOR_VERSION + "</version>\n" : "")
+                + "    <packaging>pom</packaging>\n"
+                + "    <modules>\n" + moduleList + "    </modules>\n"));
+        return pomFile;
+    }
+
+    private void generateJarModule(File dir, String artifactId, String parentArtifactId) throws IOException {
+        modules++;
+        StringBuilder dependencies = new StringBuilder();
+        for (int target : pick(jarModules.size(), options.getModuleEdges())) {
+            dependencies.append(dependency(REACTOR_GROUP_ID, jarModules.get(target), REACTOR_VERSION));
+        }
+        for (int target : pick(options.getLibraryWidth(), options.getLibraryDependencies())) {
+            // only the libraries of the first level, so the whole depth is reached
+            dependencies.append(dependency(LIBRARY_GROUP_ID, library(0, target),
+                    libraryVersion(snapshots[0][target])));
+        }
+
+        StringBuilder sources = new StringBuilder();
+        for (int i = 0; i < options.getSourceRoots(); i++) {
+            sources.append("                                <source>src/generated/java-").append(i)
+                    .append("</source>\n");
+        }
+        String plugins = options.getSourceRoots() == 0 ? "" : "    <build>\n"
+                + "        <plugins>\n"
+                + "            <plugin>\n"
+                + "                <groupId>org.codehaus.mojo</groupId>\n"
+                + "                <artifactId>build-helper-maven-plugin</artifactId>\n"
+                + "                <version>3.2.0</version>\n"
+                + "                <executions>\n"
+                + "                    <execution>\n"
+                + "                        <id>add-source</id>\n"
+                + "                        <goals>\n"
+                + "                            <goal>add-source</goal>\n"
+                + "                        </goals>\n"
+                + "                        <configuration>\n"
+                + "                            <sources>\n"
+                + sources
+                + "                            </sources>\n"
+                + "                        </configuration>\n"
+                + "                    </execution>\n"
+                + "                </executions>\n"
+                + "            </plugin>\n"
+                + "        </plugins>\n"
+                + "    </build>\n";
+
+        write(new File(dir, "pom.xml"), pom(parent(parentArtifactId)
+                + "    <artifactId>" + artifactId + "</artifactId>\n"
+                + (dependencies.length() == 0 ? "" : "    <dependencies>\n" + dependencies + "    </dependencies>\n")
+                + plugins));
+        jarModules.add(artifactId);
+    }
+
+    private static String parent(String parentArtifactId) {
+        if (parentArtifactId == null) {
+            return "";
+        }
+        return "    <parent>\n"
+                + "        <groupId>" + REACTOR_GROUP_ID + "</groupId>\n"
+                + "        <artifactId>" + parentArtifactId + "</artifactId>\n"
+                + "        <version>" + REACTOR_VERSION + "</version>\n"
+                + "    </parent>\n";
+    }
+
+    // ----------------------------------------------------------------------
+    // helpers
+    // ----------------------------------------------------------------------
+
+    /**
+     * pick distinct random indexes in [0, bound)
+     */
+    private Set<Integer> pick(int bound, int count) {
+        Set<Integer> picked = new LinkedHashSet<>();
+        int wanted = Math.min(bound, count);
+        while (picked.size() < wanted) {
+            picked.add(random.nextInt(bound));
+        }
+        return picked;
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "        <dependency>\n"
+                + "            <groupId>" + groupId + "</groupId>\n"
+                + "            <artifactId>" + artifactId + "</artifactId>\n"
+                + "            <version>" + version + "</version>\n"
+                + "        </dependency>\n";
+    }
+
+    private static String pom(String content) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+                + "    <modelVersion>4.0.0</modelVersion>\n"
+                + content
+                + "</project>\n";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(File file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content);
+    }
+
+    /**
+     * write the file and its sha1 checksum
+     */
+    private static void writeChecked(File file, String content) throws IOException {
+        writeChecked(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeChecked(File file, byte[] content) throws IOException {
+        write(file, content);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest(content)) {
+            hex.append(String.format("%02x", b));
+        }
+        write(new File(file.getPath() + ".sha1"), hex.toString());
+    }
+}
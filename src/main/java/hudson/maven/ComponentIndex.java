@@ -0,0 +1,326 @@
+package hudson.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.component.annotations.Component;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.eclipse.sisu.inject.DeferredClass;
+import org.eclipse.sisu.plexus.ComponentImpl;
+import org.eclipse.sisu.plexus.PlexusTypeBinder;
+import org.eclipse.sisu.plexus.PlexusTypeListener;
+import org.eclipse.sisu.plexus.PlexusTypeVisitor;
+import org.eclipse.sisu.space.BeanScanning;
+import org.eclipse.sisu.space.ClassSpace;
+import org.eclipse.sisu.space.LoadedClass;
+import org.eclipse.sisu.space.SpaceModule;
+import org.eclipse.sisu.space.URLClassSpace;
+import zmj.java.maven.inspect.util.CacheCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * components found by the index scanning ({@link org.codehaus.plexus.PlexusConstants#SCANNING_INDEX})
+ * of a maven home, kept in one binary file per maven home.
+ * </p>
+ * <p>
+ * the first container scans the <code>META-INF/sisu</code> indexes and the classes of the realm like sisu does,
+ * and records every component it binds. the next containers bind the recorded components without reading any
+ * index or class file. the file is recorded again when a jar of mavenHome/lib is added, removed or modified.
+ * the <code>components.xml</code> files are still read by the container.
+ * </p>
+ */
+final class ComponentIndex {
+
+    /**
+     * change it when the file format changes, all the index files will be recorded again
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String INDEX_FILE_PREFIX = "components-";
+    private static final String INDEX_FILE_SUFFIX = ".idx";
+
+    private static final byte QUALIFIED_TYPE = 0;
+    private static final byte PLEXUS_COMPONENT = 1;
+
+    /**
+     * scanning of the realms added to a container, the private final field of DefaultPlexusContainer in
+     * org.eclipse.sisu.plexus 0.3.x (0.3.3 with maven 3.6). null if the sisu version doesn't have it
+     */
+    private static final Field SCANNING_FIELD = getScanningField();
+
+    private final File indexFile;
+
+    private final String fingerprint;
+
+    /**
+     * components read from the index file, null if they are recorded by the container being built
+     */
+    private final List<IndexedComponent> components;
+
+    private final List<IndexedComponent> recordedComponents = new ArrayList<>();
+
+    /**
+     * read the index of the maven home if it is still valid
+     *
+     * @param directory directory of the index files
+     * @param mavenHome maven installation
+     * @throws IOException if the directory or the maven home can't be read
+     */
+    ComponentIndex(File directory, File mavenHome) throws IOException {
+        Files.createDirectories(directory.toPath());
+        File canonicalHome = mavenHome.getCanonicalFile();
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, canonicalHome.getPath());
+        this.indexFile = new File(directory, INDEX_FILE_PREFIX + CacheCodec.toHex(digest.digest())
+                + INDEX_FILE_SUFFIX);
+        this.fingerprint = fingerprint(canonicalHome);
+        this.components = read();
+    }
+
+    private static String fingerprint(File mavenHome) {
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, String.valueOf(FORMAT_VERSION));
+        CacheCodec.updateJars(digest, new File(mavenHome, "lib"));
+        return CacheCodec.toHex(digest.digest());
+    }
+
+    private List<IndexedComponent> read() {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = CacheCodec.openInput(indexFile)) {
+            if (in.readInt() != FORMAT_VERSION || !fingerprint.equals(in.readUTF())) {
+                return null;
+            }
+            int size = in.readInt();
+            List<IndexedComponent> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(IndexedComponent.read(in));
+            }
+            return result;
+        } catch (IOException e) {
+            // recorded again
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the components are recorded, the index file is written by {@link #store()}
+     */
+    boolean isRecording() {
+        return components == null;
+    }
+
+    /**
+     * module binding the components of the realm, to give to a container without classpath scanning
+     *
+     * @param realm realm of the maven home
+     * @return the module
+     */
+    Module newModule(ClassRealm realm) {
+        ClassSpace space = new URLClassSpace(realm);
+        if (isRecording()) {
+            return new SpaceModule(space, BeanScanning.INDEX).with(
+                    binder -> new PlexusTypeVisitor(new RecordingTypeListener(new PlexusTypeBinder(binder))));
+        }
+        return binder -> replay(binder, space);
+    }
+
+    private void replay(Binder binder, ClassSpace space) {
+        // the same bindings as the space module of the index scanning
+        binder.bind(ClassSpace.class).toInstance(space);
+        PlexusTypeBinder typeBinder = new PlexusTypeBinder(binder);
+        String source = space.toString();
+        for (IndexedComponent component : components) {
+            component.bind(typeBinder, space, source);
+        }
+    }
+
+    /**
+     * write the recorded components, a reader never sees a half written file
+     */
+    void store() {
+        try {
+            CacheCodec.writeAtomically(indexFile, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(fingerprint);
+                out.writeInt(recordedComponents.size());
+                for (IndexedComponent component : recordedComponents) {
+                    component.write(out);
+                }
+            });
+        } catch (IOException e) {
+            // scanned again by the next container
+        }
+    }
+
+    /**
+     * remove the index file, when a container can't be built with it
+     */
+    void delete() {
+        indexFile.delete();
+    }
+
+    /**
+     * @return false if the sisu version has no scanning field to restore, the index can't be used with it
+     */
+    static boolean isSupported() {
+        return SCANNING_FIELD != null;
+    }
+
+    /**
+     * <p>
+     * a container built without classpath scanning doesn't scan the realms of the build extensions and the
+     * plugins either, give it back the index scanning for them.
+     * </p>
+     *
+     * @return false if the container can't be changed, it must not be used
+     */
+    static boolean restoreScanning(DefaultPlexusContainer container) {
+        if (SCANNING_FIELD == null) {
+            return false;
+        }
+        try {
+            SCANNING_FIELD.set(container, BeanScanning.INDEX);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Field getScanningField() {
+        try {
+            Field scanning = DefaultPlexusContainer.class.getDeclaredField("scanning");
+            if (scanning.getType() != BeanScanning.class) {
+                return null;
+            }
+            scanning.setAccessible(true);
+            return scanning;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * binds the components like sisu, and records them
+     */
+    private final class RecordingTypeListener implements PlexusTypeListener {
+        private final PlexusTypeBinder typeBinder;
+
+        RecordingTypeListener(PlexusTypeBinder typeBinder) {
+            this.typeBinder = typeBinder;
+        }
+
+        @Override
+        public void hear(Class<?> qualifiedType, Object source) {
+            recordedComponents.add(new IndexedComponent(qualifiedType.getName(), null));
+            typeBinder.hear(qualifiedType, source);
+        }
+
+        @Override
+        public void hear(Component component, DeferredClass<?> implementation, Object source) {
+            recordedComponents.add(new IndexedComponent(implementation.getName(), component));
+            typeBinder.hear(component, implementation, source);
+        }
+    }
+
+    /**
+     * a JSR330 named type, or a plexus component with its annotation
+     */
+    private static final class IndexedComponent {
+        private final String implementation;
+        private final String role;
+        private final String hint;
+        private final String instantiationStrategy;
+        private final String description;
+
+        IndexedComponent(String implementation, Component component) {
+            this(implementation, component == null ? null : component.role().getName(),
+                    component == null ? null : component.hint(),
+                    component == null ? null : component.instantiationStrategy(),
+                    component == null ? null : component.description());
+        }
+
+        private IndexedComponent(String implementation, String role, String hint, String instantiationStrategy,
+                                 String description) {
+            this.implementation = implementation;
+            this.role = role;
+            this.hint = hint;
+            this.instantiationStrategy = instantiationStrategy;
+            this.description = description;
+        }
+
+        void bind(PlexusTypeBinder typeBinder, ClassSpace space, String source) {
+            if (role == null) {
+                typeBinder.hear(space.loadClass(implementation), source);
+            } else {
+                typeBinder.hear(new ComponentImpl(space.loadClass(role), hint, instantiationStrategy, description),
+                        new LoadedClass<>(space.loadClass(implementation)), source);
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeByte(role == null ? QUALIFIED_TYPE : PLEXUS_COMPONENT);
+            out.writeUTF(implementation);
+            if (role != null) {
+                out.writeUTF(role);
+                writeNullable(out, hint);
+                writeNullable(out, instantiationStrategy);
+                writeNullable(out, description);
+            }
+        }
+
+        static IndexedComponent read(DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            String implementation = in.readUTF();
+            if (type == QUALIFIED_TYPE) {
+                return new IndexedComponent(implementation, null, null, null, null);
+            }
+            if (type != PLEXUS_COMPONENT) {
+                throw new IOException("unknown component type " + type);
+            }
+            return new IndexedComponent(implementation, in.readUTF(), readNullable(in), readNullable(in),
+                    readNullable(in));
+        }
+
+        private static void writeNullable(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readNullable(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+}
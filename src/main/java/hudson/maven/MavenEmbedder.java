@@ -25,7 +25,6 @@ import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
 import org.apache.maven.artifact.repository.layout.ArtifactRepositoryLayout;
 import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
 import org.apache.maven.artifact.resolver.ArtifactResolutionException;
-import org.apache.maven.cli.configuration.SettingsXmlConfigurationProcessor;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.DefaultMavenExecutionResult;
 import org.apache.maven.execution.MavenExecutionRequest;
@@ -39,6 +38,7 @@ import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.plugin.LegacySupport;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
@@ -50,17 +50,15 @@ import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.SettingsConfigurationException;
-import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuilder;
 import org.apache.maven.settings.building.SettingsBuildingException;
-import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.repository.exception.ComponentLifecycleException;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.DirectoryScanner;
-import org.codehaus.plexus.util.Os;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.aether.RepositorySystemSession;
 
 import java.io.File;
@@ -72,7 +70,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -84,7 +81,7 @@ import java.util.Properties;
  * @author <a href="mailto:jason@maven.org">Jason van Zyl</a>
  * @author Olivier Lamy
  */
-public class MavenEmbedder {
+public class MavenEmbedder implements AutoCloseable {
     public static final String userHome = System.getProperty("user.home");
     public static final String DEFAULT_LOCAL_REPO_ID = "local";
     public static final String DEFAULT_LAYOUT_ID = "default";
@@ -97,9 +94,14 @@ public class MavenEmbedder {
     private MavenXpp3Reader modelReader;
     private MavenXpp3Writer modelWriter;
     private MavenExecutionRequest mavenExecutionRequest;
+    private RepositorySystemSession repositorySystemSession;
+    private boolean closed;
 
+    /**
+     * the container is taken from the pool of {@link MavenEmbedderUtils}, {@link #close()} gives it back
+     */
     public MavenEmbedder(File mavenHome, MavenRequest mavenRequest) throws MavenEmbedderException {
-        this(mavenHome, mavenRequest, MavenEmbedderUtils.buildPlexusContainer(mavenHome, mavenRequest));
+        this(mavenHome, mavenRequest, MavenEmbedderUtils.acquirePlexusContainer(mavenHome, mavenRequest));
     }
 
 
@@ -117,16 +119,15 @@ public class MavenEmbedder {
         try {
             this.mavenExecutionRequest = this.buildMavenExecutionRequest(mavenRequest);
 
-            RepositorySystemSession rss =
-                    ((DefaultMaven) lookup(Maven.class)).newRepositorySession(mavenExecutionRequest);
+            RepositorySystemSession rss = buildRepositorySystemSession();
 
             mavenSession = new MavenSession(plexusContainer, rss, mavenExecutionRequest,
                     new DefaultMavenExecutionResult());
 
             lookup(LegacySupport.class).setSession(mavenSession);
-        } catch (MavenEmbedderException e) {
-            throw new MavenEmbedderException(e.getMessage(), e);
-        } catch (ComponentLookupException e) {
+        } catch (MavenEmbedderException | ComponentLookupException | RuntimeException e) {
+            // not used by any embedder, a pooled container goes back to the pool, another one is disposed
+            MavenEmbedderUtils.releasePlexusContainer(plexusContainer);
             throw new MavenEmbedderException(e.getMessage(), e);
         }
     }
@@ -139,6 +140,18 @@ public class MavenEmbedder {
         return plexusContainer;
     }
 
+    /**
+     * give back the container, a pooled one is kept for the next embedder, others are disposed.
+     * the embedder can't be used after that.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            MavenEmbedderUtils.releasePlexusContainer(plexusContainer);
+        }
+    }
+
     protected MavenExecutionRequest buildMavenExecutionRequest(MavenRequest mavenRequest)
             throws MavenEmbedderException, ComponentLookupException {
         MavenExecutionRequest mavenExecutionRequest = new DefaultMavenExecutionRequest();
@@ -147,7 +160,7 @@ public class MavenEmbedder {
             mavenExecutionRequest.setGlobalSettingsFile(new File(mavenRequest.getGlobalSettingsFile()));
         }
 
-        if (mavenExecutionRequest.getUserSettingsFile() != null) {
+        if (mavenRequest.getUserSettingsFile() != null) {
             mavenExecutionRequest.setUserSettingsFile(new File(mavenRequest.getUserSettingsFile()));
         }
 
@@ -166,6 +179,7 @@ public class MavenEmbedder {
         mavenExecutionRequest.setOffline(mavenRequest.isOffline());
 
         mavenExecutionRequest.setUpdateSnapshots(mavenRequest.isUpdateSnapshots());
+        mavenExecutionRequest.setNoSnapshotUpdates(mavenRequest.isNoSnapshotUpdates());
 
         // TODO check null and create a console one ?
         mavenExecutionRequest.setTransferListener(mavenRequest.getTransferListener());
@@ -178,7 +192,7 @@ public class MavenEmbedder {
         if (mavenRequest.getSystemProperties() != null) {
             mavenExecutionRequest.getSystemProperties().putAll(mavenRequest.getSystemProperties());
         }
-        mavenExecutionRequest.getSystemProperties().putAll(getEnvVars());
+        mavenExecutionRequest.getSystemProperties().putAll(SettingsCache.getEnvVars());
 
         if (this.mavenHome != null) {
             mavenExecutionRequest.getSystemProperties().put("maven.home", this.mavenHome.getAbsolutePath());
@@ -220,38 +234,18 @@ public class MavenEmbedder {
 
     }
 
-    private Properties getEnvVars() {
-        Properties envVars = new Properties();
-        boolean caseSensitive = !Os.isFamily(Os.FAMILY_WINDOWS);
-        for (Entry<String, String> entry : System.getenv().entrySet()) {
-            String key = "env." + (caseSensitive ? entry.getKey() : entry.getKey().toUpperCase(Locale.ENGLISH));
-            envVars.setProperty(key, entry.getValue());
-        }
-        return envVars;
-    }
-
+    /**
+     * effective settings of the request, built once for all the embedders as long as the files don't change
+     */
     public Settings getSettings()
             throws MavenEmbedderException, ComponentLookupException {
-
-        SettingsBuildingRequest settingsBuildingRequest = new DefaultSettingsBuildingRequest();
-        if (this.mavenRequest.getGlobalSettingsFile() != null) {
-            settingsBuildingRequest.setGlobalSettingsFile(new File(this.mavenRequest.getGlobalSettingsFile()));
-        } else {
-            settingsBuildingRequest.setGlobalSettingsFile(SettingsXmlConfigurationProcessor.DEFAULT_GLOBAL_SETTINGS_FILE);
-        }
-        if (this.mavenRequest.getUserSettingsFile() != null) {
-            settingsBuildingRequest.setUserSettingsFile(new File(this.mavenRequest.getUserSettingsFile()));
-        } else {
-            settingsBuildingRequest.setUserSettingsFile(SettingsXmlConfigurationProcessor.DEFAULT_USER_SETTINGS_FILE);
-        }
-
-        settingsBuildingRequest.setUserProperties(this.mavenRequest.getUserProperties());
-        settingsBuildingRequest.getSystemProperties().putAll(System.getProperties());
-        settingsBuildingRequest.getSystemProperties().putAll(this.mavenRequest.getSystemProperties());
-        settingsBuildingRequest.getSystemProperties().putAll(getEnvVars());
+        Properties systemProperties = new Properties();
+        systemProperties.putAll(System.getProperties());
+        systemProperties.putAll(this.mavenRequest.getSystemProperties());
 
         try {
-            return lookup(SettingsBuilder.class).build(settingsBuildingRequest).getEffectiveSettings();
+            return SettingsCache.getSettings(lookup(SettingsBuilder.class), this.mavenRequest.getGlobalSettingsFile(),
+                    this.mavenRequest.getUserSettingsFile(), this.mavenRequest.getUserProperties(), systemProperties);
         } catch (SettingsBuildingException e) {
             throw new MavenEmbedderException(e.getMessage(), e);
         }
@@ -346,13 +340,13 @@ public class MavenEmbedder {
         try {
             Thread.currentThread().setContextClassLoader(this.plexusContainer.getContainerRealm());
             ProjectBuilder projectBuilder = lookup(ProjectBuilder.class);
-            ProjectBuildingRequest projectBuildingRequest = this.mavenExecutionRequest.getProjectBuildingRequest();
+            // a copy per call, projects can be built by many threads at the same time
+            ProjectBuildingRequest projectBuildingRequest =
+                    new DefaultProjectBuildingRequest(this.mavenExecutionRequest.getProjectBuildingRequest());
 
             projectBuildingRequest.setValidationLevel(this.mavenRequest.getValidationLevel());
 
-            RepositorySystemSession repositorySystemSession = buildRepositorySystemSession();
-
-            projectBuildingRequest.setRepositorySession(repositorySystemSession);
+            projectBuildingRequest.setRepositorySession(getRepositorySystemSession());
 
             projectBuildingRequest.setProcessPlugins(this.mavenRequest.isProcessPlugins());
 
@@ -374,9 +368,31 @@ public class MavenEmbedder {
     // Artifacts
     // ----------------------------------------------------------------------
 
+    /**
+     * one session for all the projects built by this embedder, the poms and artifacts it resolves are
+     * cached for the next build
+     */
+    private synchronized RepositorySystemSession getRepositorySystemSession() throws ComponentLookupException {
+        if (repositorySystemSession == null) {
+            repositorySystemSession = buildRepositorySystemSession();
+        }
+        return repositorySystemSession;
+    }
+
+    /**
+     * the session of maven for the request, the global update policy of the request replaces the one of
+     * every repository unless the snapshots are updated always or never
+     */
     private RepositorySystemSession buildRepositorySystemSession() throws ComponentLookupException {
         DefaultMaven defaultMaven = (DefaultMaven) plexusContainer.lookup(Maven.class);
-        return defaultMaven.newRepositorySession(mavenExecutionRequest);
+        RepositorySystemSession session = defaultMaven.newRepositorySession(mavenExecutionRequest);
+        if (mavenRequest.getGlobalUpdatePolicy() == null || mavenRequest.isUpdateSnapshots()
+                || mavenRequest.isNoSnapshotUpdates()) {
+            return session;
+        }
+        DefaultRepositorySystemSession result = new DefaultRepositorySystemSession(session);
+        result.setUpdatePolicy(mavenRequest.getGlobalUpdatePolicy());
+        return result;
     }
 
     public List<MavenProject> collectProjects(File basedir, String[] includes, String[] excludes)
@@ -475,9 +491,18 @@ public class MavenEmbedder {
 
         //TODO: we'll need to allow finer grained creation of repositories but this will do for now
 
-        String updatePolicyFlag = ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS;
+        // the defaults of maven: checked once a day, unless the snapshots are updated always or never
+        String updatePolicyFlag = ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY;
+        if (mavenRequest.isUpdateSnapshots()) {
+            updatePolicyFlag = ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS;
+        } else if (mavenRequest.isNoSnapshotUpdates()) {
+            updatePolicyFlag = ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER;
+        } else if (mavenRequest.getGlobalUpdatePolicy() != null) {
+            updatePolicyFlag = mavenRequest.getGlobalUpdatePolicy();
+        }
 
-        String checksumPolicyFlag = ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN;
+        String checksumPolicyFlag = mavenRequest.getGlobalChecksumPolicy() != null
+                ? mavenRequest.getGlobalChecksumPolicy() : ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN;
 
         ArtifactRepositoryPolicy snapshotsPolicy = new ArtifactRepositoryPolicy(true, updatePolicyFlag,
                 checksumPolicyFlag);
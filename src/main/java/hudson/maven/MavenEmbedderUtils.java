@@ -25,10 +25,12 @@ import org.apache.tools.ant.AntClassLoader;
 import org.codehaus.plexus.ContainerConfiguration;
 import org.codehaus.plexus.DefaultContainerConfiguration;
 import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.PlexusContainerException;
 import org.codehaus.plexus.classworlds.ClassWorld;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.classworlds.realm.NoSuchRealmException;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -38,6 +40,7 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Properties;
 
@@ -49,6 +52,7 @@ public class MavenEmbedderUtils {
 
     public static final boolean debug = Boolean.getBoolean("hudson.maven.MavenEmbedderUtils.debug");
     private static final String POM_PROPERTIES_PATH = "META-INF/maven/org.apache.maven/maven-core/pom.properties";
+    private static final PlexusContainerPool CONTAINER_POOL = new PlexusContainerPool();
 
     private MavenEmbedderUtils() {
         // no op only to prevent construction
@@ -115,6 +119,14 @@ public class MavenEmbedderUtils {
     }
 
     public static PlexusContainer buildPlexusContainer(File mavenHome, MavenRequest mavenRequest) throws MavenEmbedderException {
+        if (mavenRequest.getContainerComponentIndexDirectory() != null
+                && PlexusConstants.SCANNING_INDEX.equals(mavenRequest.getContainerClassPathScanning())) {
+            PlexusContainer plexusContainer = buildIndexedPlexusContainer(mavenHome, mavenRequest);
+            if (plexusContainer != null) {
+                return plexusContainer;
+            }
+        }
+
         ClassWorld world = new ClassWorld("plexus.core", Thread.currentThread().getContextClassLoader());
 
         ClassRealm classRealm = MavenEmbedderUtils.buildClassRealm(mavenHome, world,
@@ -131,6 +143,122 @@ public class MavenEmbedderUtils {
         return buildPlexusContainer(mavenRequest, conf);
     }
 
+    /**
+     * <p>
+     * build a container binding the components recorded in the {@link ComponentIndex} of the maven home,
+     * the index is recorded by this container if there is no valid one.
+     * </p>
+     *
+     * @return null if the index can't be used, the container is built with the classpath scanning
+     */
+    private static PlexusContainer buildIndexedPlexusContainer(File mavenHome, MavenRequest mavenRequest)
+            throws MavenEmbedderException {
+        if (!ComponentIndex.isSupported()) {
+            return null;
+        }
+        ComponentIndex componentIndex;
+        try {
+            componentIndex = new ComponentIndex(mavenRequest.getContainerComponentIndexDirectory(), mavenHome);
+        } catch (IOException e) {
+            return null;
+        }
+
+        ClassWorld world = new ClassWorld("plexus.core", Thread.currentThread().getContextClassLoader());
+        DefaultPlexusContainer plexusContainer = null;
+        boolean built = false;
+        try {
+            ClassRealm classRealm = MavenEmbedderUtils.buildClassRealm(mavenHome, world,
+                    Thread.currentThread().getContextClassLoader());
+
+            // the module binds the components of the scanning, auto wiring is implied by the scanning only
+            DefaultContainerConfiguration conf = new DefaultContainerConfiguration();
+            conf.setContainerConfigurationURL(mavenRequest.getOverridingComponentsXml())
+                    .setRealm(classRealm)
+                    .setClassWorld(world)
+                    .setClassPathScanning(PlexusConstants.SCANNING_OFF)
+                    .setAutoWiring(true)
+                    .setComponentVisibility(mavenRequest.getContainerComponentVisibility());
+
+            try {
+                plexusContainer = new DefaultPlexusContainer(conf, componentIndex.newModule(classRealm));
+            } catch (PlexusContainerException | RuntimeException e) {
+                // a class of the index is not there any more
+                componentIndex.delete();
+                return null;
+            }
+            if (!ComponentIndex.restoreScanning(plexusContainer)) {
+                return null;
+            }
+            if (componentIndex.isRecording()) {
+                componentIndex.store();
+            }
+            configurePlexusContainer(plexusContainer, mavenRequest);
+            built = true;
+            return plexusContainer;
+        } finally {
+            if (!built) {
+                disposeClassWorld(plexusContainer, world);
+            }
+        }
+    }
+
+    /**
+     * dispose a container that is not used, with the realms of its class world
+     */
+    private static void disposeClassWorld(PlexusContainer plexusContainer, ClassWorld world) {
+        if (plexusContainer != null) {
+            plexusContainer.dispose();
+        }
+        for (ClassRealm realm : new ArrayList<>(world.getRealms())) {
+            try {
+                world.disposeRealm(realm.getId());
+            } catch (NoSuchRealmException e) {
+                // already disposed by the container
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * get a started container for the maven home and the request, an idle one of the pool if any,
+     * otherwise a new one built by {@link #buildPlexusContainer(File, MavenRequest)}.
+     * </p>
+     * <p>
+     * give it back by {@link #releasePlexusContainer(PlexusContainer)} when it is not used any more.
+     * </p>
+     *
+     * @param mavenHome    cannot be <code>null</code>
+     * @param mavenRequest the container configuration is read from it
+     * @return the container, used by nobody else until it is released
+     * @throws MavenEmbedderException
+     */
+    public static PlexusContainer acquirePlexusContainer(File mavenHome, MavenRequest mavenRequest)
+            throws MavenEmbedderException {
+        if (mavenHome == null) {
+            throw new IllegalArgumentException("mavenHome cannot be null");
+        }
+        PlexusContainerPool.ContainerKey key = new PlexusContainerPool.ContainerKey(mavenHome,
+                Thread.currentThread().getContextClassLoader(), mavenRequest);
+        PlexusContainer container = CONTAINER_POOL.acquire(key);
+        if (container == null) {
+            container = buildPlexusContainer(mavenHome, mavenRequest);
+            CONTAINER_POOL.register(key, container);
+        }
+        return container;
+    }
+
+    /**
+     * give back a container got by {@link #acquirePlexusContainer(File, MavenRequest)}, it is kept for the
+     * next request until it is idle too long. a container not from the pool is disposed.
+     *
+     * @param container the container
+     */
+    public static void releasePlexusContainer(PlexusContainer container) {
+        if (!CONTAINER_POOL.release(container)) {
+            PlexusContainerPool.dispose(container);
+        }
+    }
+
     /**
      * used by PomParser in Jenkins
      *
@@ -167,18 +295,23 @@ public class MavenEmbedderUtils {
             throws MavenEmbedderException {
         try {
             DefaultPlexusContainer plexusContainer = new DefaultPlexusContainer(containerConfiguration);
-            if (mavenRequest.getMavenLoggerManager() != null) {
-                plexusContainer.setLoggerManager(mavenRequest.getMavenLoggerManager());
-            }
-            if (mavenRequest.getLoggingLevel() > 0) {
-                plexusContainer.getLoggerManager().setThreshold(mavenRequest.getLoggingLevel());
-            }
+            configurePlexusContainer(plexusContainer, mavenRequest);
             return plexusContainer;
         } catch (PlexusContainerException e) {
             throw new MavenEmbedderException(e.getMessage(), e);
         }
     }
 
+    private static void configurePlexusContainer(DefaultPlexusContainer plexusContainer,
+                                                 MavenRequest mavenRequest) {
+        if (mavenRequest.getMavenLoggerManager() != null) {
+            plexusContainer.setLoggerManager(mavenRequest.getMavenLoggerManager());
+        }
+        if (mavenRequest.getLoggingLevel() > 0) {
+            plexusContainer.getLoggerManager().setThreshold(mavenRequest.getLoggingLevel());
+        }
+    }
+
     /**
      * @param mavenHome Maven Home directory
      * @return the maven version
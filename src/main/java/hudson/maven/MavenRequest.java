@@ -27,6 +27,7 @@ import org.codehaus.plexus.logging.LoggerManager;
 import org.eclipse.aether.repository.WorkspaceReader;
 import org.eclipse.aether.transfer.TransferListener;
 
+import java.io.File;
 import java.net.URL;
 import java.util.List;
 import java.util.Properties;
@@ -81,6 +82,13 @@ public class MavenRequest {
 
     private String globalChecksumPolicy;
 
+    /**
+     * update policy of all the remote repositories, like
+     * {@link org.eclipse.aether.repository.RepositoryPolicy#UPDATE_POLICY_DAILY}. the declared ones if null,
+     * {@link #isUpdateSnapshots()} and {@link #isNoSnapshotUpdates()} come first
+     */
+    private String globalUpdatePolicy;
+
     private boolean interactive;
 
     private boolean cacheTransferError = true;
@@ -137,6 +145,12 @@ public class MavenRequest {
      */
     private String containerClassPathScanning = PlexusConstants.SCANNING_INDEX;
 
+    /**
+     * directory of the component indexes recorded by the index scanning of a maven home,
+     * null to scan every time, see {@link ComponentIndex}
+     */
+    private File containerComponentIndexDirectory;
+
     public MavenRequest() {
         // no op
     }
@@ -337,6 +351,15 @@ public class MavenRequest {
         return this;
     }
 
+    public String getGlobalUpdatePolicy() {
+        return globalUpdatePolicy;
+    }
+
+    public MavenRequest setGlobalUpdatePolicy(String globalUpdatePolicy) {
+        this.globalUpdatePolicy = globalUpdatePolicy;
+        return this;
+    }
+
     public boolean isInteractive() {
         return interactive;
     }
@@ -460,4 +483,12 @@ public class MavenRequest {
         this.containerClassPathScanning = containerClassPathScanning;
     }
 
+    public File getContainerComponentIndexDirectory() {
+        return containerComponentIndexDirectory;
+    }
+
+    public void setContainerComponentIndexDirectory(File containerComponentIndexDirectory) {
+        this.containerComponentIndexDirectory = containerComponentIndexDirectory;
+    }
+
 }
@@ -0,0 +1,238 @@
+package hudson.maven;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.LegacySupport;
+import org.codehaus.plexus.PlexusContainer;
+import org.codehaus.plexus.classworlds.realm.ClassRealm;
+import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+import org.codehaus.plexus.logging.LoggerManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * started plexus containers which are not used by any {@link MavenEmbedder}, keyed by maven home
+ * and container configuration.
+ * </p>
+ * <p>
+ * a container is used by one embedder at a time. when it is given back, the per-request state
+ * ({@link LegacySupport} session) is cleared, and it waits for the next embedder with the same key.
+ * containers idle longer than the idle timeout are disposed.
+ * </p>
+ */
+final class PlexusContainerPool {
+
+    /**
+     * milliseconds a container may stay idle before it is disposed
+     */
+    private static final long IDLE_TIMEOUT = Long.getLong("hudson.maven.PlexusContainerPool.idleTimeout",
+            TimeUnit.MINUTES.toMillis(5));
+
+    private final Map<ContainerKey, Deque<IdleContainer>> idleContainers = new HashMap<>();
+
+    /**
+     * key of the containers handed out, to give them back to the right queue
+     */
+    private final Map<PlexusContainer, ContainerKey> usedContainers = new HashMap<>();
+
+    private ScheduledExecutorService evictor;
+
+    /**
+     * get an idle container started for the maven home and the request
+     *
+     * @return the container, null if there is no idle one
+     */
+    synchronized PlexusContainer acquire(ContainerKey key) {
+        Deque<IdleContainer> containers = idleContainers.get(key);
+        if (containers == null || containers.isEmpty()) {
+            return null;
+        }
+        // the last used one, its caches are the warmest
+        PlexusContainer container = containers.pollLast().container;
+        usedContainers.put(container, key);
+        return container;
+    }
+
+    /**
+     * record a new container started for the key, it will be given back by {@link #release(PlexusContainer)}
+     */
+    synchronized void register(ContainerKey key, PlexusContainer container) {
+        usedContainers.put(container, key);
+    }
+
+    /**
+     * give back a container
+     *
+     * @param container container got by {@link #acquire(ContainerKey)} or registered
+     * @return false if the container is not from this pool, the caller should dispose it
+     */
+    boolean release(PlexusContainer container) {
+        ContainerKey key;
+        synchronized (this) {
+            key = usedContainers.remove(container);
+        }
+        if (key == null) {
+            return false;
+        }
+
+        try {
+            container.lookup(LegacySupport.class).setSession(null);
+        } catch (ComponentLookupException e) {
+            dispose(container);
+            return true;
+        }
+
+        synchronized (this) {
+            idleContainers.computeIfAbsent(key, k -> new ArrayDeque<>())
+                    .addLast(new IdleContainer(container, System.currentTimeMillis()));
+            startEvictor();
+        }
+        return true;
+    }
+
+    private void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plexus-container-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(IDLE_TIMEOUT / 2, 1000L);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void evictIdle() {
+        long expired = System.currentTimeMillis() - IDLE_TIMEOUT;
+        List<PlexusContainer> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Deque<IdleContainer>> queues = idleContainers.values().iterator();
+            while (queues.hasNext()) {
+                Deque<IdleContainer> containers = queues.next();
+                // oldest first
+                while (!containers.isEmpty() && containers.peekFirst().idleSince < expired) {
+                    evicted.add(containers.pollFirst().container);
+                }
+                if (containers.isEmpty()) {
+                    queues.remove();
+                }
+            }
+        }
+        for (PlexusContainer container : evicted) {
+            dispose(container);
+        }
+    }
+
+    static void dispose(PlexusContainer container) {
+        ClassRealm realm = container.getContainerRealm();
+        container.dispose();
+        try {
+            realm.close();
+        } catch (IOException e) {
+            // the jars stay open until the realm is collected
+        }
+    }
+
+    private static final class IdleContainer {
+        private final PlexusContainer container;
+        private final long idleSince;
+
+        IdleContainer(PlexusContainer container, long idleSince) {
+            this.container = container;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * everything a container is started with, containers with the same key are interchangeable
+     */
+    static final class ContainerKey {
+        private final String mavenHome;
+        private final ClassLoader parent;
+        private final String configurationUrl;
+        private final String classPathScanning;
+        private final String componentVisibility;
+        private final LoggerManager loggerManager;
+        private final int loggingLevel;
+        /**
+         * a container built with a component index binds the recorded components, see {@link ComponentIndex}
+         */
+        private final String componentIndexDirectory;
+
+        ContainerKey(File mavenHome, ClassLoader parent, MavenRequest mavenRequest) {
+            this.mavenHome = mavenHome.getAbsolutePath();
+            this.parent = parent;
+            URL url = mavenRequest.getOverridingComponentsXml();
+            this.configurationUrl = url == null ? null : url.toExternalForm();
+            this.classPathScanning = mavenRequest.getContainerClassPathScanning();
+            this.componentVisibility = mavenRequest.getContainerComponentVisibility();
+            this.loggerManager = mavenRequest.getMavenLoggerManager();
+            this.loggingLevel = mavenRequest.getLoggingLevel();
+            File indexDirectory = mavenRequest.getContainerComponentIndexDirectory();
+            this.componentIndexDirectory = indexDirectory == null ? null : indexDirectory.getAbsolutePath();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContainerKey)) {
+                return false;
+            }
+            ContainerKey that = (ContainerKey) o;
+            // class loaders and logger managers are compared by identity
+            return loggingLevel == that.loggingLevel && parent == that.parent
+                    && loggerManager == that.loggerManager && mavenHome.equals(that.mavenHome)
+                    && Objects.equals(configurationUrl, that.configurationUrl)
+                    && Objects.equals(classPathScanning, that.classPathScanning)
+                    && Objects.equals(componentVisibility, that.componentVisibility)
+                    && Objects.equals(componentIndexDirectory, that.componentIndexDirectory);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mavenHome.hashCode();
+            result = 31 * result + System.identityHashCode(parent);
+            result = 31 * result + Objects.hashCode(configurationUrl);
+            result = 31 * result + Objects.hashCode(classPathScanning);
+            result = 31 * result + Objects.hashCode(componentVisibility);
+            result = 31 * result + System.identityHashCode(loggerManager);
+            result = 31 * result + loggingLevel;
+            result = 31 * result + Objects.hashCode(componentIndexDirectory);
+            return result;
+        }
+    }
+}
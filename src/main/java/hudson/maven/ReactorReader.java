@@ -19,7 +19,6 @@ package hudson.maven;
  * under the License.
  */
 
-import org.apache.maven.artifact.ArtifactUtils;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.repository.WorkspaceReader;
@@ -27,170 +26,189 @@ import org.eclipse.aether.repository.WorkspaceRepository;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * NOTE : <b>this class is not designed for external use so it can change without any prior notice</b>
  * class coming from ASF sources
  * http://svn.apache.org/repos/asf/maven/maven-3/trunk/maven-core/src/main/java/org/apache/maven/ReactorReader.java
- * FIXME simplify more !!
+ * <p>
+ * the files of every project are computed once, indexed by repository conflict id, so lookups
+ * don't build any string. the main artifact of a project is its output directory and the test-jar
+ * is its test output directory, so the projects don't need to be packaged.
  *
  * @author Olivier Lamy
  * @since 1.1
  */
 public class ReactorReader
         implements WorkspaceReader {
-    private Map<String, MavenProject> projectsByGAV;
+    private static final String POM_EXTENSION = "pom";
+    private static final String JAR_EXTENSION = "jar";
+    private static final String TESTS_CLASSIFIER = "tests";
 
-    private Map<String, List<MavenProject>> projectsByGA;
+    private final Map<ConflictId, List<ProjectFile>> filesByConflictId = new ConcurrentHashMap<>();
 
-    private WorkspaceRepository repository;
+    private final Set<String> projectKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
-    private File workspaceRoot;
+    private final WorkspaceRepository repository;
 
-    public ReactorReader(Map<String, MavenProject> reactorProjects, File workspaceRoot) {
-        projectsByGAV = reactorProjects;
-        this.workspaceRoot = workspaceRoot;
-        projectsByGA = new HashMap<>(reactorProjects.size() * 2);
-        for (MavenProject project : reactorProjects.values()) {
-            String key = ArtifactUtils.versionlessKey(project.getGroupId(), project.getArtifactId());
-
-            List<MavenProject> projects = projectsByGA.get(key);
-
-            if (projects == null) {
-                projects = new ArrayList<>(1);
-                projectsByGA.put(key, projects);
-            }
-
-            projects.add(project);
+    public ReactorReader(Collection<MavenProject> reactorProjects) {
+        for (MavenProject project : reactorProjects) {
+            addProject(project);
         }
 
-        repository = new WorkspaceRepository("reactor", new HashSet<String>(projectsByGAV.keySet()));
+        repository = new WorkspaceRepository("reactor", new HashSet<>(projectKeys));
     }
 
-    private File find(MavenProject project, Artifact artifact) {
-        if ("pom".equals(artifact.getExtension())) {
-            return project.getFile();
+    private void index(MavenProject project, String extension, String classifier, File file) {
+        if (file == null) {
+            return;
         }
-
-        org.apache.maven.artifact.Artifact matchingArtifact = findMatchingArtifact(project, artifact);
-        if (matchingArtifact != null) {
-            return matchingArtifact.getFile();
-        }
-        return null;
+        ConflictId conflictId = new ConflictId(project.getGroupId(), project.getArtifactId(), extension, classifier);
+        filesByConflictId.computeIfAbsent(conflictId, key -> new CopyOnWriteArrayList<>())
+                .add(new ProjectFile(project.getVersion(), file));
     }
 
-    /**
-     * Tries to resolve the specified artifact from the artifacts of the given project.
-     *
-     * @param project           The project to try to resolve the artifact from, must not be <code>null</code>.
-     * @param requestedArtifact The artifact to resolve, must not be <code>null</code>.
-     * @return The matching artifact from the project or <code>null</code> if not found.
-     */
-    private org.apache.maven.artifact.Artifact findMatchingArtifact(MavenProject project, Artifact requestedArtifact) {
-        String requestedRepositoryConflictId = getConflictId(requestedArtifact);
-
-        org.apache.maven.artifact.Artifact mainArtifact = project.getArtifact();
-        if (requestedRepositoryConflictId.equals(getConflictId(mainArtifact))) {
-            mainArtifact.setFile(new File(workspaceRoot, project.getArtifactId()));
-            return mainArtifact;
-        }
-
-        Collection<org.apache.maven.artifact.Artifact> attachedArtifacts = project.getAttachedArtifacts();
-        if (attachedArtifacts != null && !attachedArtifacts.isEmpty()) {
-            for (org.apache.maven.artifact.Artifact attachedArtifact : attachedArtifacts) {
-                if (requestedRepositoryConflictId.equals(getConflictId(attachedArtifact))) {
-                    attachedArtifact.setFile(new File(workspaceRoot, project.getArtifactId()));
-                    return attachedArtifact;
-                }
-            }
-        }
-
-        return null;
+    private static File toFile(String path) {
+        return path == null ? null : new File(path);
     }
 
     /**
-     * Gets the repository conflict id of the specified artifact. Unlike the dependency conflict id, the repository
-     * conflict id uses the artifact file extension instead of the artifact type. Hence, the repository conflict id more
-     * closely reflects the identity of artifacts as perceived by a repository.
+     * Gets the extension of the artifact the same way as the repository conflict id. Unlike the dependency
+     * conflict id, the repository conflict id uses the artifact file extension instead of the artifact type.
      *
      * @param artifact The artifact, must not be <code>null</code>.
-     * @return The repository conflict id, never <code>null</code>.
+     * @return The extension, never <code>null</code>.
      */
-    private String getConflictId(org.apache.maven.artifact.Artifact artifact) {
-        StringBuilder buffer = new StringBuilder(128);
-        buffer.append(artifact.getGroupId());
-        buffer.append(':').append(artifact.getArtifactId());
+    private static String getExtension(org.apache.maven.artifact.Artifact artifact) {
         if (artifact.getArtifactHandler() != null) {
-            buffer.append(':').append(artifact.getArtifactHandler().getExtension());
-        } else {
-            buffer.append(':').append(artifact.getType());
-        }
-        if (artifact.hasClassifier()) {
-            buffer.append(':').append(artifact.getClassifier());
+            return artifact.getArtifactHandler().getExtension();
         }
-        return buffer.toString();
+        return artifact.getType();
     }
 
-    private String getConflictId(Artifact artifact) {
-        StringBuilder buffer = new StringBuilder(128);
-        buffer.append(artifact.getGroupId());
-        buffer.append(':').append(artifact.getArtifactId());
-        buffer.append(':').append(artifact.getExtension());
-        if (artifact.getClassifier().length() > 0) {
-            buffer.append(':').append(artifact.getClassifier());
-        }
-        return buffer.toString();
+    private static String getClassifier(org.apache.maven.artifact.Artifact artifact) {
+        return artifact.hasClassifier() ? artifact.getClassifier() : "";
     }
 
-    public File findArtifact(Artifact artifact) {
-        String projectKey = artifact.getGroupId() + ':' + artifact.getArtifactId() + ':' + artifact.getVersion();
-
-        MavenProject project = projectsByGAV.get(projectKey);
+    private List<ProjectFile> find(Artifact artifact) {
+        List<ProjectFile> files = filesByConflictId.get(new ConflictId(artifact.getGroupId(),
+                artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier()));
+        return files == null ? Collections.emptyList() : files;
+    }
 
-        if (project != null) {
-            return find(project, artifact);
+    public File findArtifact(Artifact artifact) {
+        for (ProjectFile projectFile : find(artifact)) {
+            if (projectFile.version.equals(artifact.getVersion())) {
+                return projectFile.file;
+            }
         }
 
         return null;
     }
 
     public List<String> findVersions(Artifact artifact) {
-        String key = artifact.getGroupId() + ':' + artifact.getArtifactId();
-
-        List<MavenProject> projects = projectsByGA.get(key);
-        if (projects == null || projects.isEmpty()) {
+        List<ProjectFile> files = find(artifact);
+        if (files.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<String> versions = new ArrayList<String>();
-
-        for (MavenProject project : projects) {
-            if (find(project, artifact) != null) {
-                versions.add(project.getVersion());
-            }
+        List<String> versions = new ArrayList<>(files.size());
+        for (ProjectFile projectFile : files) {
+            versions.add(projectFile.version);
         }
 
         return Collections.unmodifiableList(versions);
     }
 
     public void addProject(MavenProject mavenProject) {
-        String key = mavenProject.getGroupId() + ':' + mavenProject.getArtifactId();
-        this.projectsByGA.put(key, Arrays.asList(mavenProject));
-
-        String projectKey =
-                mavenProject.getGroupId() + ':' + mavenProject.getArtifactId() + ':' + mavenProject.getVersion();
+        projectKeys.add(mavenProject.getGroupId() + ':' + mavenProject.getArtifactId() + ':'
+                + mavenProject.getVersion());
+
+        index(mavenProject, POM_EXTENSION, "", mavenProject.getFile());
+
+        // the project is not packaged, use the class files instead
+        if (!POM_EXTENSION.equals(mavenProject.getPackaging())) {
+            File outputDirectory = toFile(mavenProject.getBuild().getOutputDirectory());
+            String extension = getExtension(mavenProject.getArtifact());
+            index(mavenProject, extension, "", outputDirectory);
+            if (!JAR_EXTENSION.equals(extension)) {
+                // packaging like bundle, still referenced as jar by the other modules
+                index(mavenProject, JAR_EXTENSION, "", outputDirectory);
+            }
+            index(mavenProject, JAR_EXTENSION, TESTS_CLASSIFIER,
+                    toFile(mavenProject.getBuild().getTestOutputDirectory()));
+        }
 
-        this.projectsByGAV.put(projectKey, mavenProject);
+        List<org.apache.maven.artifact.Artifact> attachedArtifacts = mavenProject.getAttachedArtifacts();
+        if (attachedArtifacts != null) {
+            for (org.apache.maven.artifact.Artifact attachedArtifact : attachedArtifacts) {
+                index(mavenProject, getExtension(attachedArtifact), getClassifier(attachedArtifact),
+                        attachedArtifact.getFile());
+            }
+        }
     }
 
     public WorkspaceRepository getRepository() {
         return repository;
     }
+
+    /**
+     * repository conflict id: groupId, artifactId, extension and classifier
+     */
+    private static final class ConflictId {
+        private final String groupId;
+        private final String artifactId;
+        private final String extension;
+        private final String classifier;
+        private final int hash;
+
+        ConflictId(String groupId, String artifactId, String extension, String classifier) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.extension = extension;
+            this.classifier = classifier == null ? "" : classifier;
+            this.hash = ((groupId.hashCode() * 31 + artifactId.hashCode()) * 31 + Objects.hashCode(extension)) * 31
+                    + this.classifier.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConflictId)) {
+                return false;
+            }
+            ConflictId that = (ConflictId) o;
+            return hash == that.hash && artifactId.equals(that.artifactId) && groupId.equals(that.groupId)
+                    && Objects.equals(extension, that.extension) && classifier.equals(that.classifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * a file of a project, with the version of the project
+     */
+    private static final class ProjectFile {
+        private final String version;
+        private final File file;
+
+        ProjectFile(String version, File file) {
+            this.version = version;
+            this.file = file;
+        }
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package hudson.maven;
+
+import org.apache.maven.cli.configuration.SettingsXmlConfigurationProcessor;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
+import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
+import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.apache.maven.settings.building.SettingsBuildingRequest;
+import org.codehaus.plexus.util.Os;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * effective settings built by the {@link SettingsBuilder}, memoized per global and user settings file,
+ * shared by the command line and every {@link MavenEmbedder} of the process.
+ * </p>
+ * <p>
+ * a memoized entry is built again when the modification time or the length of any of the two files changed,
+ * or when any property the files reference has another value. every caller gets its own copy of the settings.
+ * </p>
+ */
+public final class SettingsCache {
+
+    /**
+     * most settings kept, a process normally uses one or two
+     */
+    private static final int MAX_ENTRIES = Integer.getInteger("hudson.maven.SettingsCache.maxEntries", 16);
+
+    private static final Map<SettingsKey, CachedSettings> SETTINGS =
+            new LinkedHashMap<SettingsKey, CachedSettings>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SettingsKey, CachedSettings> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    /**
+     * a property referenced by the settings, like ${user.home}
+     */
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * the environment of a process doesn't change
+     */
+    private static volatile Properties envVars;
+
+    /**
+     * used when there is no container, the same components as the one of maven
+     */
+    private static volatile SettingsBuilder defaultSettingsBuilder;
+
+    private SettingsCache() {
+    }
+
+    /**
+     * environment variables as properties, prefixed by "env.", upper case on windows.
+     * the same instance is returned every time, it must not be modified
+     */
+    public static Properties getEnvVars() {
+        Properties result = envVars;
+        if (result == null) {
+            result = new Properties();
+            boolean caseSensitive = !Os.isFamily(Os.FAMILY_WINDOWS);
+            for (Entry<String, String> entry : System.getenv().entrySet()) {
+                String key = "env." + (caseSensitive ? entry.getKey() : entry.getKey().toUpperCase(Locale.ENGLISH));
+                result.setProperty(key, entry.getValue());
+            }
+            envVars = result;
+        }
+        return result;
+    }
+
+    /**
+     * get the effective settings with the settings builder of the maven distribution, without a container
+     *
+     * @see #getSettings(SettingsBuilder, String, String, Properties, Properties)
+     */
+    public static Settings getSettings(String globalSettingsFile, String userSettingsFile,
+                                       Properties userProperties, Properties systemProperties)
+            throws SettingsBuildingException {
+        SettingsBuilder settingsBuilder = defaultSettingsBuilder;
+        if (settingsBuilder == null) {
+            settingsBuilder = new DefaultSettingsBuilderFactory().newInstance();
+            defaultSettingsBuilder = settingsBuilder;
+        }
+        return getSettings(settingsBuilder, globalSettingsFile, userSettingsFile, userProperties, systemProperties);
+    }
+
+    /**
+     * get the effective settings, built only if they are not memoized or any of the files changed since
+     *
+     * @param settingsBuilder    builder used if the settings are built
+     * @param globalSettingsFile global settings file, null for the default one of maven
+     * @param userSettingsFile   user settings file, null for the default one of maven
+     * @param userProperties     user properties to interpolate the settings with
+     * @param systemProperties   system properties to interpolate the settings with,
+     *                           the environment variables are added
+     * @return a copy of the effective settings
+     * @throws SettingsBuildingException if the settings can't be built
+     */
+    public static Settings getSettings(SettingsBuilder settingsBuilder, String globalSettingsFile,
+                                       String userSettingsFile, Properties userProperties,
+                                       Properties systemProperties) throws SettingsBuildingException {
+        File globalFile = globalSettingsFile == null ? SettingsXmlConfigurationProcessor.DEFAULT_GLOBAL_SETTINGS_FILE
+                : new File(globalSettingsFile);
+        File userFile = userSettingsFile == null ? SettingsXmlConfigurationProcessor.DEFAULT_USER_SETTINGS_FILE
+                : new File(userSettingsFile);
+
+        Properties allSystemProperties = new Properties();
+        if (systemProperties != null) {
+            allSystemProperties.putAll(systemProperties);
+        }
+        allSystemProperties.putAll(getEnvVars());
+
+        SettingsKey key = new SettingsKey(globalFile, userFile);
+        // the stamps are taken before building, a file changed meanwhile is built again the next time
+        long[] stamps = stamps(globalFile, userFile);
+        CachedSettings cached;
+        synchronized (SETTINGS) {
+            cached = SETTINGS.get(key);
+        }
+        if (cached != null && cached.isValid(stamps, userProperties, allSystemProperties)) {
+            return cached.settings.clone();
+        }
+
+        SettingsBuildingRequest settingsBuildingRequest = new DefaultSettingsBuildingRequest();
+        settingsBuildingRequest.setGlobalSettingsFile(globalFile);
+        settingsBuildingRequest.setUserSettingsFile(userFile);
+        if (userProperties != null) {
+            settingsBuildingRequest.setUserProperties(userProperties);
+        }
+        settingsBuildingRequest.setSystemProperties(allSystemProperties);
+        Settings settings = settingsBuilder.build(settingsBuildingRequest).getEffectiveSettings();
+
+        Set<String> names = getExpressions(globalFile, userFile);
+        if (names == null) {
+            return settings;
+        }
+        Map<String, String> properties = new HashMap<>();
+        for (String name : names) {
+            properties.put(name, getProperty(name, userProperties, allSystemProperties));
+        }
+        synchronized (SETTINGS) {
+            SETTINGS.put(key, new CachedSettings(settings, stamps, properties));
+        }
+        return settings.clone();
+    }
+
+    /**
+     * the global settings file of a maven installation. the default one of maven is relative to the
+     * working directory when maven.conf is not set, like when maven is embedded
+     *
+     * @param mavenHome maven installation
+     * @return the file, it may not exist
+     */
+    public static File getGlobalSettingsFile(File mavenHome) {
+        return new File(mavenHome, "conf/settings.xml");
+    }
+
+    /**
+     * names of the properties the settings files are interpolated with
+     *
+     * @return null if any of the files can't be read, the settings are not memoized
+     */
+    private static Set<String> getExpressions(File... files) {
+        Set<String> names = new HashSet<>();
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            try {
+                Matcher matcher = EXPRESSION.matcher(new String(Files.readAllBytes(file.toPath()),
+                        StandardCharsets.UTF_8));
+                while (matcher.find()) {
+                    names.add(matcher.group(1));
+                }
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return names;
+    }
+
+    private static String getProperty(String name, Properties userProperties, Properties systemProperties) {
+        // the user properties come first, like in the settings builder
+        String value = userProperties == null ? null : userProperties.getProperty(name);
+        return value != null ? value : systemProperties.getProperty(name);
+    }
+
+    private static long[] stamps(File globalFile, File userFile) {
+        return new long[]{globalFile.lastModified(), globalFile.length(), userFile.lastModified(), userFile.length()};
+    }
+
+    private static final class CachedSettings {
+        private final Settings settings;
+        private final long[] stamps;
+
+        /**
+         * values of the properties referenced by the settings files when they were built
+         */
+        private final Map<String, String> properties;
+
+        CachedSettings(Settings settings, long[] stamps, Map<String, String> properties) {
+            this.settings = settings;
+            this.stamps = stamps;
+            this.properties = properties;
+        }
+
+        boolean isValid(long[] currentStamps, Properties userProperties, Properties systemProperties) {
+            if (!Arrays.equals(stamps, currentStamps)) {
+                return false;
+            }
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                if (!Objects.equals(property.getValue(),
+                        getProperty(property.getKey(), userProperties, systemProperties))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * the global and the user settings files, the properties are checked by {@link CachedSettings}
+     */
+    private static final class SettingsKey {
+        private final String globalFile;
+        private final String userFile;
+
+        SettingsKey(File globalFile, File userFile) {
+            this.globalFile = globalFile.getAbsolutePath();
+            this.userFile = userFile.getAbsolutePath();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SettingsKey)) {
+                return false;
+            }
+            SettingsKey that = (SettingsKey) o;
+            return globalFile.equals(that.globalFile) && userFile.equals(that.userFile);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * globalFile.hashCode() + userFile.hashCode();
+        }
+    }
+}
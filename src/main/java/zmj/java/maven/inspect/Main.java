@@ -23,12 +23,25 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
 import zmj.java.maven.inspect.constant.Constants;
+import zmj.java.maven.inspect.daemon.InspectClient;
+import zmj.java.maven.inspect.daemon.InspectDaemon;
 import zmj.java.maven.inspect.exception.MavenProjectInspectException;
 import zmj.java.maven.inspect.handler.JavaProjectOptionHandler;
+import zmj.java.maven.inspect.output.JavaOptionOutput;
+import zmj.java.maven.inspect.output.OutputFormat;
+import zmj.java.maven.inspect.startup.ClassDataSharing;
+import zmj.java.maven.inspect.util.OptionUtil;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -52,10 +65,38 @@ public class Main {
                 return;
             }
 
+            // launches of this inspection are timed with the archive trained by it, nothing is inspected here
+            if (commandLine.hasOption(Constants.OPTION_CDS_TRAIN)) {
+                trainClassDataSharing(commandLine);
+                return;
+            }
+
+            // keep running, inspect the projects sent by the clients
+            if (commandLine.hasOption(Constants.OPTION_DAEMON)) {
+                startDaemon(commandLine);
+                return;
+            }
+
             Map<String, String> arguments = parseCommandLine(commandLine);
 
-            JavaProjectOptionHandler.handle(arguments.get(Constants.OPTION_MAVEN_SCRIPT),
-                    arguments.get(Constants.OPTION_MAVEV_HOME), arguments.get(Constants.OPTION_USER_SETTINGS));
+            List<JavaOptionBean> javaOptionBeans;
+            try (JavaOptionOutput output = openOutput(commandLine)) {
+                if (commandLine.hasOption(Constants.OPTION_DAEMON_PORT)) {
+                    javaOptionBeans = InspectClient.inspect(getDaemonPort(commandLine), toInspectArguments(arguments));
+                    if (output != null) {
+                        for (JavaOptionBean javaOptionBean : javaOptionBeans) {
+                            output.accept(javaOptionBean);
+                        }
+                    }
+                } else {
+                    // each module is written as soon as it is handled
+                    javaOptionBeans = JavaProjectOptionHandler.handle(toInspectArguments(arguments), output);
+                }
+            } catch (IOException e) {
+                log.error("write output failed, error message: {}", e.getMessage());
+                throw new MavenProjectInspectException("write output failed");
+            }
+            log.info("inspection finished, {} maven modules", javaOptionBeans.size());
         } catch (ParseException e) {
             log.error("parse command error, error message: {}", e.getMessage());
             log.error("please check the arguments you set.");
@@ -66,6 +107,130 @@ public class Main {
         }
     }
 
+    private static JavaOptionOutput openOutput(CommandLine commandLine) throws MavenProjectInspectException {
+        String output = commandLine.getOptionValue(Constants.OPTION_OUTPUT);
+        if (output == null) {
+            return null;
+        }
+
+        OutputFormat format = OutputFormat.JSONL;
+        if (commandLine.hasOption(Constants.OPTION_OUTPUT_FORMAT)) {
+            format = OutputFormat.of(commandLine.getOptionValue(Constants.OPTION_OUTPUT_FORMAT));
+            if (format == null) {
+                throw new MavenProjectInspectException("output format should be one of "
+                        + Arrays.toString(OutputFormat.values()));
+            }
+        }
+
+        try {
+            return format.open(output);
+        } catch (IOException e) {
+            log.error("can't open output {}, error message: {}", output, e.getMessage());
+            throw new MavenProjectInspectException("can't open output file");
+        }
+    }
+
+    private static void startDaemon(CommandLine commandLine) throws MavenProjectInspectException {
+        int port = getDaemonPort(commandLine);
+        try {
+            new InspectDaemon(port).start();
+        } catch (IOException e) {
+            log.error("start inspection daemon on port {} failed, error message: {}", port, e.getMessage());
+            throw new MavenProjectInspectException("start inspection daemon failed");
+        }
+    }
+
+    private static void trainClassDataSharing(CommandLine commandLine) throws MavenProjectInspectException {
+        if (commandLine.hasOption(Constants.OPTION_DAEMON) || commandLine.hasOption(Constants.OPTION_DAEMON_PORT)) {
+            throw new MavenProjectInspectException("class data sharing is trained without the daemon");
+        }
+        String archive = commandLine.getOptionValue(Constants.OPTION_CDS_TRAIN,
+                System.getProperty(Constants.SYSTEM_PROPERTY_CDS_ARCHIVE));
+        if (archive == null) {
+            throw new MavenProjectInspectException("no class data sharing archive file set");
+        }
+
+        // checked before any inspection is launched
+        parseCommandLine(commandLine);
+        int launches = getPositiveNumber(commandLine, Constants.OPTION_CDS_LAUNCHES, Constants.DEFAULT_CDS_LAUNCHES);
+
+        File tempDir;
+        try {
+            tempDir = Files.createTempDirectory("cds-train").toFile();
+        } catch (IOException e) {
+            log.error("create temporary directory failed, error message: {}", e.getMessage());
+            throw new MavenProjectInspectException("class data sharing training failed");
+        }
+
+        try {
+            // the launches leave the files of the user alone: the output and the metrics are written to a
+            // temporary directory, and there is no cache, it would answer every launch after the training
+            List<String> arguments = new ArrayList<>();
+            for (Option option : commandLine.getOptions()) {
+                String name = option.getLongOpt();
+                if (Constants.OPTION_CDS_TRAIN.equals(name) || Constants.OPTION_CDS_LAUNCHES.equals(name)
+                        || Constants.OPTION_CACHE_DIR.equals(name)) {
+                    continue;
+                }
+                arguments.add("--" + name);
+                if (Constants.OPTION_OUTPUT.equals(name) || Constants.OPTION_METRICS_FILE.equals(name)) {
+                    arguments.add(new File(tempDir, name).getPath());
+                } else if (option.getValues() != null) {
+                    arguments.addAll(Arrays.asList(option.getValues()));
+                }
+            }
+
+            ClassDataSharing classDataSharing = new ClassDataSharing(new File(archive));
+            classDataSharing.train(arguments);
+            for (String line : classDataSharing.report(arguments, launches)) {
+                log.info(line);
+            }
+        } finally {
+            File[] files = tempDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            tempDir.delete();
+        }
+    }
+
+    private static int getDaemonPort(CommandLine commandLine) throws MavenProjectInspectException {
+        String port = commandLine.getOptionValue(Constants.OPTION_DAEMON_PORT);
+        if (port == null) {
+            return Constants.DEFAULT_DAEMON_PORT;
+        }
+
+        try {
+            int value = Integer.parseInt(port);
+            if (value > 0 && value <= 65535) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // report below
+        }
+        throw new MavenProjectInspectException("daemon port should be a number between 1 and 65535");
+    }
+
+    private static InspectArgumentsBean toInspectArguments(Map<String, String> arguments) {
+        InspectArgumentsBean inspectArguments = new InspectArgumentsBean();
+        inspectArguments.setPomFile(arguments.get(Constants.OPTION_MAVEN_SCRIPT));
+        inspectArguments.setMavenHome(arguments.get(Constants.OPTION_MAVEV_HOME));
+        inspectArguments.setUserSettingsFile(arguments.get(Constants.OPTION_USER_SETTINGS));
+        inspectArguments.setThreads(Integer.parseInt(arguments.get(Constants.OPTION_THREADS)));
+        inspectArguments.setCacheDir(arguments.get(Constants.OPTION_CACHE_DIR));
+        inspectArguments.setOffline(Boolean.parseBoolean(arguments.get(Constants.OPTION_OFFLINE)));
+        inspectArguments.setRepositoryIndex(arguments.get(Constants.OPTION_REPOSITORY_INDEX));
+        inspectArguments.setMetricsFile(arguments.get(Constants.OPTION_METRICS_FILE));
+        inspectArguments.setDownloadThreads(Integer.parseInt(arguments.get(Constants.OPTION_DOWNLOAD_THREADS)));
+        inspectArguments.setDownloadsPerHost(Integer.parseInt(arguments.get(Constants.OPTION_DOWNLOADS_PER_HOST)));
+        inspectArguments.setUpdatePolicy(arguments.get(Constants.OPTION_UPDATE_POLICY));
+        inspectArguments.setChecksumPolicy(arguments.get(Constants.OPTION_CHECKSUM_POLICY));
+        inspectArguments.setMetadataTtl(Integer.parseInt(arguments.get(Constants.OPTION_METADATA_TTL)));
+        return inspectArguments;
+    }
+
     private static Map<String, String> parseCommandLine(CommandLine commandLine) throws MavenProjectInspectException {
         Map<String, String> arguments = new HashMap<>();
 
@@ -81,11 +246,67 @@ public class Main {
         String userSettingFile = getUserSettingsFile(commandLine, mavenHome);
         arguments.put(Constants.OPTION_USER_SETTINGS, userSettingFile);
 
+        // threads used to handle maven modules
+        arguments.put(Constants.OPTION_THREADS, String.valueOf(getThreads(commandLine)));
+
+        // resolved modules are cached here, no cache if not set
+        arguments.put(Constants.OPTION_CACHE_DIR, commandLine.getOptionValue(Constants.OPTION_CACHE_DIR));
+
+        // all the artifacts are taken from the local repository
+        arguments.put(Constants.OPTION_OFFLINE, String.valueOf(commandLine.hasOption(Constants.OPTION_OFFLINE)));
+
+        // artifact files are looked up in the index of the local repository, no index if not set
+        arguments.put(Constants.OPTION_REPOSITORY_INDEX, commandLine.getOptionValue(Constants.OPTION_REPOSITORY_INDEX));
+
+        // timers and counters of the inspection are written here, only logged if not set
+        arguments.put(Constants.OPTION_METRICS_FILE, commandLine.getOptionValue(Constants.OPTION_METRICS_FILE));
+
+        // artifacts are downloaded concurrently, with a limit for each host
+        arguments.put(Constants.OPTION_DOWNLOAD_THREADS, String.valueOf(getPositiveNumber(commandLine,
+                Constants.OPTION_DOWNLOAD_THREADS, Constants.DEFAULT_DOWNLOAD_THREADS)));
+        arguments.put(Constants.OPTION_DOWNLOADS_PER_HOST, String.valueOf(getPositiveNumber(commandLine,
+                Constants.OPTION_DOWNLOADS_PER_HOST, Constants.DEFAULT_DOWNLOADS_PER_HOST)));
+
+        // remote checks of the repositories, the policies of the repositories if not set
+        arguments.put(Constants.OPTION_UPDATE_POLICY, getUpdatePolicy(commandLine));
+        arguments.put(Constants.OPTION_CHECKSUM_POLICY, getChecksumPolicy(commandLine));
+        arguments.put(Constants.OPTION_METADATA_TTL, String.valueOf(getPositiveNumber(commandLine,
+                Constants.OPTION_METADATA_TTL, 0)));
+
         return arguments;
     }
 
+    private static String getUpdatePolicy(CommandLine commandLine) throws MavenProjectInspectException {
+        try {
+            return OptionUtil.getUpdatePolicy(commandLine.getOptionValue(Constants.OPTION_UPDATE_POLICY));
+        } catch (IllegalArgumentException e) {
+            throw new MavenProjectInspectException(e.getMessage());
+        }
+    }
+
+    private static String getChecksumPolicy(CommandLine commandLine) throws MavenProjectInspectException {
+        try {
+            return OptionUtil.getChecksumPolicy(commandLine.getOptionValue(Constants.OPTION_CHECKSUM_POLICY));
+        } catch (IllegalArgumentException e) {
+            throw new MavenProjectInspectException(e.getMessage());
+        }
+    }
+
+    private static int getThreads(CommandLine commandLine) throws MavenProjectInspectException {
+        return getPositiveNumber(commandLine, Constants.OPTION_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    private static int getPositiveNumber(CommandLine commandLine, String option, int defaultValue)
+            throws MavenProjectInspectException {
+        try {
+            return OptionUtil.getPositiveNumber(option, commandLine.getOptionValue(option), defaultValue);
+        } catch (IllegalArgumentException e) {
+            throw new MavenProjectInspectException(e.getMessage());
+        }
+    }
+
     private static String getUserSettingsFile(CommandLine commandLine, String mavenHome) throws MavenProjectInspectException {
-        String userSettingFile = commandLine.getOptionValue("user-setting-file");
+        String userSettingFile = commandLine.getOptionValue(Constants.OPTION_USER_SETTINGS);
         if (userSettingFile != null) {
             File userSetFile = new File(userSettingFile);
             if (!userSetFile.exists() || userSetFile.isDirectory()) {
@@ -134,7 +355,7 @@ public class Main {
             throw new MavenProjectInspectException("maven pom.xml is not exist or set wrong!");
         }
 
-        return mavenScript;
+        return mavenScriptFile.getAbsolutePath();
     }
 
     private static CommandLine parseArg(String[] args, Options options) throws ParseException {
@@ -179,10 +400,112 @@ public class Main {
         opt.setRequired(false);
         options.addOption(opt);
 
-        // necessary, must set
+        // necessary unless starting the daemon, checked after parsing
         opt = new Option(Constants.OPTION_MAVEN_SCRIPT_SHORT, Constants.OPTION_MAVEN_SCRIPT, true, "maven " +
                 "project build file: pom.xml");
-        opt.setRequired(true);
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, we will use one thread per processor
+        opt = new Option(Constants.OPTION_THREADS_SHORT, Constants.OPTION_THREADS, true, "count of threads used to " +
+                "handle maven modules");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, every module is resolved again in each run
+        opt = new Option(Constants.OPTION_CACHE_DIR_SHORT, Constants.OPTION_CACHE_DIR, true, "directory to cache " +
+                "the resolved modules between runs");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, the result is only logged
+        opt = new Option(Constants.OPTION_OUTPUT_SHORT, Constants.OPTION_OUTPUT, true, "file the options of each " +
+                "module are written to as JSON Lines, - for standard output");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, JSON Lines
+        opt = new Option(Constants.OPTION_OUTPUT_FORMAT_SHORT, Constants.OPTION_OUTPUT_FORMAT, true, "format of " +
+                "the output: jsonl, or compact (artifacts and classpaths written once)");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, missing artifacts are downloaded
+        opt = new Option(Constants.OPTION_OFFLINE_SHORT, Constants.OPTION_OFFLINE, false, "only use the local " +
+                "repository, fail on the first artifact not in it");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, every artifact file is looked up in the file system
+        opt = new Option(Constants.OPTION_REPOSITORY_INDEX_SHORT, Constants.OPTION_REPOSITORY_INDEX, true, "file " +
+                "the index of the local repository is kept in, built on the first use");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, the default of the resolver
+        opt = new Option(Constants.OPTION_DOWNLOAD_THREADS_SHORT, Constants.OPTION_DOWNLOAD_THREADS, true, "count " +
+                "of threads downloading the artifacts of one dependency graph concurrently, default " +
+                Constants.DEFAULT_DOWNLOAD_THREADS);
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // all the modules handled concurrently share the limit
+        opt = new Option(Constants.OPTION_DOWNLOADS_PER_HOST_SHORT, Constants.OPTION_DOWNLOADS_PER_HOST, true,
+                "most concurrent downloads from one repository host, default " +
+                        Constants.DEFAULT_DOWNLOADS_PER_HOST);
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, the policies declared by the repositories of the poms and the settings
+        opt = new Option(Constants.OPTION_UPDATE_POLICY_SHORT, Constants.OPTION_UPDATE_POLICY, true, "when the " +
+                "remote repositories are checked for newer artifacts and metadata: never, daily, always or " +
+                "interval:minutes, for all the repositories");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        opt = new Option(Constants.OPTION_CHECKSUM_POLICY_SHORT, Constants.OPTION_CHECKSUM_POLICY, true, "what " +
+                "to do when a checksum of a downloaded file doesn't match: fail, warn or ignore, for all the " +
+                "repositories");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, the metadata is checked by the update policy
+        opt = new Option(Constants.OPTION_METADATA_TTL_SHORT, Constants.OPTION_METADATA_TTL, true, "minutes the " +
+                "metadata of the local repository (versions of SNAPSHOTs and ranges) is used without checking " +
+                "the remote repositories again");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // if not set, the metrics are only logged
+        opt = new Option(Constants.OPTION_METRICS_FILE_SHORT, Constants.OPTION_METRICS_FILE, true, "file the " +
+                "phase timings and counters of the inspection are written to, in the OpenMetrics text format");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // keep the maven containers warm between inspections
+        opt = new Option(Constants.OPTION_DAEMON_SHORT, Constants.OPTION_DAEMON, false, "start the inspection " +
+                "daemon, listen on the daemon port of the loopback address");
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // without --daemon, send the inspection to the daemon listening on this port
+        opt = new Option(Constants.OPTION_DAEMON_PORT_SHORT, Constants.OPTION_DAEMON_PORT, true, "port of the " +
+                "inspection daemon, default " + Constants.DEFAULT_DAEMON_PORT);
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // the launcher adds the archive to the next launches with the same java
+        opt = new Option(Constants.OPTION_CDS_TRAIN_SHORT, Constants.OPTION_CDS_TRAIN, true, "train a class data " +
+                "sharing archive (java 13 or later) with this inspection, written to the file or the one of the " +
+                "launcher, then report the startup time with and without it");
+        opt.setOptionalArg(true);
+        opt.setRequired(false);
+        options.addOption(opt);
+
+        // launches of each kind in the class data sharing report
+        opt = new Option(Constants.OPTION_CDS_LAUNCHES_SHORT, Constants.OPTION_CDS_LAUNCHES, true, "launches " +
+                "timed with and without the class data sharing archive, default " + Constants.DEFAULT_CDS_LAUNCHES);
+        opt.setRequired(false);
         options.addOption(opt);
 
         return options;
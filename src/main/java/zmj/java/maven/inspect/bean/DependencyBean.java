@@ -58,18 +58,28 @@ public class DependencyBean {
      */
     private String filePath;
 
+    /**
+     * same coordinates and same file, the main jar and the test jar of a module are two dependencies
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DependencyBean that = (DependencyBean) o;
-        return groupId.equals(that.groupId) &&
-                artifactId.equals(that.artifactId) &&
-                version.equals(that.version);
+        return Objects.equals(groupId, that.groupId) &&
+                Objects.equals(artifactId, that.artifactId) &&
+                Objects.equals(version, that.version) &&
+                Objects.equals(filePath, that.filePath);
     }
 
+    /**
+     * computed without Objects.hash, no array is allocated for every set insert
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(groupId, artifactId, version);
+        int result = Objects.hashCode(groupId);
+        result = 31 * result + Objects.hashCode(artifactId);
+        result = 31 * result + Objects.hashCode(version);
+        return result;
     }
 }
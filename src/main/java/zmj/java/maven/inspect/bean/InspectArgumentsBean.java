@@ -0,0 +1,94 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.bean;
+
+import lombok.Data;
+import zmj.java.maven.inspect.constant.Constants;
+
+/**
+ * arguments of one inspection
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Data
+public class InspectArgumentsBean {
+    /**
+     * maven pom file
+     */
+    private String pomFile;
+
+    /**
+     * maven installation
+     */
+    private String mavenHome;
+
+    /**
+     * user settings file
+     */
+    private String userSettingsFile;
+
+    /**
+     * count of threads used to handle maven modules
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * directory the resolved modules are cached in, no cache if not set
+     */
+    private String cacheDir;
+
+    /**
+     * only use the local repository, nothing is downloaded
+     */
+    private boolean offline;
+
+    /**
+     * file the index of the local repository is kept in, no index if not set
+     */
+    private String repositoryIndex;
+
+    /**
+     * file the metrics of the inspection are written to, only logged if not set
+     */
+    private String metricsFile;
+
+    /**
+     * threads downloading the artifacts of one dependency graph concurrently
+     */
+    private int downloadThreads = Constants.DEFAULT_DOWNLOAD_THREADS;
+
+    /**
+     * most concurrent downloads from one host for the whole inspection
+     */
+    private int downloadsPerHost = Constants.DEFAULT_DOWNLOADS_PER_HOST;
+
+    /**
+     * update policy of all the remote repositories, those declared by the repositories if not set
+     */
+    private String updatePolicy;
+
+    /**
+     * checksum policy of all the remote repositories, those declared by the repositories if not set
+     */
+    private String checksumPolicy;
+
+    /**
+     * minutes the metadata of the local repository is used without a remote check, the update policy if not
+     * positive
+     */
+    private int metadataTtl;
+}
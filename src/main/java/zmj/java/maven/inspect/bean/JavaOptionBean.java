@@ -70,4 +70,15 @@ public class JavaOptionBean {
      * dependencies of this project
      */
     private Set<DependencyBean> dependencyBeans;
+
+    /**
+     * if all the dependencies are resolved, an incomplete result is never cached
+     */
+    private boolean resolved = true;
+
+    /**
+     * if a dependency is a version range or a SNAPSHOT not built by the reactor, it may resolve to another
+     * version later, such a result is never cached. not written by the outputs and the caches
+     */
+    private boolean floating;
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * a maven module of the project being inspected
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Getter
+@ToString(exclude = "project")
+@AllArgsConstructor
+public class ReactorModuleBean {
+    /**
+     * position of the module in the reactor
+     */
+    private final int index;
+
+    /**
+     * group id of the module
+     */
+    private final String groupId;
+
+    /**
+     * artifact id of the module
+     */
+    private final String artifactId;
+
+    /**
+     * version of the module
+     */
+    private final String version;
+
+    /**
+     * directory that the source file will be compiled to
+     */
+    private final String outputPath;
+
+    /**
+     * directory that the test source file will be compiled to
+     */
+    private final String testOutputPath;
+
+    /**
+     * the module itself
+     */
+    private final MavenProject project;
+}
@@ -17,6 +17,7 @@ package zmj.java.maven.inspect.bean;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.eclipse.aether.repository.RepositoryPolicy;
 
 /**
  * remote repository message bean
@@ -41,4 +42,18 @@ public class RemoteRepositoryMessageBean {
      * repository url: http://repo1.maven.org/maven2/
      */
     private String url;
+
+    /**
+     * policy of the releases, the default of the resolver if null
+     */
+    private RepositoryPolicy releasePolicy;
+
+    /**
+     * policy of the snapshots, the default of the resolver if null
+     */
+    private RepositoryPolicy snapshotPolicy;
+
+    public RemoteRepositoryMessageBean(String id, String type, String url) {
+        this(id, type, url, null, null);
+    }
 }
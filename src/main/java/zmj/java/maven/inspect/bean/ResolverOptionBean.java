@@ -0,0 +1,104 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.bean;
+
+import lombok.Data;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryListener;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.repository.MirrorSelector;
+import org.eclipse.aether.transfer.TransferListener;
+import zmj.java.maven.inspect.cache.LocalRepositoryIndex;
+import zmj.java.maven.inspect.resolver.RepositoryRouter;
+
+/**
+ * how the dependencies of an inspection are resolved, the same for all the modules
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Data
+public class ResolverOptionBean {
+    /**
+     * only use the local repository, the artifact files are taken from the local repository layout
+     */
+    private boolean offline;
+
+    /**
+     * index of the local repository, can be null
+     */
+    private LocalRepositoryIndex localRepositoryIndex;
+
+    /**
+     * notified of the artifacts resolved and downloaded, can be null
+     */
+    private RepositoryListener repositoryListener;
+
+    /**
+     * notified of the transfers from the remote repositories, can be null
+     */
+    private TransferListener transferListener;
+
+    /**
+     * mirrors of the remote repositories, those of the poms included, can be null
+     */
+    private MirrorSelector mirrorSelector;
+
+    /**
+     * order the remote repositories are asked in, declared order if null
+     */
+    private RepositoryRouter repositoryRouter;
+
+    /**
+     * data shared by all the sessions of an inspection: the per-host limits and the offline descriptors.
+     * every session has its own if null
+     */
+    private SessionData sessionData;
+
+    /**
+     * cache shared by all the sessions of an inspection, only for the pooled http connections, see
+     * {@link zmj.java.maven.inspect.resolver.SharedHttpStateCache}. every session has its own if null
+     */
+    private DefaultRepositoryCache sharedCache;
+
+    /**
+     * threads of a connector downloading the artifacts of one request concurrently, the resolver default if
+     * not positive
+     */
+    private int downloadThreads;
+
+    /**
+     * most concurrent transfers to one host for all the sessions sharing the session data, no limit if not
+     * positive
+     */
+    private int downloadsPerHost;
+
+    /**
+     * update policy overriding the one of every remote repository, can be null
+     */
+    private String updatePolicy;
+
+    /**
+     * checksum policy overriding the one of every remote repository, can be null
+     */
+    private String checksumPolicy;
+
+    /**
+     * minutes the metadata of the local repository answers without a remote check, overriding the update
+     * policy for the metadata. the update policy if not positive
+     */
+    private int metadataTtl;
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * all the artifacts resolved in one inspection, each (groupId, artifactId, version, classifier, extension)
+ * gets an int id the first time it is seen. the coordinates and file path of an artifact are kept once here,
+ * a module only keeps the ids of its classpath, see {@link Classpath}.
+ * </p>
+ * <p>
+ * artifacts are added by many threads, an id can be read by any thread that got it.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class ArtifactTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<ArtifactKey, Integer> ids = new HashMap<>();
+
+    /**
+     * one instance per distinct string, group ids and versions are shared by many artifacts
+     */
+    private final Map<String, String> strings = new HashMap<>();
+
+    private final List<String> scopes = new ArrayList<>();
+
+    private final Map<String, Byte> scopeCodes = new HashMap<>();
+
+    /**
+     * id -> artifact, grown under the lock, the volatile write after each add publishes the new element
+     */
+    private volatile Entry[] entries = new Entry[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * get the id of the artifact, add it if it's not in the table
+     *
+     * @param groupId    group id
+     * @param artifactId artifact id
+     * @param version    version
+     * @param classifier classifier, can be empty
+     * @param extension  extension
+     * @param filePath   gets the file path, only called when the artifact is added
+     * @return id of the artifact
+     */
+    public synchronized int intern(String groupId, String artifactId, String version, String classifier,
+                                   String extension, Supplier<String> filePath) {
+        ArtifactKey key = new ArtifactKey(groupId, artifactId, version, classifier, extension);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        Entry[] current = entries;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = new Entry(intern(groupId), intern(artifactId), intern(version), filePath.get());
+        ids.put(key, size);
+        entries = current;
+        return size++;
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String interned = strings.putIfAbsent(value, value);
+        return interned == null ? value : interned;
+    }
+
+    /**
+     * code of a scope, scopes are few, a classpath keeps a byte per artifact
+     *
+     * @param scope the scope
+     * @return code of the scope
+     */
+    public synchronized byte scopeCode(String scope) {
+        Byte code = scopeCodes.get(scope);
+        if (code == null) {
+            if (scopes.size() > Byte.MAX_VALUE) {
+                throw new IllegalStateException("too many scopes");
+            }
+            code = (byte) scopes.size();
+            scopes.add(scope);
+            scopeCodes.put(scope, code);
+        }
+        return code;
+    }
+
+    /**
+     * get the scope of a code
+     *
+     * @param code code got by {@link #scopeCode(String)}
+     * @return the scope
+     */
+    public synchronized String scope(byte code) {
+        return scopes.get(code);
+    }
+
+    /**
+     * count of the artifacts
+     *
+     * @return count of the artifacts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * the artifact as a dependency bean, a new bean is created every time
+     *
+     * @param id    id of the artifact
+     * @param scope scope of the dependency
+     * @return the dependency bean
+     */
+    public DependencyBean toDependencyBean(int id, String scope) {
+        Entry entry = entries[id];
+        return new DependencyBean(entry.groupId, entry.artifactId, entry.version, scope, entry.filePath);
+    }
+
+    /**
+     * get the file path of the artifact
+     *
+     * @param id id of the artifact
+     * @return the file path, null if not resolved to a file
+     */
+    public String getFilePath(int id) {
+        return entries[id].filePath;
+    }
+
+    private static final class Entry {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String filePath;
+
+        Entry(String groupId, String artifactId, String version, String filePath) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.filePath = filePath;
+        }
+    }
+
+    private static final class ArtifactKey {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String classifier;
+        private final String extension;
+        private final int hash;
+
+        ArtifactKey(String groupId, String artifactId, String version, String classifier, String extension) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.classifier = classifier;
+            this.extension = extension;
+            int h = Objects.hashCode(groupId);
+            h = 31 * h + Objects.hashCode(artifactId);
+            h = 31 * h + Objects.hashCode(version);
+            h = 31 * h + Objects.hashCode(classifier);
+            h = 31 * h + Objects.hashCode(extension);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ArtifactKey)) {
+                return false;
+            }
+            ArtifactKey that = (ArtifactKey) o;
+            return hash == that.hash && Objects.equals(groupId, that.groupId)
+                    && Objects.equals(artifactId, that.artifactId) && Objects.equals(version, that.version)
+                    && Objects.equals(classifier, that.classifier) && Objects.equals(extension, that.extension);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * dependencies of a module: the sorted ids of its artifacts in an {@link ArtifactTable}, and the scope code of
+ * each one. two classpaths of the same table can be compared, joined and subtracted without touching any
+ * string.
+ * </p>
+ * <p>
+ * immutable, {@link #asDependencyBeans()} gives the dependency beans as a read-only view.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public final class Classpath {
+    private final ArtifactTable table;
+
+    private final int[] ids;
+
+    private final byte[] scopes;
+
+    private Classpath(ArtifactTable table, int[] ids, byte[] scopes) {
+        this.table = table;
+        this.ids = ids;
+        this.scopes = scopes;
+    }
+
+    /**
+     * create a classpath from artifact ids, an artifact added more than once keeps its first scope
+     *
+     * @param table  table the ids are from
+     * @param ids    artifact ids, in any order
+     * @param scopes scope codes, one for each id
+     * @param count  count of the ids used
+     * @return the classpath
+     */
+    public static Classpath of(ArtifactTable table, int[] ids, byte[] scopes, int count) {
+        // sort the (id, scope) pairs by id, the sort is stable so the first scope of an id comes first
+        long[] pairs = new long[count];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = ((long) ids[i] << 32) | ((long) i << 8) | (scopes[i] & 0xFF);
+        }
+        Arrays.sort(pairs);
+
+        int[] sortedIds = new int[count];
+        byte[] sortedScopes = new byte[count];
+        int size = 0;
+        for (long pair : pairs) {
+            int id = (int) (pair >>> 32);
+            if (size > 0 && sortedIds[size - 1] == id) {
+                continue;
+            }
+            sortedIds[size] = id;
+            sortedScopes[size] = (byte) pair;
+            size++;
+        }
+        return new Classpath(table, Arrays.copyOf(sortedIds, size), Arrays.copyOf(sortedScopes, size));
+    }
+
+    /**
+     * count of the artifacts
+     *
+     * @return count of the artifacts
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * check if the artifact is in the classpath
+     *
+     * @param id artifact id
+     * @return is in the classpath?
+     */
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    /**
+     * the artifact ids, sorted
+     *
+     * @return a copy of the artifact ids
+     */
+    public int[] getIds() {
+        return ids.clone();
+    }
+
+    /**
+     * the artifact ids as a bitset
+     *
+     * @return a new bitset
+     */
+    public BitSet toBitSet() {
+        BitSet bitSet = new BitSet(ids.length == 0 ? 0 : ids[ids.length - 1] + 1);
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+
+    /**
+     * artifacts in this classpath or the other one, an artifact in both keeps the scope of this classpath
+     *
+     * @param other classpath of the same table
+     * @return the union
+     */
+    public Classpath union(Classpath other) {
+        int[] unionIds = new int[ids.length + other.ids.length];
+        byte[] unionScopes = new byte[unionIds.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < ids.length || j < other.ids.length) {
+            if (j == other.ids.length || (i < ids.length && ids[i] <= other.ids[j])) {
+                if (j < other.ids.length && ids[i] == other.ids[j]) {
+                    j++;
+                }
+                unionIds[size] = ids[i];
+                unionScopes[size++] = scopes[i++];
+            } else {
+                unionIds[size] = other.ids[j];
+                unionScopes[size++] = other.scopes[j++];
+            }
+        }
+        return new Classpath(table, Arrays.copyOf(unionIds, size), Arrays.copyOf(unionScopes, size));
+    }
+
+    /**
+     * artifacts in this classpath but not in the other one
+     *
+     * @param other classpath of the same table
+     * @return the difference
+     */
+    public Classpath difference(Classpath other) {
+        int[] differenceIds = new int[ids.length];
+        byte[] differenceScopes = new byte[ids.length];
+        int j = 0;
+        int size = 0;
+        for (int i = 0; i < ids.length; i++) {
+            while (j < other.ids.length && other.ids[j] < ids[i]) {
+                j++;
+            }
+            if (j == other.ids.length || other.ids[j] != ids[i]) {
+                differenceIds[size] = ids[i];
+                differenceScopes[size++] = scopes[i];
+            }
+        }
+        return new Classpath(table, Arrays.copyOf(differenceIds, size), Arrays.copyOf(differenceScopes, size));
+    }
+
+    /**
+     * the classpath as dependency beans, beans are created while iterating
+     *
+     * @return read-only view of the classpath
+     */
+    public Set<DependencyBean> asDependencyBeans() {
+        return new AbstractSet<DependencyBean>() {
+            @Override
+            public Iterator<DependencyBean> iterator() {
+                return new Iterator<DependencyBean>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < ids.length;
+                    }
+
+                    @Override
+                    public DependencyBean next() {
+                        if (next >= ids.length) {
+                            throw new NoSuchElementException();
+                        }
+                        DependencyBean bean = table.toDependencyBean(ids[next], table.scope(scopes[next]));
+                        next++;
+                        return bean;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Classpath)) {
+            return false;
+        }
+        Classpath that = (Classpath) o;
+        return table == that.table && Arrays.equals(ids, that.ids) && Arrays.equals(scopes, that.scopes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(ids) + Arrays.hashCode(scopes);
+    }
+}
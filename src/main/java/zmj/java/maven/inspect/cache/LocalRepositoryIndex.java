@@ -0,0 +1,527 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * files of a local maven repository, so that finding an artifact file and its canonical path is a lookup in
+ * memory instead of file system calls.
+ * <p>
+ * the index is built by one walk of the repository, the group directories are walked in parallel. it is
+ * kept in a file of sorted relative paths, which is memory-mapped when the index is opened. files found later
+ * (downloaded, or installed by a build) are added when they are looked up, and written with the next
+ * {@link #store()}. an indexed file is checked in the file system the first time it is looked up after the
+ * index is opened, a file deleted from the repository is dropped from the index then. files reached through a
+ * symbolic link are not indexed, they are always looked up in the file system.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class LocalRepositoryIndex {
+    /**
+     * change it when the file format changes, the index will be built again
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4d50494c;
+
+    /**
+     * levels of directories split into parallel walks: groupId parts like org/apache
+     */
+    private static final int PARALLEL_DEPTH = 2;
+
+    private final File indexFile;
+
+    /**
+     * absolute path of the repository, with a trailing separator
+     */
+    private final String repositoryPrefix;
+
+    /**
+     * canonical path of the repository
+     */
+    private final String canonicalPath;
+
+    /**
+     * canonical path of the repository, with a trailing separator
+     */
+    private final String canonicalPrefix;
+
+    /**
+     * sorted relative paths of the index file
+     */
+    private final PathTable table;
+
+    /**
+     * files found after the index file is written
+     */
+    private final NavigableSet<String> addedPaths = new ConcurrentSkipListSet<>();
+
+    /**
+     * indexed files found in the file system since the index is opened
+     */
+    private final Set<String> checkedPaths = ConcurrentHashMap.newKeySet();
+
+    /**
+     * files of the index file not in the file system any more
+     */
+    private final Set<String> removedPaths = ConcurrentHashMap.newKeySet();
+
+    private LocalRepositoryIndex(File indexFile, File repository, String canonicalPath, PathTable table) {
+        this.indexFile = indexFile;
+        this.repositoryPrefix = withSeparator(repository.getAbsolutePath());
+        this.canonicalPath = canonicalPath;
+        this.canonicalPrefix = withSeparator(canonicalPath);
+        this.table = table;
+    }
+
+    private static String withSeparator(String path) {
+        return path.endsWith(File.separator) ? path : path + File.separator;
+    }
+
+    /**
+     * open the index of a local repository, build it if the index file doesn't exist or is not of this
+     * repository
+     *
+     * @param indexFile  file the index is kept in
+     * @param repository local repository
+     * @return the index
+     * @throws IOException if the repository can't be walked or the index file can't be written
+     */
+    public static LocalRepositoryIndex open(File indexFile, File repository) throws IOException {
+        String canonicalPath = repository.getCanonicalPath();
+        if (indexFile.isFile()) {
+            PathTable table = PathTable.map(indexFile, canonicalPath);
+            if (table != null) {
+                log.debug("local repository index {} opened, {} files", indexFile, table.size());
+                return new LocalRepositoryIndex(indexFile, repository, canonicalPath, table);
+            }
+            log.info("local repository index {} is not of {}, build it again", indexFile, repository);
+        }
+
+        long start = System.currentTimeMillis();
+        List<String> paths = walk(new File(canonicalPath).toPath());
+        write(indexFile, canonicalPath, Collections.emptyList(), paths);
+        log.info("local repository {} indexed, {} files in {} ms", repository, paths.size(),
+                System.currentTimeMillis() - start);
+        return new LocalRepositoryIndex(indexFile, repository, canonicalPath,
+                PathTable.map(indexFile, canonicalPath));
+    }
+
+    private static List<String> walk(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+
+        // the files near the root are visited here, the directories below are walked in parallel
+        List<String> paths = new ArrayList<>();
+        List<Path> subtrees = new ArrayList<>();
+        collectSubtrees(root, root, 1, paths, subtrees);
+        try {
+            paths.addAll(subtrees.parallelStream().flatMap(subtree -> walkSubtree(root, subtree).stream())
+                    .collect(Collectors.toList()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return paths;
+    }
+
+    private static void collectSubtrees(Path root, Path dir, int depth, List<String> paths, List<Path> subtrees)
+            throws IOException {
+        try (Stream<Path> children = Files.list(dir)) {
+            for (Path child : (Iterable<Path>) children::iterator) {
+                BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS);
+                if (attributes.isDirectory()) {
+                    if (depth < PARALLEL_DEPTH) {
+                        collectSubtrees(root, child, depth + 1, paths, subtrees);
+                    } else {
+                        subtrees.add(child);
+                    }
+                } else if (attributes.isRegularFile() && isIndexed(child)) {
+                    paths.add(toRelativePath(root, child));
+                }
+            }
+        }
+    }
+
+    private static List<String> walkSubtree(Path root, Path subtree) {
+        List<String> paths = new ArrayList<>();
+        try {
+            Files.walkFileTree(subtree, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && isIndexed(file)) {
+                        paths.add(toRelativePath(root, file));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.debug("can't index {}, error message: {}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return paths;
+    }
+
+    /**
+     * only the files a dependency can point to, not the bookkeeping of the resolver
+     */
+    private static boolean isIndexed(Path file) {
+        String name = file.getFileName().toString();
+        return !name.equals("_remote.repositories") && !name.equals("resolver-status.properties")
+                && !name.endsWith(".sha1") && !name.endsWith(".md5") && !name.endsWith(".lastUpdated")
+                && !name.endsWith(".part") && !name.endsWith(".lock") && !name.endsWith(".tmp");
+    }
+
+    private static String toRelativePath(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * relative path of a file in the repository
+     *
+     * @return the path, null if the file is not in the repository
+     */
+    private String getRelativePath(File file) {
+        String path = file.getAbsolutePath();
+        String relativePath;
+        if (path.startsWith(repositoryPrefix)) {
+            relativePath = path.substring(repositoryPrefix.length());
+        } else if (path.startsWith(canonicalPrefix)) {
+            relativePath = path.substring(canonicalPrefix.length());
+        } else {
+            return null;
+        }
+        return File.separatorChar == '/' ? relativePath : relativePath.replace(File.separatorChar, '/');
+    }
+
+    private boolean contains(String relativePath) {
+        return addedPaths.contains(relativePath)
+                || (table.contains(relativePath) && !removedPaths.contains(relativePath));
+    }
+
+    /**
+     * whether the file is in the index and still exists, it is looked up in the file system only the first
+     * time, a file not found any more is dropped from the index
+     */
+    private boolean isIndexedFile(String relativePath, File file) {
+        if (relativePath == null || !contains(relativePath)) {
+            return false;
+        }
+        if (checkedPaths.contains(relativePath)) {
+            return true;
+        }
+
+        if (file.isFile()) {
+            checkedPaths.add(relativePath);
+            return true;
+        }
+        log.debug("{} is not in the local repository any more, drop it from the index", file);
+        addedPaths.remove(relativePath);
+        if (table.contains(relativePath)) {
+            removedPaths.add(relativePath);
+        }
+        return false;
+    }
+
+    /**
+     * whether the file exists, files not in the index are looked up in the file system
+     *
+     * @param file file in the local repository
+     * @return true if it is a regular file
+     */
+    public boolean isFile(File file) {
+        String relativePath = getRelativePath(file);
+        if (isIndexedFile(relativePath, file)) {
+            return true;
+        }
+
+        if (!file.isFile()) {
+            return false;
+        }
+        if (relativePath != null) {
+            try {
+                add(relativePath, file, file.getCanonicalPath());
+            } catch (IOException e) {
+                log.debug("can't index {}, error message: {}", file, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * canonical path of the file, files not in the index are looked up in the file system
+     *
+     * @param file file in the local repository
+     * @return canonical path
+     * @throws IOException if the file system is asked and fails
+     */
+    public String getCanonicalPath(File file) throws IOException {
+        String relativePath = getRelativePath(file);
+        if (isIndexedFile(relativePath, file)) {
+            return toCanonicalPath(relativePath);
+        }
+
+        String canonicalPath = file.getCanonicalPath();
+        if (relativePath != null && file.isFile()) {
+            add(relativePath, file, canonicalPath);
+        }
+        return canonicalPath;
+    }
+
+    private String toCanonicalPath(String relativePath) {
+        return canonicalPrefix + (File.separatorChar == '/' ? relativePath
+                : relativePath.replace('/', File.separatorChar));
+    }
+
+    private void add(String relativePath, File file, String canonicalPath) {
+        // a symbolic link, the file or a directory above it, may point anywhere: only a file whose canonical
+        // path is its path below the repository root gets its canonical path from the index
+        if (isIndexed(file.toPath()) && canonicalPath.equals(toCanonicalPath(relativePath))) {
+            checkedPaths.add(relativePath);
+            // a file of the index file found again is only not removed any more
+            if (!removedPaths.remove(relativePath)) {
+                addedPaths.add(relativePath);
+            }
+        }
+    }
+
+    /**
+     * count of the files in the index, files of the index file found removed are not counted
+     *
+     * @return count of the files
+     */
+    public int size() {
+        return table.size() - removedPaths.size() + addedPaths.size();
+    }
+
+    /**
+     * write the files found since the index was opened, without those found removed
+     *
+     * @throws IOException if the index file can't be written
+     */
+    public void store() throws IOException {
+        if (addedPaths.isEmpty() && removedPaths.isEmpty()) {
+            return;
+        }
+        List<String> added = new ArrayList<>(addedPaths);
+        List<String> indexed = table.toList();
+        indexed.removeAll(removedPaths);
+        write(indexFile, canonicalPath, indexed, added);
+        log.debug("local repository index {} updated, {} files added, {} files removed", indexFile, added.size(),
+                removedPaths.size());
+    }
+
+    /**
+     * write the sorted union of the paths, to a temporary file first, a reader never sees a half written file
+     */
+    private static void write(File indexFile, String canonicalPath, List<String> indexed, List<String> added)
+            throws IOException {
+        List<byte[]> paths = new ArrayList<>(indexed.size() + added.size());
+        for (String path : indexed) {
+            paths.add(path.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String path : added) {
+            paths.add(path.getBytes(StandardCharsets.UTF_8));
+        }
+        paths.sort(LocalRepositoryIndex::compare);
+
+        File parent = indexFile.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tempFile = new File(parent, indexFile.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempFile.toPath())))) {
+                byte[] base = canonicalPath.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(base.length);
+                out.write(base);
+
+                // duplicates are written once
+                List<byte[]> unique = new ArrayList<>(paths.size());
+                for (byte[] path : paths) {
+                    if (unique.isEmpty() || compare(unique.get(unique.size() - 1), path) != 0) {
+                        unique.add(path);
+                    }
+                }
+                out.writeInt(unique.size());
+                int offset = 0;
+                for (byte[] path : unique) {
+                    out.writeInt(offset);
+                    offset += path.length;
+                }
+                out.writeInt(offset);
+                for (byte[] path : unique) {
+                    out.write(path);
+                }
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * unsigned byte order, the order of the paths in the index file
+     */
+    private static int compare(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (left[i] & 0xff) - (right[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    /**
+     * the sorted paths of a memory-mapped index file: a table of offsets and the UTF-8 bytes of the paths
+     */
+    private static final class PathTable {
+        private final ByteBuffer buffer;
+        private final int count;
+        private final int offsetsStart;
+        private final int pathsStart;
+
+        private PathTable(ByteBuffer buffer, int count, int offsetsStart) {
+            this.buffer = buffer;
+            this.count = count;
+            this.offsetsStart = offsetsStart;
+            this.pathsStart = offsetsStart + (count + 1) * Integer.BYTES;
+        }
+
+        /**
+         * @return the table, null if the file is of another format or another repository
+         */
+        static PathTable map(File indexFile, String canonicalPath) throws IOException {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            try {
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                    return null;
+                }
+                byte[] base = new byte[buffer.getInt()];
+                buffer.get(base);
+                if (!canonicalPath.equals(new String(base, StandardCharsets.UTF_8))) {
+                    return null;
+                }
+                int count = buffer.getInt();
+                PathTable table = new PathTable(buffer, count, buffer.position());
+                if (table.offset(count) != buffer.limit() - table.pathsStart) {
+                    return null;
+                }
+                return table;
+            } catch (RuntimeException e) {
+                // truncated or not an index file
+                log.debug("can't read local repository index {}, error message: {}", indexFile, e.getMessage());
+                return null;
+            }
+        }
+
+        int size() {
+            return count;
+        }
+
+        private int offset(int index) {
+            return buffer.getInt(offsetsStart + index * Integer.BYTES);
+        }
+
+        boolean contains(String path) {
+            byte[] key = path.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int diff = compareAt(middle, key);
+                if (diff < 0) {
+                    low = middle + 1;
+                } else if (diff > 0) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int compareAt(int index, byte[] key) {
+            int start = pathsStart + offset(index);
+            int length = offset(index + 1) - offset(index);
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int diff = (buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return length - key.length;
+        }
+
+        List<String> toList() {
+            List<String> paths = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int start = pathsStart + offset(i);
+                byte[] path = new byte[offset(i + 1) - offset(i)];
+                for (int j = 0; j < path.length; j++) {
+                    path[j] = buffer.get(start + j);
+                }
+                paths.add(new String(path, StandardCharsets.UTF_8));
+            }
+            return paths;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import hudson.maven.SettingsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.bean.ReactorModuleBean;
+import zmj.java.maven.inspect.util.CacheCodec;
+import zmj.java.maven.inspect.util.JavaOptionBeanCodec;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * resolved modules kept on disk between inspections.
+ * <p>
+ * the key of a module is the content hash of its pom.xml, its parent poms, the poms of the other modules
+ * it depends on, the settings files and the jars of the maven home, like the run fingerprint. one file per
+ * module, the file is overwritten when the key changes. a cached module is also dropped if any of its
+ * dependency files doesn't exist any more. a module depending on a version range or a SNAPSHOT may resolve
+ * to another version without any of them changing, it is not cached.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class ModuleResultCache {
+    /**
+     * change it when the file format changes, all the cached files will be invalid
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String CACHE_FILE_SUFFIX = ".bin";
+
+    private final File cacheDir;
+
+    private final ReactorModuleIndex moduleIndex;
+
+    /**
+     * output directories of the modules, they don't need to exist when a cached module is used
+     */
+    private final Set<String> moduleOutputPaths = new HashSet<>();
+
+    /**
+     * hash of the things shared by all modules: settings, maven home and options of the resolution
+     */
+    private final byte[] environmentDigest;
+
+    /**
+     * create the cache of one inspection
+     *
+     * @param cacheDir         directory the modules are cached in
+     * @param userSettingsFile user settings file
+     * @param mavenHome         maven installation
+     * @param resolutionOptions options changing what the dependencies resolve to
+     * @param moduleIndex       all the modules of the project
+     * @throws IOException if the cache directory or the settings files can't be read
+     */
+    public ModuleResultCache(File cacheDir, String userSettingsFile, File mavenHome, String resolutionOptions,
+                             ReactorModuleIndex moduleIndex) throws IOException {
+        this.cacheDir = cacheDir;
+        this.moduleIndex = moduleIndex;
+        Files.createDirectories(cacheDir.toPath());
+        for (ReactorModuleBean module : moduleIndex.getModules()) {
+            addModuleOutputPath(module.getOutputPath());
+            addModuleOutputPath(module.getTestOutputPath());
+        }
+
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, String.valueOf(FORMAT_VERSION));
+        CacheCodec.updateFile(digest, new File(userSettingsFile));
+        CacheCodec.updateOptionalFile(digest, SettingsCache.getGlobalSettingsFile(mavenHome));
+        CacheCodec.updateJars(digest, new File(mavenHome, "lib"));
+        CacheCodec.update(digest, resolutionOptions);
+        this.environmentDigest = digest.digest();
+    }
+
+    private void addModuleOutputPath(String outputPath) {
+        if (outputPath != null) {
+            try {
+                moduleOutputPaths.add(new File(outputPath).getCanonicalPath());
+            } catch (IOException e) {
+                moduleOutputPaths.add(new File(outputPath).getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * compute the key of a module
+     *
+     * @param project maven module
+     * @return key of the module
+     * @throws IOException if any pom file can't be read
+     */
+    public String key(MavenProject project) throws IOException {
+        MessageDigest digest = CacheCodec.newDigest();
+        digest.update(environmentDigest);
+
+        // sorted, the key doesn't depend on the order the poms are found
+        for (String pomFile : collectPomFiles(project)) {
+            CacheCodec.updateFile(digest, new File(pomFile));
+        }
+
+        return CacheCodec.toHex(digest.digest());
+    }
+
+    /**
+     * pom files of the module, its parents, and the modules it depends on (with their parents)
+     */
+    private Set<String> collectPomFiles(MavenProject project) {
+        Set<String> pomFiles = new TreeSet<>();
+        Set<MavenProject> visited = new HashSet<>();
+        Deque<MavenProject> pending = new ArrayDeque<>();
+        pending.add(project);
+        while (!pending.isEmpty()) {
+            MavenProject current = pending.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+
+            for (MavenProject parent = current; parent != null; parent = parent.getParent()) {
+                if (parent.getFile() != null) {
+                    pomFiles.add(parent.getFile().getAbsolutePath());
+                }
+            }
+
+            for (Dependency dependency : current.getDependencies()) {
+                ReactorModuleBean module = moduleIndex.find(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getVersion());
+                if (module != null) {
+                    pending.add(module.getProject());
+                }
+            }
+        }
+        return pomFiles;
+    }
+
+    /**
+     * get the cached module
+     *
+     * @param projectId identifier of the module
+     * @param key       key of the module
+     * @return the cached module, null if not cached or not valid any more
+     */
+    public JavaOptionBean load(String projectId, String key) {
+        File cacheFile = getCacheFile(projectId);
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = CacheCodec.openInput(cacheFile)) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            JavaOptionBean optionBean = JavaOptionBeanCodec.read(in);
+            for (DependencyBean dependencyBean : optionBean.getDependencyBeans()) {
+                String filePath = dependencyBean.getFilePath();
+                if (filePath != null && !moduleOutputPaths.contains(filePath) && !new File(filePath).exists()) {
+                    log.info("dependency {} of {} not exists, cache is invalid", filePath, projectId);
+                    return null;
+                }
+            }
+            return optionBean;
+        } catch (IOException e) {
+            log.warn("read cache of {} failed, error message: {}", projectId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * cache the module
+     *
+     * @param key        key of the module
+     * @param optionBean the module
+     */
+    public void store(String key, JavaOptionBean optionBean) {
+        File cacheFile = getCacheFile(optionBean.getProjectId());
+        try {
+            CacheCodec.writeAtomically(cacheFile, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                JavaOptionBeanCodec.write(out, optionBean);
+            });
+        } catch (IOException e) {
+            log.warn("write cache of {} failed, error message: {}", optionBean.getProjectId(), e.getMessage());
+        }
+    }
+
+    private File getCacheFile(String projectId) {
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, projectId);
+        return new File(cacheDir, CacheCodec.toHex(digest.digest()) + CACHE_FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.project.MavenProject;
+import zmj.java.maven.inspect.bean.ReactorModuleBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * all the modules of the project being inspected.
+ * if a module depends on other modules in the project,
+ * will not try to get the dependency from local repository,
+ * use the module compile target instead.
+ * <p>
+ * the index is built before any module is handled and never changed after that,
+ * so it can be read by many threads, and the result doesn't depend on the order the modules are handled.
+ *
+ * @author zhang maijun
+ * @since 2020/08/30
+ */
+public class ReactorModuleIndex {
+    private final List<ReactorModuleBean> modules;
+
+    /**
+     * groupId -> artifactId -> modules, lookups need no key string
+     */
+    private final Map<String, Map<String, List<ReactorModuleBean>>> modulesByGroupId;
+
+    /**
+     * build the index of the modules
+     *
+     * @param projects all the modules of the project, including pom module
+     */
+    public ReactorModuleIndex(List<MavenProject> projects) {
+        List<ReactorModuleBean> moduleList = new ArrayList<>(projects.size());
+        Map<String, Map<String, List<ReactorModuleBean>>> moduleMap = new HashMap<>();
+        for (int i = 0; i < projects.size(); i++) {
+            MavenProject project = projects.get(i);
+            Build build = project.getBuild();
+            ReactorModuleBean module = new ReactorModuleBean(i, project.getGroupId(), project.getArtifactId(),
+                    project.getVersion(), build.getOutputDirectory(), build.getTestOutputDirectory(), project);
+            moduleList.add(module);
+            moduleMap.computeIfAbsent(module.getGroupId(), key -> new HashMap<>())
+                    .computeIfAbsent(module.getArtifactId(), key -> new ArrayList<>(1))
+                    .add(module);
+        }
+
+        this.modules = Collections.unmodifiableList(moduleList);
+        this.modulesByGroupId = moduleMap;
+    }
+
+    /**
+     * get all the modules, in the reactor order
+     *
+     * @return all the modules
+     */
+    public List<ReactorModuleBean> getModules() {
+        return modules;
+    }
+
+    /**
+     * get the module identified by groupId:artifactId:version
+     *
+     * @param groupId    group id
+     * @param artifactId artifact id
+     * @param version    version
+     * @return the module, null if it is not a module of this project
+     */
+    public ReactorModuleBean find(String groupId, String artifactId, String version) {
+        for (ReactorModuleBean module : find(groupId, artifactId)) {
+            if (module.getVersion().equals(version)) {
+                return module;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * get all the versions of the module identified by groupId:artifactId
+     *
+     * @param groupId    group id
+     * @param artifactId artifact id
+     * @return the modules, empty if it is not a module of this project
+     */
+    public List<ReactorModuleBean> find(String groupId, String artifactId) {
+        Map<String, List<ReactorModuleBean>> modulesByArtifactId = modulesByGroupId.get(groupId);
+        if (modulesByArtifactId == null) {
+            return Collections.emptyList();
+        }
+        List<ReactorModuleBean> found = modulesByArtifactId.get(artifactId);
+        return found == null ? Collections.emptyList() : found;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import hudson.maven.SettingsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.util.CacheCodec;
+import zmj.java.maven.inspect.util.JavaOptionBeanCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * result of the last successful inspection of a project.
+ * <p>
+ * the fingerprint of a run is a hash tree: every pom.xml of the reactor (found through modules and parent
+ * relative paths, without building the maven model) is hashed on its own, the pom files of one level are
+ * read in parallel, and the root hash combines all of them with the user and global settings files, the jars
+ * of the maven installation and the options of the resolution. if the fingerprint is the same as the stored
+ * one, the stored result is used and no maven container is started.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class RunResultCache {
+    /**
+     * change it when the file format changes, all the cached files will be invalid
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String POM_FILE_NAME = "pom.xml";
+    private static final String DEFAULT_PARENT_RELATIVE_PATH = "../pom.xml";
+    private static final String RUN_FILE_PREFIX = "run-";
+    private static final String CACHE_FILE_SUFFIX = ".bin";
+
+    private final File cacheFile;
+
+    private final String fingerprint;
+
+    /**
+     * compute the fingerprint of the project
+     *
+     * @param cacheDir         directory the results are cached in
+     * @param pomFile          maven pom file
+     * @param userSettingsFile user settings file
+     * @param mavenHome         maven installation
+     * @param resolutionOptions options changing what the dependencies resolve to
+     * @throws IOException if any file can't be read
+     */
+    public RunResultCache(File cacheDir, String pomFile, String userSettingsFile, File mavenHome,
+                          String resolutionOptions) throws IOException {
+        Files.createDirectories(cacheDir.toPath());
+        File rootPom = new File(pomFile).getCanonicalFile();
+
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, rootPom.getPath());
+        this.cacheFile = new File(cacheDir, RUN_FILE_PREFIX + CacheCodec.toHex(digest.digest()) + CACHE_FILE_SUFFIX);
+        this.fingerprint = fingerprint(rootPom, new File(userSettingsFile), mavenHome, resolutionOptions);
+    }
+
+    private static String fingerprint(File rootPom, File userSettingsFile, File mavenHome, String resolutionOptions)
+            throws IOException {
+        Map<String, String> pomHashes = hashPoms(rootPom);
+
+        MessageDigest digest = CacheCodec.newDigest();
+        CacheCodec.update(digest, String.valueOf(FORMAT_VERSION));
+        for (Map.Entry<String, String> pomHash : pomHashes.entrySet()) {
+            CacheCodec.update(digest, pomHash.getKey());
+            CacheCodec.update(digest, pomHash.getValue());
+        }
+        CacheCodec.updateFile(digest, userSettingsFile);
+        CacheCodec.updateOptionalFile(digest, SettingsCache.getGlobalSettingsFile(mavenHome));
+        CacheCodec.update(digest, resolutionOptions);
+
+        CacheCodec.updateJars(digest, new File(mavenHome, "lib"));
+
+        return CacheCodec.toHex(digest.digest());
+    }
+
+    /**
+     * hash all the pom files of the reactor, one level of modules at a time
+     *
+     * @return canonical path -> hash of the pom file, sorted by path
+     */
+    private static Map<String, String> hashPoms(File rootPom) throws IOException {
+        Map<String, String> pomHashes = new TreeMap<>();
+        Set<File> visited = new HashSet<>();
+        List<File> level = Collections.singletonList(rootPom);
+        visited.add(rootPom);
+        try {
+            while (!level.isEmpty()) {
+                List<PomFile> pomFiles = level.parallelStream().map(RunResultCache::readPom)
+                        .collect(Collectors.toList());
+
+                List<File> nextLevel = new ArrayList<>();
+                for (PomFile pomFile : pomFiles) {
+                    pomHashes.put(pomFile.file.getPath(), pomFile.hash);
+                    for (File related : pomFile.related) {
+                        if (visited.add(related)) {
+                            nextLevel.add(related);
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return pomHashes;
+    }
+
+    private static PomFile readPom(File file) {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        MessageDigest digest = CacheCodec.newDigest();
+        digest.update(content);
+        String hash = CacheCodec.toHex(digest.digest());
+
+        List<File> related = new ArrayList<>();
+        try {
+            Model model = new MavenXpp3Reader().read(new ByteArrayInputStream(content), false);
+            File baseDir = file.getParentFile();
+
+            // modules of all the profiles too, any of them may be active
+            List<String> modules = new ArrayList<>(model.getModules());
+            for (Profile profile : model.getProfiles()) {
+                modules.addAll(profile.getModules());
+            }
+            for (String module : modules) {
+                addRelatedPom(related, new File(baseDir, module));
+            }
+
+            Parent parent = model.getParent();
+            if (parent != null) {
+                String relativePath = parent.getRelativePath() == null ? DEFAULT_PARENT_RELATIVE_PATH
+                        : parent.getRelativePath();
+                if (!relativePath.isEmpty()) {
+                    addRelatedPom(related, new File(baseDir, relativePath));
+                }
+            }
+        } catch (IOException | XmlPullParserException e) {
+            // the hash of the content is still in the fingerprint, maven will report the error
+            log.debug("can't read modules of {}, error message: {}", file, e.getMessage());
+        }
+
+        return new PomFile(file, hash, related);
+    }
+
+    private static void addRelatedPom(List<File> related, File file) throws IOException {
+        File pom = file.isDirectory() ? new File(file, POM_FILE_NAME) : file;
+        if (pom.isFile()) {
+            related.add(pom.getCanonicalFile());
+        }
+    }
+
+    /**
+     * get the result of the last inspection
+     *
+     * @return the result, null if the project changed or any dependency file doesn't exist any more
+     */
+    public List<JavaOptionBean> load() {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = CacheCodec.openInput(cacheFile)) {
+            if (in.readInt() != FORMAT_VERSION || !fingerprint.equals(in.readUTF())) {
+                return null;
+            }
+
+            List<JavaOptionBean> optionBeans = JavaOptionBeanCodec.readAll(in);
+            Set<String> outputPaths = new HashSet<>();
+            for (JavaOptionBean optionBean : optionBeans) {
+                addOutputPath(outputPaths, optionBean.getOutputPath());
+                addOutputPath(outputPaths, optionBean.getTestOutputPath());
+            }
+
+            // module targets don't need to exist, the jars in the local repository must
+            for (JavaOptionBean optionBean : optionBeans) {
+                for (DependencyBean dependencyBean : optionBean.getDependencyBeans()) {
+                    String filePath = dependencyBean.getFilePath();
+                    if (filePath != null && !outputPaths.contains(filePath) && !new File(filePath).exists()) {
+                        log.info("dependency {} not exists, last result is invalid", filePath);
+                        return null;
+                    }
+                }
+            }
+            return optionBeans;
+        } catch (IOException e) {
+            log.warn("read last result failed, error message: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void addOutputPath(Set<String> outputPaths, String outputPath) throws IOException {
+        if (outputPath != null) {
+            outputPaths.add(new File(outputPath).getCanonicalPath());
+        }
+    }
+
+    /**
+     * store the result of a successful inspection
+     *
+     * @param optionBeans the result
+     */
+    public void store(List<JavaOptionBean> optionBeans) {
+        try {
+            CacheCodec.writeAtomically(cacheFile, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(fingerprint);
+                JavaOptionBeanCodec.writeAll(out, optionBeans);
+            });
+        } catch (IOException e) {
+            log.warn("write last result failed, error message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * a pom file, its hash, and the pom files of its modules and parent
+     */
+    private static final class PomFile {
+        private final File file;
+        private final String hash;
+        private final List<File> related;
+
+        PomFile(File file, String hash, List<File> related) {
+            this.file = file;
+            this.hash = hash;
+            this.related = related;
+        }
+    }
+}
@@ -73,4 +73,191 @@ public class Constants {
      * short option for maven-script
      */
     public static final String OPTION_MAVEN_SCRIPT_SHORT = "ms";
+
+    /**
+     * program option, used to set count of threads that handle maven modules
+     */
+    public static final String OPTION_THREADS = "threads";
+
+    /**
+     * short option for threads
+     */
+    public static final String OPTION_THREADS_SHORT = "t";
+
+    /**
+     * program option, used to set the directory that resolved modules are cached in
+     */
+    public static final String OPTION_CACHE_DIR = "cache-dir";
+
+    /**
+     * short option for cache-dir
+     */
+    public static final String OPTION_CACHE_DIR_SHORT = "cd";
+
+    /**
+     * program option, start the inspection daemon instead of inspecting a project
+     */
+    public static final String OPTION_DAEMON = "daemon";
+
+    /**
+     * short option for daemon
+     */
+    public static final String OPTION_DAEMON_SHORT = "d";
+
+    /**
+     * program option, port of the inspection daemon
+     */
+    public static final String OPTION_DAEMON_PORT = "daemon-port";
+
+    /**
+     * short option for daemon-port
+     */
+    public static final String OPTION_DAEMON_PORT_SHORT = "dp";
+
+    /**
+     * default port of the inspection daemon
+     */
+    public static final int DEFAULT_DAEMON_PORT = 18527;
+
+    /**
+     * program option, file the options of each module are written to as JSON Lines, "-" for standard output
+     */
+    public static final String OPTION_OUTPUT = "output";
+
+    /**
+     * short option for output
+     */
+    public static final String OPTION_OUTPUT_SHORT = "o";
+
+    /**
+     * program option, format of the output: jsonl or compact
+     */
+    public static final String OPTION_OUTPUT_FORMAT = "output-format";
+
+    /**
+     * short option for output-format
+     */
+    public static final String OPTION_OUTPUT_FORMAT_SHORT = "of";
+
+    /**
+     * program option, only use the local repository, fail on the first artifact not in it
+     */
+    public static final String OPTION_OFFLINE = "offline";
+
+    /**
+     * short option for offline
+     */
+    public static final String OPTION_OFFLINE_SHORT = "off";
+
+    /**
+     * program option, file the index of the local repository is kept in, no index if not set
+     */
+    public static final String OPTION_REPOSITORY_INDEX = "repository-index";
+
+    /**
+     * short option for repository-index
+     */
+    public static final String OPTION_REPOSITORY_INDEX_SHORT = "ri";
+
+    /**
+     * program option, file the metrics of the inspection are written to, in the OpenMetrics text format
+     */
+    public static final String OPTION_METRICS_FILE = "metrics-file";
+
+    /**
+     * short option for metrics-file
+     */
+    public static final String OPTION_METRICS_FILE_SHORT = "mf";
+
+    /**
+     * program option, threads downloading the artifacts of one dependency graph concurrently
+     */
+    public static final String OPTION_DOWNLOAD_THREADS = "download-threads";
+
+    /**
+     * short option for download-threads
+     */
+    public static final String OPTION_DOWNLOAD_THREADS_SHORT = "dt";
+
+    /**
+     * program option, most concurrent downloads from one host for the whole inspection
+     */
+    public static final String OPTION_DOWNLOADS_PER_HOST = "downloads-per-host";
+
+    /**
+     * short option for downloads-per-host
+     */
+    public static final String OPTION_DOWNLOADS_PER_HOST_SHORT = "dph";
+
+    /**
+     * default threads downloading the artifacts of one dependency graph, the default of the resolver
+     */
+    public static final int DEFAULT_DOWNLOAD_THREADS = 5;
+
+    /**
+     * default most concurrent downloads from one host
+     */
+    public static final int DEFAULT_DOWNLOADS_PER_HOST = 8;
+
+    /**
+     * program option, when the remote repositories are checked for newer artifacts and metadata:
+     * never, daily, always or interval:minutes
+     */
+    public static final String OPTION_UPDATE_POLICY = "update-policy";
+
+    /**
+     * short option for update-policy
+     */
+    public static final String OPTION_UPDATE_POLICY_SHORT = "up";
+
+    /**
+     * program option, what to do when a checksum doesn't match: fail, warn or ignore
+     */
+    public static final String OPTION_CHECKSUM_POLICY = "checksum-policy";
+
+    /**
+     * short option for checksum-policy
+     */
+    public static final String OPTION_CHECKSUM_POLICY_SHORT = "csp";
+
+    /**
+     * program option, minutes the metadata of the local repository is used without checking the remote
+     * repositories again
+     */
+    public static final String OPTION_METADATA_TTL = "metadata-ttl";
+
+    /**
+     * short option for metadata-ttl
+     */
+    public static final String OPTION_METADATA_TTL_SHORT = "mt";
+
+    /**
+     * program option, train a class data sharing archive with the inspection, optionally the archive file
+     */
+    public static final String OPTION_CDS_TRAIN = "cds-train";
+
+    /**
+     * short option for cds-train
+     */
+    public static final String OPTION_CDS_TRAIN_SHORT = "ct";
+
+    /**
+     * program option, launches with and without the class data sharing archive timed after the training
+     */
+    public static final String OPTION_CDS_LAUNCHES = "cds-launches";
+
+    /**
+     * short option for cds-launches
+     */
+    public static final String OPTION_CDS_LAUNCHES_SHORT = "cl";
+
+    /**
+     * default launches timed with and without the class data sharing archive
+     */
+    public static final int DEFAULT_CDS_LAUNCHES = 3;
+
+    /**
+     * system property set by the launcher, the class data sharing archive it uses
+     */
+    public static final String SYSTEM_PROPERTY_CDS_ARCHIVE = "maven.project.inspect.cds.archive";
 }
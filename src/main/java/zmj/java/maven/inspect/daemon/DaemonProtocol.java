@@ -0,0 +1,183 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.daemon;
+
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.constant.Constants;
+import zmj.java.maven.inspect.util.OptionUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * messages between the inspection daemon and its client.
+ * the client posts the arguments as properties to {@link #INSPECT_PATH}, with the token of the daemon,
+ * the daemon answers the modules in the form of {@link zmj.java.maven.inspect.util.JavaOptionBeanCodec},
+ * or an error message.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class DaemonProtocol {
+    /**
+     * path of the inspect request
+     */
+    public static final String INSPECT_PATH = "/inspect";
+
+    /**
+     * header of the request carrying the token of the daemon, see {@link #getTokenFile(int)}
+     */
+    public static final String TOKEN_HEADER = "X-Inspect-Token";
+
+    /**
+     * content type of the request. a web page can't post it to another site without asking it first
+     */
+    public static final String CONTENT_TYPE = "application/x-java-properties";
+
+    /**
+     * directory of the token files, in the home of the user
+     */
+    private static final String TOKEN_DIRECTORY = ".maven-project-inspect";
+
+    /**
+     * file the daemon listening on the port writes its token to, only its user can read it
+     *
+     * @param port port of the daemon
+     * @return the token file
+     */
+    public static File getTokenFile(int port) {
+        return new File(new File(System.getProperty("user.home"), TOKEN_DIRECTORY), "daemon-" + port + ".token");
+    }
+
+    /**
+     * arguments of an inspection to properties, keyed by the program options.
+     * the daemon runs in another directory, so the paths are made absolute
+     *
+     * @param arguments arguments of the inspection
+     * @return properties
+     */
+    public static Properties toProperties(InspectArgumentsBean arguments) {
+        Properties properties = new Properties();
+        setProperty(properties, Constants.OPTION_MAVEN_SCRIPT, toAbsolutePath(arguments.getPomFile()));
+        setProperty(properties, Constants.OPTION_MAVEV_HOME, toAbsolutePath(arguments.getMavenHome()));
+        setProperty(properties, Constants.OPTION_USER_SETTINGS, toAbsolutePath(arguments.getUserSettingsFile()));
+        setProperty(properties, Constants.OPTION_THREADS, String.valueOf(arguments.getThreads()));
+        setProperty(properties, Constants.OPTION_CACHE_DIR, toAbsolutePath(arguments.getCacheDir()));
+        setProperty(properties, Constants.OPTION_OFFLINE, String.valueOf(arguments.isOffline()));
+        setProperty(properties, Constants.OPTION_REPOSITORY_INDEX, toAbsolutePath(arguments.getRepositoryIndex()));
+        setProperty(properties, Constants.OPTION_METRICS_FILE, toAbsolutePath(arguments.getMetricsFile()));
+        setProperty(properties, Constants.OPTION_DOWNLOAD_THREADS, String.valueOf(arguments.getDownloadThreads()));
+        setProperty(properties, Constants.OPTION_DOWNLOADS_PER_HOST, String.valueOf(arguments.getDownloadsPerHost()));
+        setProperty(properties, Constants.OPTION_UPDATE_POLICY, arguments.getUpdatePolicy());
+        setProperty(properties, Constants.OPTION_CHECKSUM_POLICY, arguments.getChecksumPolicy());
+        if (arguments.getMetadataTtl() > 0) {
+            setProperty(properties, Constants.OPTION_METADATA_TTL, String.valueOf(arguments.getMetadataTtl()));
+        }
+        return properties;
+    }
+
+    /**
+     * properties to arguments of an inspection, checked like the command line. the paths are made canonical,
+     * the files read must exist and the files written must be in an existing directory
+     *
+     * @param properties properties, keyed by the program options
+     * @return arguments of the inspection
+     * @throws IllegalArgumentException if a number, a policy or a path is not valid
+     */
+    public static InspectArgumentsBean toArguments(Properties properties) {
+        InspectArgumentsBean arguments = new InspectArgumentsBean();
+        arguments.setPomFile(getExistingPath(properties, Constants.OPTION_MAVEN_SCRIPT, false, true));
+        arguments.setMavenHome(getExistingPath(properties, Constants.OPTION_MAVEV_HOME, true, true));
+        arguments.setUserSettingsFile(getExistingPath(properties, Constants.OPTION_USER_SETTINGS, false, false));
+        arguments.setThreads(getPositiveNumber(properties, Constants.OPTION_THREADS, arguments.getThreads()));
+        arguments.setCacheDir(getOutputPath(properties, Constants.OPTION_CACHE_DIR));
+        arguments.setOffline(Boolean.parseBoolean(properties.getProperty(Constants.OPTION_OFFLINE)));
+        arguments.setRepositoryIndex(getOutputPath(properties, Constants.OPTION_REPOSITORY_INDEX));
+        arguments.setMetricsFile(getOutputPath(properties, Constants.OPTION_METRICS_FILE));
+        arguments.setDownloadThreads(getPositiveNumber(properties, Constants.OPTION_DOWNLOAD_THREADS,
+                arguments.getDownloadThreads()));
+        arguments.setDownloadsPerHost(getPositiveNumber(properties, Constants.OPTION_DOWNLOADS_PER_HOST,
+                arguments.getDownloadsPerHost()));
+        arguments.setUpdatePolicy(OptionUtil.getUpdatePolicy(properties.getProperty(Constants.OPTION_UPDATE_POLICY)));
+        arguments.setChecksumPolicy(OptionUtil.getChecksumPolicy(
+                properties.getProperty(Constants.OPTION_CHECKSUM_POLICY)));
+        arguments.setMetadataTtl(getPositiveNumber(properties, Constants.OPTION_METADATA_TTL,
+                arguments.getMetadataTtl()));
+        return arguments;
+    }
+
+    private static int getPositiveNumber(Properties properties, String key, int defaultValue) {
+        return OptionUtil.getPositiveNumber(key, properties.getProperty(key), defaultValue);
+    }
+
+    /**
+     * canonical path of an existing file or directory the inspection reads, null if not set and not required
+     */
+    private static String getExistingPath(Properties properties, String key, boolean directory, boolean required) {
+        String path = properties.getProperty(key);
+        if (path == null) {
+            if (required) {
+                throw new IllegalArgumentException(key + " is missing");
+            }
+            return null;
+        }
+        File file = toCanonicalFile(key, path);
+        if (directory ? !file.isDirectory() : !file.isFile()) {
+            throw new IllegalArgumentException(key + " " + path + " is not an existing "
+                    + (directory ? "directory" : "file"));
+        }
+        return file.getPath();
+    }
+
+    /**
+     * canonical path of a file or directory the inspection writes, null if not set
+     */
+    private static String getOutputPath(Properties properties, String key) {
+        String path = properties.getProperty(key);
+        if (path == null) {
+            return null;
+        }
+        File file = toCanonicalFile(key, path);
+        File parent = file.getParentFile();
+        if (parent == null || !parent.isDirectory()) {
+            throw new IllegalArgumentException(key + " " + path + " is not in an existing directory");
+        }
+        return file.getPath();
+    }
+
+    private static File toCanonicalFile(String key, String path) {
+        File file = new File(path);
+        if (!file.isAbsolute()) {
+            throw new IllegalArgumentException(key + " " + path + " is not an absolute path");
+        }
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(key + " " + path + " can't be resolved");
+        }
+    }
+
+    private static String toAbsolutePath(String path) {
+        return path == null ? null : new File(path).getAbsolutePath();
+    }
+
+    private static void setProperty(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.daemon;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.util.JavaOptionBeanCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * send an inspection to the daemon running on this machine
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class InspectClient {
+    /**
+     * inspect the project by the daemon
+     *
+     * @param port      port the daemon listens on
+     * @param arguments arguments of the inspection, paths should be absolute
+     * @return maven options
+     * @throws MavenProjectInspectException if the daemon can't be reached or the inspection failed
+     */
+    public static List<JavaOptionBean> inspect(int port, InspectArgumentsBean arguments)
+            throws MavenProjectInspectException {
+        HttpURLConnection connection = null;
+        try {
+            File tokenFile = DaemonProtocol.getTokenFile(port);
+            if (!tokenFile.isFile()) {
+                log.error("no token file {}, is the inspection daemon started on port {}?", tokenFile, port);
+                throw new MavenProjectInspectException("inspection daemon not available");
+            }
+            String token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.UTF_8).trim();
+
+            URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), port,
+                    DaemonProtocol.INSPECT_PATH);
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", DaemonProtocol.CONTENT_TYPE);
+            connection.setRequestProperty(DaemonProtocol.TOKEN_HEADER, token);
+            try (OutputStream out = connection.getOutputStream()) {
+                DaemonProtocol.toProperties(arguments).store(out, null);
+            }
+
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                String message;
+                try (InputStream error = connection.getErrorStream()) {
+                    message = error == null ? "" : IOUtils.toString(error, StandardCharsets.UTF_8);
+                }
+                throw new MavenProjectInspectException("inspection daemon error: " + message);
+            }
+
+            try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                    new BufferedInputStream(connection.getInputStream())))) {
+                return JavaOptionBeanCodec.readAll(in);
+            }
+        } catch (IOException e) {
+            log.error("can't reach inspection daemon on port {}, error message: {}", port, e.getMessage());
+            throw new MavenProjectInspectException("inspection daemon not available");
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
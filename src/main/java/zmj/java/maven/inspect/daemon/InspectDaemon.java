@@ -0,0 +1,209 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.daemon;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.handler.JavaProjectOptionHandler;
+import zmj.java.maven.inspect.util.JavaOptionBeanCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * long-lived inspection process, listens on the loopback address only.
+ * the maven containers (pooled by {@link hudson.maven.MavenEmbedderUtils}) and the repository system are
+ * started by the first request and reused by the following requests, so a request doesn't pay for the
+ * startup any more.
+ * <p>
+ * a request must carry the token the daemon writes to a file only its user can read, see
+ * {@link DaemonProtocol#getTokenFile(int)}. requests from a web page (with an origin) and requests of another
+ * content type are refused.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class InspectDaemon {
+    /**
+     * count of requests handled at the same time, each request uses its own threads for the modules
+     */
+    private static final int REQUEST_THREADS = 4;
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_FORBIDDEN = 403;
+    private static final int HTTP_BAD_METHOD = 405;
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+    private static final int HTTP_INTERNAL_ERROR = 500;
+
+    private final HttpServer server;
+
+    private final File tokenFile;
+
+    private final byte[] token;
+
+    /**
+     * create the daemon and write its token, call {@link #start()} to accept requests
+     *
+     * @param port port to listen on
+     * @throws IOException if the port can't be used or the token can't be written
+     */
+    public InspectDaemon(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(DaemonProtocol.INSPECT_PATH, this::handleInspect);
+        server.setExecutor(Executors.newFixedThreadPool(REQUEST_THREADS));
+
+        byte[] random = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(random);
+        token = Base64.getUrlEncoder().withoutPadding().encodeToString(random).getBytes(StandardCharsets.UTF_8);
+        tokenFile = DaemonProtocol.getTokenFile(port);
+        try {
+            writeToken(tokenFile.toPath(), token);
+        } catch (IOException e) {
+            server.stop(0);
+            throw e;
+        }
+    }
+
+    /**
+     * the token file is created again, readable and writable by the owner only
+     */
+    private static void writeToken(Path path, byte[] token) throws IOException {
+        boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        Path directory = path.getParent();
+        if (!Files.isDirectory(directory)) {
+            if (posix) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+
+        Files.deleteIfExists(path);
+        if (posix) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(path);
+            File file = path.toFile();
+            file.setReadable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(false, false);
+            file.setWritable(true, true);
+        }
+        Files.write(path, token);
+    }
+
+    /**
+     * start to accept requests, the token file is removed when the process exits
+     */
+    public void start() {
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(tokenFile::delete));
+        log.info("inspection daemon is listening on {}, token in {}", server.getAddress(), tokenFile);
+    }
+
+    /**
+     * stop accepting requests and remove the token file
+     */
+    public void stop() {
+        server.stop(0);
+        tokenFile.delete();
+    }
+
+    private void handleInspect(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, HTTP_BAD_METHOD, "only POST is supported".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            // a web page always sends its origin, the client never does
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                send(exchange, HTTP_FORBIDDEN, "requests from web pages are refused".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String token = exchange.getRequestHeaders().getFirst(DaemonProtocol.TOKEN_HEADER);
+            if (token == null || !MessageDigest.isEqual(this.token, token.getBytes(StandardCharsets.UTF_8))) {
+                send(exchange, HTTP_FORBIDDEN, "wrong token".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (!DaemonProtocol.CONTENT_TYPE.equals(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                send(exchange, HTTP_UNSUPPORTED_MEDIA_TYPE, ("content type should be " + DaemonProtocol.CONTENT_TYPE)
+                        .getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            InspectArgumentsBean arguments;
+            try (InputStream in = exchange.getRequestBody()) {
+                Properties properties = new Properties();
+                properties.load(in);
+                arguments = DaemonProtocol.toArguments(properties);
+            } catch (IllegalArgumentException e) {
+                log.warn("bad inspect request, error message: {}", e.getMessage());
+                send(exchange, HTTP_BAD_REQUEST, String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            log.info("inspect request for {}", arguments.getPomFile());
+
+            try {
+                List<JavaOptionBean> javaOptionBeans = JavaProjectOptionHandler.handle(arguments);
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+                    JavaOptionBeanCodec.writeAll(out, javaOptionBeans);
+                }
+                send(exchange, HTTP_OK, bytes.toByteArray());
+            } catch (MavenProjectInspectException | RuntimeException e) {
+                log.error("inspect {} failed, error message: {}", arguments.getPomFile(), e.getMessage());
+                send(exchange, HTTP_INTERNAL_ERROR, String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -18,34 +18,63 @@ package zmj.java.maven.inspect.handler;
 import hudson.maven.MavenEmbedder;
 import hudson.maven.MavenEmbedderException;
 import hudson.maven.MavenRequest;
+import hudson.maven.ReactorReader;
+import hudson.maven.SettingsCache;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Repository;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingResult;
-import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Settings;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultSessionData;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.repository.WorkspaceRepository;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.eclipse.aether.resolution.DependencyResult;
-import zmj.java.maven.inspect.bean.DependencyBean;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.util.listener.ChainedTransferListener;
+import zmj.java.maven.inspect.bean.InspectArgumentsBean;
 import zmj.java.maven.inspect.bean.JavaOptionBean;
 import zmj.java.maven.inspect.bean.RemoteRepositoryMessageBean;
-import zmj.java.maven.inspect.cache.ModuleTargetCache;
+import zmj.java.maven.inspect.bean.ResolverOptionBean;
+import zmj.java.maven.inspect.cache.ArtifactTable;
+import zmj.java.maven.inspect.cache.Classpath;
+import zmj.java.maven.inspect.cache.LocalRepositoryIndex;
+import zmj.java.maven.inspect.cache.ModuleResultCache;
+import zmj.java.maven.inspect.cache.ReactorModuleIndex;
+import zmj.java.maven.inspect.cache.RunResultCache;
 import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+import zmj.java.maven.inspect.metrics.Counter;
+import zmj.java.maven.inspect.metrics.InspectMetrics;
+import zmj.java.maven.inspect.metrics.OpenMetricsWriter;
+import zmj.java.maven.inspect.metrics.Phase;
+import zmj.java.maven.inspect.output.JavaOptionSink;
+import zmj.java.maven.inspect.resolver.RepositoryRouter;
+import zmj.java.maven.inspect.resolver.ResolverContext;
+import zmj.java.maven.inspect.resolver.ResolverContextCache;
 import zmj.java.maven.inspect.util.DependencyUtil;
 import zmj.java.maven.inspect.util.MavenProjectUtil;
 import zmj.java.maven.inspect.util.SettingsUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * handle arguments, and get the java compile options
@@ -56,7 +85,12 @@ import java.util.Set;
 @Slf4j
 public class JavaProjectOptionHandler {
     /**
-     * handle maven project option
+     * file in the cache directory the repository routes are kept in
+     */
+    private static final String REPOSITORY_ROUTES_FILE = "repository-routes.bin";
+
+    /**
+     * handle maven project option, modules are handled with one thread per processor
      *
      * @param pomFile          maven pom file
      * @param mavenHomePath    maven installation
@@ -65,52 +99,396 @@ public class JavaProjectOptionHandler {
      * @throws MavenProjectInspectException
      */
     public static List<JavaOptionBean> handle(String pomFile, String mavenHomePath, String userSettingsFile) throws MavenProjectInspectException {
+        return handle(pomFile, mavenHomePath, userSettingsFile, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * handle maven project option
+     *
+     * @param pomFile          maven pom file
+     * @param mavenHomePath    maven installation
+     * @param userSettingsFile user settings file
+     * @param threads          count of threads used to handle maven modules, at least one
+     * @return maven options
+     * @throws MavenProjectInspectException
+     */
+    public static List<JavaOptionBean> handle(String pomFile, String mavenHomePath, String userSettingsFile,
+                                              int threads) throws MavenProjectInspectException {
+        InspectArgumentsBean arguments = new InspectArgumentsBean();
+        arguments.setPomFile(pomFile);
+        arguments.setMavenHome(mavenHomePath);
+        arguments.setUserSettingsFile(userSettingsFile);
+        arguments.setThreads(threads);
+        return handle(arguments);
+    }
+
+    /**
+     * handle maven project option
+     *
+     * @param arguments arguments of the inspection
+     * @return maven options
+     * @throws MavenProjectInspectException
+     */
+    public static List<JavaOptionBean> handle(InspectArgumentsBean arguments) throws MavenProjectInspectException {
+        return handle(arguments, null);
+    }
+
+    /**
+     * handle maven project option, the options of each module are given to the sink as soon as it is handled
+     *
+     * @param arguments arguments of the inspection
+     * @param sink      receives the options of each module, can be null
+     * @return maven options
+     * @throws MavenProjectInspectException
+     */
+    public static List<JavaOptionBean> handle(InspectArgumentsBean arguments, JavaOptionSink sink)
+            throws MavenProjectInspectException {
+        if (arguments.getThreads() < 1) {
+            log.error("threads should be a positive number, but is {}", arguments.getThreads());
+            throw new MavenProjectInspectException("threads should be a positive number");
+        }
+        InspectMetrics metrics = new InspectMetrics();
+        try {
+            return inspect(arguments, sink, metrics);
+        } finally {
+            metrics.finish();
+            report(arguments, metrics);
+        }
+    }
+
+    private static void report(InspectArgumentsBean arguments, InspectMetrics metrics) {
+        log.info("inspection of {} finished, metrics:", arguments.getPomFile());
+        for (String line : metrics.summary()) {
+            log.info(line);
+        }
+
+        if (arguments.getMetricsFile() != null) {
+            try {
+                OpenMetricsWriter.write(metrics, new File(arguments.getMetricsFile()));
+            } catch (IOException e) {
+                log.warn("write metrics file {} failed, error message: {}", arguments.getMetricsFile(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private static List<JavaOptionBean> inspect(InspectArgumentsBean arguments, JavaOptionSink sink,
+                                                InspectMetrics metrics) throws MavenProjectInspectException {
+        String pomFile = arguments.getPomFile();
+        String mavenHomePath = arguments.getMavenHome();
+        String userSettingsFile = arguments.getUserSettingsFile();
+
         // maven home
         File mavenHome = new File(mavenHomePath);
 
+        // the artifacts are asked to the repositories that served them last time
+        RepositoryRouter repositoryRouter = getRepositoryRouter(arguments);
+        String resolutionOptions = getResolutionOptions(arguments);
+
+        // nothing changed since the last successful run, no need to start maven at all
+        RunResultCache runResultCache;
+        List<JavaOptionBean> lastResult = null;
+        InspectMetrics.Timer runCacheTimer = metrics.start(Phase.RUN_CACHE);
+        try {
+            runResultCache = getRunResultCache(arguments, mavenHome, resolutionOptions);
+            if (runResultCache != null) {
+                lastResult = runResultCache.load();
+            }
+        } finally {
+            runCacheTimer.close();
+        }
+        if (lastResult != null) {
+            log.info("maven project {} is not changed since the last run, use the last result", pomFile);
+            if (sink != null) {
+                for (JavaOptionBean optionBean : lastResult) {
+                    emit(sink, optionBean, metrics);
+                }
+            }
+            return lastResult;
+        }
+
         // maven settings message
-        Settings settings = SettingsUtil.build(userSettingsFile);
+        Settings settings;
+        InspectMetrics.Timer settingsTimer = metrics.start(Phase.SETTINGS);
+        try {
+            settings = SettingsUtil.build(SettingsCache.getGlobalSettingsFile(mavenHome).getPath(), userSettingsFile);
+        } finally {
+            settingsTimer.close();
+        }
 
         // local repository
         String localRepo = settings.getLocalRepository();
 
-        // remote maven repository, used to handle dependency
-        List<Mirror> mirrors = settings.getMirrors();
-        Mirror mirror = SettingsUtil.defaultMirror();
-        if (CollectionUtils.isNotEmpty(mirrors)) {
-            mirror = mirrors.get(0);
+        List<ProjectBuildingResult> projectBuildingResults = getProjectBuildingResults(pomFile, mavenHome,
+                userSettingsFile, localRepo, arguments, metrics);
+
+        // all modules are known before any of them is handled
+        List<MavenProject> projects = new ArrayList<>(projectBuildingResults.size());
+        for (ProjectBuildingResult result : projectBuildingResults) {
+            projects.add(result.getProject());
+        }
+        ReactorModuleIndex moduleIndex = new ReactorModuleIndex(projects);
+
+        // one resolver context for all the modules with the same repositories, shared by their dependencies,
+        // transitive dependencies on other modules are read from the reactor.
+        // every repository, those of the dependency poms too, is replaced by its mirror in the settings
+        LocalRepositoryIndex localRepositoryIndex = getLocalRepositoryIndex(arguments, localRepo);
+        ResolverOptionBean resolverOptions = new ResolverOptionBean();
+        resolverOptions.setOffline(arguments.isOffline());
+        resolverOptions.setLocalRepositoryIndex(localRepositoryIndex);
+        resolverOptions.setRepositoryListener(metrics.newRepositoryListener());
+        resolverOptions.setTransferListener(ChainedTransferListener.newInstance(metrics.getTransfers(),
+                repositoryRouter));
+        resolverOptions.setMirrorSelector(SettingsUtil.newMirrorSelector(settings));
+        resolverOptions.setRepositoryRouter(repositoryRouter);
+        // one pool of keep-alive http connections and one limit per host for all the resolver contexts
+        resolverOptions.setSessionData(new DefaultSessionData());
+        DefaultRepositoryCache sharedCache = new DefaultRepositoryCache();
+        resolverOptions.setSharedCache(sharedCache);
+        resolverOptions.setDownloadThreads(arguments.getDownloadThreads());
+        resolverOptions.setDownloadsPerHost(arguments.getDownloadsPerHost());
+        resolverOptions.setUpdatePolicy(arguments.getUpdatePolicy());
+        resolverOptions.setChecksumPolicy(arguments.getChecksumPolicy());
+        resolverOptions.setMetadataTtl(arguments.getMetadataTtl());
+        ResolverContextCache resolverContexts = new ResolverContextCache(new ReactorReader(projects),
+                resolverOptions);
+
+        // modules not changed since the last inspection are read from the cache
+        ModuleResultCache resultCache = null;
+        if (arguments.getCacheDir() != null) {
+            try {
+                resultCache = new ModuleResultCache(new File(arguments.getCacheDir()), userSettingsFile, mavenHome,
+                        resolutionOptions + getRepositoryIds(projects), moduleIndex);
+            } catch (IOException e) {
+                log.warn("can't use cache directory {}, will not cache, error message: {}", arguments.getCacheDir(),
+                        e.getMessage());
+            }
+        }
+
+        // every artifact is kept once for all the modules
+        ArtifactTable artifactTable = new ArtifactTable();
+
+        List<JavaOptionBean> javaOptionBeans;
+        try {
+            javaOptionBeans = handleProjectBuildingResults(resolverContexts, localRepo, artifactTable, resultCache,
+                    moduleIndex, projectBuildingResults, arguments.getThreads(), sink, metrics);
+        } finally {
+            DependencyUtil.closeSharedCache(sharedCache);
+        }
+
+        try {
+            repositoryRouter.store();
+        } catch (IOException e) {
+            log.warn("write repository routes failed, error message: {}", e.getMessage());
         }
 
-        List<ProjectBuildingResult> projectBuildingResults = getProjectBuildingResults(pomFile, mavenHome, localRepo);
+        if (localRepositoryIndex != null) {
+            try {
+                localRepositoryIndex.store();
+            } catch (IOException e) {
+                log.warn("write local repository index failed, error message: {}", e.getMessage());
+            }
+        }
 
-        List<JavaOptionBean> javaOptionBeans = handleProjectBuildingResults(localRepo, projectBuildingResults, mirror);
+        if (runResultCache != null && javaOptionBeans.stream().allMatch(
+                optionBean -> optionBean.isResolved() && !optionBean.isFloating())) {
+            InspectMetrics.Timer storeTimer = metrics.start(Phase.RUN_CACHE);
+            try {
+                runResultCache.store(javaOptionBeans);
+            } finally {
+                storeTimer.close();
+            }
+        }
 
         return javaOptionBeans;
     }
 
-    private static List<JavaOptionBean> handleProjectBuildingResults(String localRepo,
-                                                                     List<ProjectBuildingResult> projectBuildingResults, Mirror mirror) {
-        List<JavaOptionBean> javaOptionBeans = new ArrayList<>();
+    private static RunResultCache getRunResultCache(InspectArgumentsBean arguments, File mavenHome,
+                                                    String resolutionOptions) {
+        if (arguments.getCacheDir() == null) {
+            return null;
+        }
+
+        try {
+            return new RunResultCache(new File(arguments.getCacheDir()), arguments.getPomFile(),
+                    arguments.getUserSettingsFile(), mavenHome, resolutionOptions);
+        } catch (IOException e) {
+            log.warn("can't compute fingerprint of {}, error message: {}", arguments.getPomFile(), e.getMessage());
+            return null;
+        }
+    }
 
+    /**
+     * options changing what the dependencies resolve to, a cached result is only used with the same ones.
+     * the repositories are declared by the settings and the poms, both hashed by the caches. the repository
+     * an artifact is asked first doesn't change what it resolves to, the routes are left out
+     */
+    private static String getResolutionOptions(InspectArgumentsBean arguments) {
+        StringBuilder options = new StringBuilder();
+        options.append("offline=").append(arguments.isOffline());
+        // a SNAPSHOT or a version range may resolve to a newer version, or fail on a checksum, with other policies
+        options.append("|updatePolicy=").append(arguments.getUpdatePolicy());
+        options.append("|checksumPolicy=").append(arguments.getChecksumPolicy());
+        options.append("|metadataTtl=").append(arguments.getMetadataTtl());
+        return options.toString();
+    }
+
+    /**
+     * the repositories of the modules, see {@link #getRepositories(MavenProject)}, their mirrors are in the
+     * settings
+     */
+    private static String getRepositoryIds(List<MavenProject> projects) {
+        Set<String> repositories = new TreeSet<>();
+        for (MavenProject project : projects) {
+            for (Repository repository : project.getRepositories()) {
+                repositories.add(repository.getId() + "=" + repository.getUrl());
+            }
+        }
+        return "|repositories=" + String.join(",", repositories);
+    }
+
+    /**
+     * the routes learned by the last inspections are kept in the cache directory
+     */
+    private static RepositoryRouter getRepositoryRouter(InspectArgumentsBean arguments) {
+        if (arguments.getCacheDir() == null) {
+            return new RepositoryRouter();
+        }
+        return RepositoryRouter.open(new File(arguments.getCacheDir(), REPOSITORY_ROUTES_FILE));
+    }
+
+    /**
+     * repositories of the effective pom of a module, central of the super pom and those of the active profiles
+     * of the settings included, with their update and checksum policies
+     */
+    private static List<RemoteRepositoryMessageBean> getRepositories(MavenProject project) {
+        List<RemoteRepositoryMessageBean> repositories = new ArrayList<>();
+        for (Repository repository : project.getRepositories()) {
+            repositories.add(new RemoteRepositoryMessageBean(repository.getId(), repository.getLayout(),
+                    repository.getUrl(), toPolicy(repository.getReleases()), toPolicy(repository.getSnapshots())));
+        }
+        return repositories;
+    }
+
+    private static RepositoryPolicy toPolicy(org.apache.maven.model.RepositoryPolicy policy) {
+        if (policy == null) {
+            return null;
+        }
+        // snapshots are resolved from every repository like they always were, only when they are checked
+        // and how their checksums are verified is taken from the declaration. the defaults are those of maven
+        String updatePolicy = policy.getUpdatePolicy() == null ? RepositoryPolicy.UPDATE_POLICY_DAILY
+                : policy.getUpdatePolicy();
+        String checksumPolicy = policy.getChecksumPolicy() == null ? RepositoryPolicy.CHECKSUM_POLICY_WARN
+                : policy.getChecksumPolicy();
+        return new RepositoryPolicy(true, updatePolicy, checksumPolicy);
+    }
+
+    private static LocalRepositoryIndex getLocalRepositoryIndex(InspectArgumentsBean arguments, String localRepo) {
+        if (arguments.getRepositoryIndex() == null) {
+            return null;
+        }
+
+        try {
+            return LocalRepositoryIndex.open(new File(arguments.getRepositoryIndex()), new File(localRepo));
+        } catch (IOException e) {
+            log.warn("can't use local repository index {}, error message: {}", arguments.getRepositoryIndex(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<JavaOptionBean> handleProjectBuildingResults(ResolverContextCache resolverContexts,
+                                                                     String localRepo,
+                                                                     ArtifactTable artifactTable,
+                                                                     ModuleResultCache resultCache,
+                                                                     ReactorModuleIndex moduleIndex,
+                                                                     List<ProjectBuildingResult> projectBuildingResults,
+                                                                     int threads, JavaOptionSink sink,
+                                                                     InspectMetrics metrics)
+            throws MavenProjectInspectException {
         log.info("there are {} maven modules to be handled, including pom module", projectBuildingResults.size());
-        for (ProjectBuildingResult result : projectBuildingResults) {
+
+        // modules are handled after the modules they depend on, independent modules are handled concurrently
+        List<JavaOptionBean> results = new ModuleScheduler(projectBuildingResults, moduleIndex).run(threads, result -> {
             MavenProject project = result.getProject();
             String projectId = result.getProjectId();
 
             if (MavenProjectUtil.isParent(project)) {
                 log.info("maven module {} is a parent module, there is no source code here, will skip.", projectId);
-                continue;
+                return null;
             }
 
-            JavaOptionBean javaOptionBean = constructJavaOptionBean(localRepo, project, projectId, mirror);
-            javaOptionBeans.add(javaOptionBean);
+            InspectMetrics.Timer timer = metrics.startModule(projectId);
+            try {
+                ResolverContext resolverContext = resolverContexts.get(localRepo, getRepositories(project));
+                JavaOptionBean optionBean = getJavaOptionBean(resolverContext, artifactTable, resultCache, project,
+                        projectId, metrics);
+                metrics.increment(Counter.MODULES_HANDLED);
+                if (!optionBean.isResolved()) {
+                    metrics.increment(Counter.MODULES_UNRESOLVED);
+                }
+                if (sink != null) {
+                    emit(sink, optionBean, metrics);
+                }
+                return optionBean;
+            } finally {
+                timer.close();
+            }
+        });
+
+        List<JavaOptionBean> javaOptionBeans = new ArrayList<>();
+        for (JavaOptionBean javaOptionBean : results) {
+            if (javaOptionBean != null) {
+                javaOptionBeans.add(javaOptionBean);
+            }
         }
 
         return javaOptionBeans;
     }
 
-    private static JavaOptionBean constructJavaOptionBean(String localRepo, MavenProject project, String projectId,
-                                                          Mirror mirror) {
+    private static void emit(JavaOptionSink sink, JavaOptionBean optionBean, InspectMetrics metrics) {
+        InspectMetrics.Timer timer = metrics.start(Phase.OUTPUT);
+        try {
+            sink.accept(optionBean);
+        } catch (IOException e) {
+            throw new UncheckedIOException("write options of " + optionBean.getProjectId() + " failed", e);
+        } finally {
+            timer.close();
+        }
+    }
+
+    private static JavaOptionBean getJavaOptionBean(ResolverContext resolverContext, ArtifactTable artifactTable,
+                                                    ModuleResultCache resultCache, MavenProject project,
+                                                    String projectId, InspectMetrics metrics) {
+        if (resultCache == null) {
+            return constructJavaOptionBean(resolverContext, artifactTable, project, projectId, metrics);
+        }
+
+        String key;
+        try {
+            key = resultCache.key(project);
+        } catch (IOException e) {
+            log.warn("can't compute cache key of {}, error message: {}", projectId, e.getMessage());
+            return constructJavaOptionBean(resolverContext, artifactTable, project, projectId, metrics);
+        }
+
+        JavaOptionBean optionBean = resultCache.load(projectId, key);
+        if (optionBean != null) {
+            log.info("maven module {} is not changed, use the cached result", projectId);
+            metrics.increment(Counter.MODULES_CACHED);
+            return optionBean;
+        }
+
+        optionBean = constructJavaOptionBean(resolverContext, artifactTable, project, projectId, metrics);
+        if (optionBean.isResolved() && !optionBean.isFloating()) {
+            resultCache.store(key, optionBean);
+        }
+        return optionBean;
+    }
+
+    private static JavaOptionBean constructJavaOptionBean(ResolverContext resolverContext,
+                                                          ArtifactTable artifactTable, MavenProject project,
+                                                          String projectId, InspectMetrics metrics) {
         log.info("handling maven module {}", projectId);
         JavaOptionBean optionBean = new JavaOptionBean();
 
@@ -126,7 +504,6 @@ public class JavaProjectOptionHandler {
 
         // set source output directory
         optionBean.setOutputPath(build.getOutputDirectory());
-        ModuleTargetCache.insert(projectId, build.getOutputDirectory());
 
         // set test output directory
         optionBean.setTestOutputPath(build.getTestOutputDirectory());
@@ -137,76 +514,166 @@ public class JavaProjectOptionHandler {
         // TODO get encoding of the project, now we set UTF-8 for all
         optionBean.setEncoding("UTF-8");
 
-        // set dependencies
-        Set<DependencyBean> dependencyBeans = new HashSet<>();
+        // set dependencies, as ids of the artifact table
+        int[] artifactIds = new int[0];
+        byte[] scopes = new byte[0];
+        int count = 0;
 
+        // all the dependencies are resolved together in one dependency graph,
+        // other modules of this project are read from the reactor and use the module target
         List<Dependency> dependencies = project.getDependencies();
-        for (Dependency dependency : dependencies) {
-            String scope = dependency.getScope();
-            String dependencyId =
-                    dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion();
-            RemoteRepositoryMessageBean remoteRepositoryMessageBean = new RemoteRepositoryMessageBean(mirror.getId(),
-                    mirror.getMirrorOf(), mirror.getUrl());
+        if (CollectionUtils.isNotEmpty(dependencies)) {
+            DependencyManagement dependencyManagement = project.getDependencyManagement();
+            DependencyResult dependencyResult;
+            InspectMetrics.Timer timer = metrics.start(Phase.DEPENDENCY_RESOLUTION);
             try {
-                if (ModuleTargetCache.isModule(dependencyId)) {
-                    DependencyBean bean = new DependencyBean(dependency.getGroupId(), dependency.getArtifactId(),
-                            dependency.getVersion(), dependency.getScope(),
-                            ModuleTargetCache.getTargetByProjectId(dependencyId));
-                    dependencyBeans.add(bean);
-                } else {
-                    DependencyResult dependencyResult =
-                            DependencyUtil.getDependencies(remoteRepositoryMessageBean,
-                                    dependencyId, localRepo, scope);
-                    List<ArtifactResult> artifactResults = dependencyResult.getArtifactResults();
-                    for (ArtifactResult artifactResult : artifactResults) {
-                        DependencyBean bean = getDependencyBean(artifactResult, scope);
-                        dependencyBeans.add(bean);
-                    }
-                }
+                dependencyResult = DependencyUtil.getModuleDependencies(resolverContext, dependencies,
+                        dependencyManagement == null ? null : dependencyManagement.getDependencies());
             } catch (DependencyResolutionException e) {
                 log.warn("exception occur when handle dependency of {}, need further check!", projectId);
+                dependencyResult = e.getResult();
+                optionBean.setResolved(false);
+            } finally {
+                timer.close();
+            }
+
+            optionBean.setFloating(hasFloatingVersions(dependencyResult));
+            if (dependencyResult != null && dependencyResult.getArtifactResults() != null) {
+                List<ArtifactResult> artifactResults = dependencyResult.getArtifactResults();
+                artifactIds = new int[artifactResults.size()];
+                scopes = new byte[artifactResults.size()];
+                for (ArtifactResult artifactResult : artifactResults) {
+                    if (artifactResult.isResolved()) {
+                        artifactIds[count] = getArtifactId(artifactTable, resolverContext.getLocalRepositoryIndex(),
+                                artifactResult.getArtifact());
+                        scopes[count] = artifactTable.scopeCode(getScope(artifactResult));
+                        count++;
+                    }
+                }
             }
         }
-        optionBean.setDependencyBeans(dependencyBeans);
+        optionBean.setDependencyBeans(Classpath.of(artifactTable, artifactIds, scopes, count).asDependencyBeans());
 
         return optionBean;
     }
 
-    private static DependencyBean getDependencyBean(ArtifactResult artifactResult, String scope) {
-        DependencyBean bean = new DependencyBean();
-        Artifact artifact = artifactResult.getArtifact();
-        String groupId = artifact.getGroupId();
-        String artifactId = artifact.getArtifactId();
-        String version = artifact.getVersion();
-        bean.setGroupId(groupId);
-        bean.setArtifactId(artifactId);
-        bean.setVersion(version);
-        bean.setScope(scope);
+    /**
+     * a version range in the dependency graph, or a SNAPSHOT not resolved from the reactor
+     */
+    private static boolean hasFloatingVersions(DependencyResult dependencyResult) {
+        if (dependencyResult == null) {
+            return false;
+        }
+        if (dependencyResult.getArtifactResults() != null) {
+            for (ArtifactResult artifactResult : dependencyResult.getArtifactResults()) {
+                if (artifactResult.getArtifact() != null && artifactResult.getArtifact().isSnapshot()
+                        && !(artifactResult.getRepository() instanceof WorkspaceRepository)) {
+                    return true;
+                }
+            }
+        }
+        if (dependencyResult.getRoot() == null) {
+            return false;
+        }
+        Deque<DependencyNode> pending = new ArrayDeque<>();
+        Set<DependencyNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        pending.add(dependencyResult.getRoot());
+        while (!pending.isEmpty()) {
+            DependencyNode node = pending.poll();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node.getVersionConstraint() != null && node.getVersionConstraint().getRange() != null) {
+                return true;
+            }
+            pending.addAll(node.getChildren());
+        }
+        return false;
+    }
+
+    /**
+     * scope after mediation, a transitive dependency gets the scope of the path it is reached by
+     */
+    private static String getScope(ArtifactResult artifactResult) {
+        DependencyNode node = artifactResult.getRequest().getDependencyNode();
+        if (node == null || node.getDependency() == null) {
+            return JavaScopes.COMPILE;
+        }
+        return node.getDependency().getScope();
+    }
+
+    /**
+     * the canonical path of an artifact is computed only the first time the artifact is seen
+     */
+    private static int getArtifactId(ArtifactTable artifactTable, LocalRepositoryIndex localRepositoryIndex,
+                                     Artifact artifact) {
+        return artifactTable.intern(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(),
+                artifact.getClassifier(), artifact.getExtension(), () -> getFilePath(localRepositoryIndex, artifact));
+    }
+
+    private static String getFilePath(LocalRepositoryIndex localRepositoryIndex, Artifact artifact) {
+        if (artifact.getFile() == null) {
+            return null;
+        }
+
         try {
-            if (artifact.getFile() != null) {
-                bean.setFilePath(artifact.getFile().getCanonicalPath());
+            if (localRepositoryIndex != null) {
+                return localRepositoryIndex.getCanonicalPath(artifact.getFile());
             }
+            return artifact.getFile().getCanonicalPath();
         } catch (IOException e) {
-            log.warn("can't get local file path for dependency {}:{}:{}, error message: {}", groupId, artifactId,
-                    version, e.getMessage());
+            log.warn("can't get local file path for dependency {}:{}:{}, error message: {}", artifact.getGroupId(),
+                    artifact.getArtifactId(), artifact.getVersion(), e.getMessage());
+            return null;
         }
-
-        return bean;
     }
 
     private static List<ProjectBuildingResult> getProjectBuildingResults(String pomFile, File mavenHome,
-                                                                         String localRepo) throws MavenProjectInspectException {
+                                                                         String userSettingsFile,
+                                                                         String localRepo,
+                                                                         InspectArgumentsBean arguments,
+                                                                         InspectMetrics metrics)
+            throws MavenProjectInspectException {
         MavenRequest mavenRequest = new MavenRequest();
         mavenRequest.setPom(pomFile);
         mavenRequest.setLocalRepositoryPath(localRepo);
+        // parent poms and imported boms are resolved through the mirrors of the settings too
+        mavenRequest.setGlobalSettingsFile(SettingsCache.getGlobalSettingsFile(mavenHome).getPath());
+        mavenRequest.setUserSettingsFile(userSettingsFile);
+        mavenRequest.setOffline(arguments.isOffline());
+        // parent poms and imported boms are checked like the dependencies
+        mavenRequest.setGlobalUpdatePolicy(arguments.getUpdatePolicy());
+        mavenRequest.setGlobalChecksumPolicy(arguments.getChecksumPolicy());
+        // parent poms and imported boms are downloaded while the projects are built
+        mavenRequest.setTransferListener(metrics.getTransfers());
+        // the components found by the classpath scanning of the maven home are recorded once in the cache directory
+        if (arguments.getCacheDir() != null) {
+            mavenRequest.setContainerComponentIndexDirectory(new File(arguments.getCacheDir()));
+        }
 
+        // the plexus container is pooled, started once per maven home in this process,
+        // the class realm and the container are created by the embedder
+        MavenEmbedder mavenEmbedder;
+        InspectMetrics.Timer containerTimer = metrics.start(Phase.CONTAINER);
         try {
-            MavenEmbedder mavenEmbedder = new MavenEmbedder(mavenHome, mavenRequest);
-            return mavenEmbedder.buildProjects(new File(pomFile), true);
-        } catch (MavenEmbedderException | ProjectBuildingException e) {
+            mavenEmbedder = new MavenEmbedder(mavenHome, mavenRequest);
+        } catch (MavenEmbedderException e) {
             log.error("construct MavenProject from pom.xml error, error message: {}", e.getMessage());
             throw new MavenProjectInspectException("construct MavenProject error");
+        } finally {
+            containerTimer.close();
         }
 
+        try (MavenEmbedder embedder = mavenEmbedder) {
+            InspectMetrics.Timer buildingTimer = metrics.start(Phase.PROJECT_BUILDING);
+            try {
+                return embedder.buildProjects(new File(pomFile), true);
+            } finally {
+                buildingTimer.close();
+            }
+        } catch (MavenEmbedderException | ProjectBuildingException e) {
+            log.error("construct MavenProject from pom.xml error, error message: {}", e.getMessage());
+            throw new MavenProjectInspectException("construct MavenProject error");
+        }
     }
 }
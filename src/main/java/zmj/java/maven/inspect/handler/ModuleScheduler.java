@@ -0,0 +1,185 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.ProjectBuildingResult;
+import zmj.java.maven.inspect.bean.ReactorModuleBean;
+import zmj.java.maven.inspect.cache.ReactorModuleIndex;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * process the modules of a maven project concurrently.
+ * a module is started only after all the modules it depends on are finished,
+ * the modules on the longest dependency chain are started first.
+ * the results keep the order of the modules, no matter how many threads are used.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class ModuleScheduler {
+    private final List<ProjectBuildingResult> results;
+
+    /**
+     * index of the modules that depends on the module
+     */
+    private final List<List<Integer>> downstreams = new ArrayList<>();
+
+    /**
+     * count of the modules that the module depends on, and are not finished
+     */
+    private final int[] pendingUpstreams;
+
+    /**
+     * length of the longest dependency chain that starts from the module
+     */
+    private final int[] heights;
+
+    public ModuleScheduler(List<ProjectBuildingResult> results, ReactorModuleIndex moduleIndex) {
+        this.results = results;
+        this.pendingUpstreams = new int[results.size()];
+        this.heights = new int[results.size()];
+
+        for (int i = 0; i < results.size(); i++) {
+            downstreams.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            for (Dependency dependency : results.get(i).getProject().getDependencies()) {
+                ReactorModuleBean module = moduleIndex.find(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getVersion());
+                if (module != null && module.getIndex() != i && !downstreams.get(module.getIndex()).contains(i)) {
+                    downstreams.get(module.getIndex()).add(i);
+                    pendingUpstreams[i]++;
+                }
+            }
+        }
+
+        computeHeights();
+    }
+
+    private void computeHeights() {
+        Arrays.fill(heights, -1);
+        for (int i = 0; i < heights.length; i++) {
+            computeHeight(i, new boolean[heights.length]);
+        }
+    }
+
+    private int computeHeight(int index, boolean[] visiting) {
+        if (heights[index] >= 0) {
+            return heights[index];
+        }
+        if (visiting[index]) {
+            // cycle, maven will not build such a project, just stop here
+            return 0;
+        }
+        visiting[index] = true;
+        int height = 0;
+        for (int downstream : downstreams.get(index)) {
+            height = Math.max(height, computeHeight(downstream, visiting) + 1);
+        }
+        visiting[index] = false;
+        heights[index] = height;
+        return height;
+    }
+
+    /**
+     * run the task for every module
+     *
+     * @param threads count of the threads used, at least one
+     * @param task    task for a module, the result can be null
+     * @param <T>     type of the task result
+     * @return results of the tasks, in the same order as the modules
+     * @throws MavenProjectInspectException
+     */
+    public <T> List<T> run(int threads, Function<ProjectBuildingResult, T> task) throws MavenProjectInspectException {
+        int poolSize = Math.max(1, threads);
+        List<T> taskResults = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            taskResults.add(null);
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator.<Integer>comparingInt(i -> heights[i])
+                .reversed().thenComparingInt(i -> i));
+        for (int i = 0; i < results.size(); i++) {
+            if (pendingUpstreams[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        ExecutorCompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            int running = 0;
+            int finished = 0;
+            while (finished < results.size()) {
+                while (!ready.isEmpty() && running < poolSize) {
+                    int index = ready.poll();
+                    completionService.submit(() -> {
+                        taskResults.set(index, task.apply(results.get(index)));
+                        return index;
+                    });
+                    running++;
+                }
+
+                if (running == 0) {
+                    // only happens with a dependency cycle, handle the rest in the original order
+                    log.warn("dependency cycle found between maven modules, the rest modules are handled in order");
+                    for (int i = 0; i < pendingUpstreams.length; i++) {
+                        if (pendingUpstreams[i] > 0) {
+                            pendingUpstreams[i] = 0;
+                            ready.add(i);
+                        }
+                    }
+                    continue;
+                }
+
+                int index = completionService.take().get();
+                running--;
+                finished++;
+                for (int downstream : downstreams.get(index)) {
+                    if (--pendingUpstreams[downstream] == 0) {
+                        ready.add(downstream);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MavenProjectInspectException("handling maven modules interrupted");
+        } catch (ExecutionException e) {
+            log.error("handle maven module error, error message: {}", e.getCause().getMessage());
+            throw new MavenProjectInspectException("handle maven module error");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return taskResults;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+/**
+ * things counted in an inspection
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public enum Counter {
+    /**
+     * modules handled, parent modules excluded
+     */
+    MODULES_HANDLED("modules_handled", "modules handled, parent modules excluded"),
+
+    /**
+     * modules taken from the module cache
+     */
+    MODULES_CACHED("modules_cached", "modules taken from the module cache"),
+
+    /**
+     * modules with dependencies not resolved
+     */
+    MODULES_UNRESOLVED("modules_unresolved", "modules with dependencies not resolved"),
+
+    /**
+     * artifact resolutions, an artifact used by several modules is counted for each of them
+     */
+    ARTIFACTS_RESOLVED("artifacts_resolved", "artifact resolutions, counted for each module"),
+
+    /**
+     * artifacts downloaded from a remote repository
+     */
+    ARTIFACTS_DOWNLOADED("artifacts_downloaded", "artifacts downloaded from a remote repository"),
+
+    /**
+     * artifact resolutions served by the local repository
+     */
+    ARTIFACTS_CACHED("artifacts_cached", "artifact resolutions served by the local repository"),
+
+    /**
+     * repository metadata files downloaded from a remote repository
+     */
+    METADATA_DOWNLOADED("metadata_downloaded", "metadata files downloaded from a remote repository");
+
+    private final String label;
+
+    private final String help;
+
+    Counter(String label, String help) {
+        this.label = label;
+        this.help = help;
+    }
+
+    /**
+     * name of the counter in the metrics
+     *
+     * @return name of the counter
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * description of the counter in the metrics
+     *
+     * @return description of the counter
+     */
+    public String getHelp() {
+        return help;
+    }
+}
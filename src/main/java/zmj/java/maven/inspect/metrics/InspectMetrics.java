@@ -0,0 +1,305 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+import org.eclipse.aether.AbstractRepositoryListener;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryListener;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * timers and counters of one inspection: wall time and allocated bytes of each phase and each module,
+ * and counts of modules and artifacts. all the methods are thread-safe.
+ * </p>
+ * <p>
+ * allocated bytes are read from the {@link ThreadMXBean} of the thread that runs the phase or the module,
+ * the work done by other threads for it is not included. they are not measured if the jvm doesn't support it.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class InspectMetrics {
+    private static final int SLOWEST_MODULES = 10;
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private static final com.sun.management.ThreadMXBean THREADS = getThreadMXBean();
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final long startNanos = System.nanoTime();
+
+    private final Map<Phase, Stats> phases = new EnumMap<>(Phase.class);
+
+    private final Map<String, Stats> modules = new ConcurrentHashMap<>();
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+    private final TransferMetrics transfers = new TransferMetrics();
+
+    private volatile long elapsedNanos = -1;
+
+    public InspectMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new Stats());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+            if (hotspotThreads.isThreadAllocatedMemorySupported() && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+                return hotspotThreads;
+            }
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * time a phase, until the timer is closed. a phase may be timed several times, also concurrently
+     *
+     * @param phase the phase
+     * @return the timer
+     */
+    public Timer start(Phase phase) {
+        return new Timer(phases.get(phase));
+    }
+
+    /**
+     * time the handling of a module, until the timer is closed
+     *
+     * @param projectId identifier of the module
+     * @return the timer
+     */
+    public Timer startModule(String projectId) {
+        return new Timer(modules.computeIfAbsent(projectId, id -> new Stats()));
+    }
+
+    /**
+     * count one
+     *
+     * @param counter the counter
+     */
+    public void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    /**
+     * value of a counter
+     *
+     * @param counter the counter
+     * @return the value
+     */
+    public long get(Counter counter) {
+        if (counter == Counter.ARTIFACTS_CACHED) {
+            // every downloaded artifact is resolved too
+            return Math.max(0, get(Counter.ARTIFACTS_RESOLVED) - get(Counter.ARTIFACTS_DOWNLOADED));
+        }
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * listener of the resolver, counts the artifacts resolved and downloaded
+     *
+     * @return the listener
+     */
+    public RepositoryListener newRepositoryListener() {
+        return new AbstractRepositoryListener() {
+            @Override
+            public void artifactResolved(RepositoryEvent event) {
+                if (event.getException() == null && event.getArtifact() != null
+                        && event.getArtifact().getFile() != null) {
+                    increment(Counter.ARTIFACTS_RESOLVED);
+                    transfers.artifactResolved(event.getArtifact(), event.getRepository());
+                }
+            }
+
+            @Override
+            public void artifactDownloaded(RepositoryEvent event) {
+                if (event.getException() == null && event.getArtifact() != null && event.getFile() != null) {
+                    increment(Counter.ARTIFACTS_DOWNLOADED);
+                    transfers.artifactDownloaded(event.getArtifact(), event.getRepository());
+                }
+            }
+
+            @Override
+            public void metadataDownloaded(RepositoryEvent event) {
+                if (event.getException() == null && event.getFile() != null) {
+                    increment(Counter.METADATA_DOWNLOADED);
+                }
+            }
+        };
+    }
+
+    /**
+     * listener of the transfers from the remote repositories, with their report
+     *
+     * @return the listener
+     */
+    public TransferMetrics getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * stop the clock of the whole inspection
+     */
+    public void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    /**
+     * wall time of the whole inspection, until {@link #finish()} or now
+     *
+     * @return nanoseconds
+     */
+    public long getElapsedNanos() {
+        long elapsed = elapsedNanos;
+        return elapsed < 0 ? System.nanoTime() - startNanos : elapsed;
+    }
+
+    /**
+     * time the inspection started
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    Map<Phase, Stats> getPhases() {
+        return phases;
+    }
+
+    Map<String, Stats> getModules() {
+        return modules;
+    }
+
+    /**
+     * table of the phases, the slowest modules, the counters and the transfers
+     *
+     * @return lines of the table
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-40s %8s %12s %15s", "phase", "calls", "time(ms)", "allocated(MB)"));
+        for (Map.Entry<Phase, Stats> phase : phases.entrySet()) {
+            Stats stats = phase.getValue();
+            if (stats.getCount() > 0) {
+                lines.add(row(phase.getKey().getLabel(), stats));
+            }
+        }
+        lines.add(String.format(Locale.ROOT, "%-40s %8s %12d", "total", "",
+                TimeUnit.NANOSECONDS.toMillis(getElapsedNanos())));
+
+        if (!modules.isEmpty()) {
+            List<Map.Entry<String, Stats>> slowest = new ArrayList<>(modules.entrySet());
+            slowest.sort(Collections.reverseOrder(Map.Entry.comparingByValue(
+                    (left, right) -> Long.compare(left.getNanos(), right.getNanos()))));
+            lines.add(String.format(Locale.ROOT, "%-40s %8s %12s %15s", "slowest modules (of " + modules.size() + ")",
+                    "", "time(ms)", "allocated(MB)"));
+            for (Map.Entry<String, Stats> module : slowest.subList(0, Math.min(SLOWEST_MODULES, slowest.size()))) {
+                lines.add(row(module.getKey(), module.getValue()));
+            }
+        }
+
+        for (Counter counter : Counter.values()) {
+            lines.add(String.format(Locale.ROOT, "%-40s %8d", counter.getLabel(), get(counter)));
+        }
+        lines.addAll(transfers.summary());
+        return lines;
+    }
+
+    private static String row(String name, Stats stats) {
+        String allocated = stats.getAllocatedBytes() < 0 ? "-"
+                : String.format(Locale.ROOT, "%.1f", stats.getAllocatedBytes() / BYTES_PER_MB);
+        return String.format(Locale.ROOT, "%-40s %8d %12d %15s", name, stats.getCount(),
+                TimeUnit.NANOSECONDS.toMillis(stats.getNanos()), allocated);
+    }
+
+    /**
+     * sums of a phase or a module
+     */
+    static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private volatile boolean allocationMeasured = true;
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return allocated bytes, -1 if not measured
+         */
+        long getAllocatedBytes() {
+            return allocationMeasured ? allocatedBytes.sum() : -1;
+        }
+    }
+
+    /**
+     * measures from its creation to {@link #close()}, on one thread
+     */
+    public static final class Timer implements AutoCloseable {
+        private final Stats stats;
+        private final long startNanos;
+        private final long startAllocatedBytes;
+
+        private Timer(Stats stats) {
+            this.stats = stats;
+            this.startAllocatedBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            long allocated = allocatedBytes();
+            stats.count.increment();
+            stats.nanos.add(elapsed);
+            if (allocated < 0 || startAllocatedBytes < 0) {
+                stats.allocationMeasured = false;
+            } else {
+                stats.allocatedBytes.add(allocated - startAllocatedBytes);
+            }
+        }
+    }
+}
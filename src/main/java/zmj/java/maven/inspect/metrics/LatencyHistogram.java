@@ -0,0 +1,130 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * histogram of latencies with fixed buckets, from 5 milliseconds to 30 seconds. thread-safe.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class LatencyHistogram {
+    /**
+     * upper bounds of the buckets in milliseconds, the last bucket has no upper bound
+     */
+    private static final long[] BOUNDS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+    private final LongAdder nanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * record one latency
+     *
+     * @param elapsedNanos the latency
+     */
+    public void record(long elapsedNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        nanos.add(elapsedNanos);
+    }
+
+    /**
+     * number of buckets, the last one has no upper bound
+     *
+     * @return number of buckets
+     */
+    public static int getBucketCount() {
+        return BOUNDS.length + 1;
+    }
+
+    /**
+     * upper bound of a bucket
+     *
+     * @param bucket index of the bucket
+     * @return milliseconds, Long.MAX_VALUE for the last bucket
+     */
+    public static long getBound(int bucket) {
+        return bucket < BOUNDS.length ? BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * latencies recorded in a bucket
+     *
+     * @param bucket index of the bucket
+     * @return count of the bucket, not cumulative
+     */
+    public long getCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /**
+     * latencies recorded
+     *
+     * @return count of all the buckets
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * sum of the latencies recorded
+     *
+     * @return nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * upper bound of the bucket a quantile falls in
+     *
+     * @param quantile between 0 and 1
+     * @return milliseconds, Long.MAX_VALUE if in the last bucket, 0 if nothing is recorded
+     */
+    public long getQuantileBound(double quantile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return getBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * write the metrics of an inspection in the OpenMetrics text format, all of them are gauges of the last run.
+ * the file is written to a temporary file and renamed, so a scraper (e.g. the textfile collector of the node
+ * exporter) never reads a half written file.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class OpenMetricsWriter {
+    private static final String PREFIX = "maven_inspect_";
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private OpenMetricsWriter() {
+        // no op only to prevent construction
+    }
+
+    /**
+     * write the metrics to a file
+     *
+     * @param metrics metrics of the inspection
+     * @param file    the file, replaced if exists
+     * @throws IOException if the file can't be written
+     */
+    public static void write(InspectMetrics metrics, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File tempFile = new File(parent, "." + file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                write(metrics, writer);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * write the metrics
+     *
+     * @param metrics metrics of the inspection
+     * @param writer  the output
+     * @throws IOException if the output can't be written
+     */
+    public static void write(InspectMetrics metrics, Writer writer) throws IOException {
+        gauge(writer, "last_run_timestamp_seconds", "time the last inspection started");
+        sample(writer, "last_run_timestamp_seconds", null, null, metrics.getStartTime() / 1000.0);
+        gauge(writer, "run_seconds", "wall time of the last inspection");
+        sample(writer, "run_seconds", null, null, metrics.getElapsedNanos() / NANOS_PER_SECOND);
+
+        Map<Phase, InspectMetrics.Stats> phases = metrics.getPhases();
+        gauge(writer, "phase_seconds", "time of a phase, summed over the threads running it");
+        for (Map.Entry<Phase, InspectMetrics.Stats> phase : phases.entrySet()) {
+            sample(writer, "phase_seconds", "phase", phase.getKey().getLabel(),
+                    phase.getValue().getNanos() / NANOS_PER_SECOND);
+        }
+        gauge(writer, "phase_calls", "times a phase was run");
+        for (Map.Entry<Phase, InspectMetrics.Stats> phase : phases.entrySet()) {
+            sample(writer, "phase_calls", "phase", phase.getKey().getLabel(), phase.getValue().getCount());
+        }
+        gauge(writer, "phase_allocated_bytes", "bytes allocated by the threads running a phase");
+        for (Map.Entry<Phase, InspectMetrics.Stats> phase : phases.entrySet()) {
+            if (phase.getValue().getAllocatedBytes() >= 0) {
+                sample(writer, "phase_allocated_bytes", "phase", phase.getKey().getLabel(),
+                        phase.getValue().getAllocatedBytes());
+            }
+        }
+
+        // sorted, the same module is always on the same line
+        Map<String, InspectMetrics.Stats> modules = new TreeMap<>(metrics.getModules());
+        gauge(writer, "module_seconds", "time to handle a module");
+        for (Map.Entry<String, InspectMetrics.Stats> module : modules.entrySet()) {
+            sample(writer, "module_seconds", "module", module.getKey(),
+                    module.getValue().getNanos() / NANOS_PER_SECOND);
+        }
+        gauge(writer, "module_allocated_bytes", "bytes allocated to handle a module");
+        for (Map.Entry<String, InspectMetrics.Stats> module : modules.entrySet()) {
+            if (module.getValue().getAllocatedBytes() >= 0) {
+                sample(writer, "module_allocated_bytes", "module", module.getKey(),
+                        module.getValue().getAllocatedBytes());
+            }
+        }
+
+        for (Counter counter : Counter.values()) {
+            gauge(writer, counter.getLabel(), counter.getHelp());
+            sample(writer, counter.getLabel(), null, null, metrics.get(counter));
+        }
+
+        writeTransfers(metrics.getTransfers(), writer);
+        writer.write("# EOF\n");
+    }
+
+    private static void writeTransfers(TransferMetrics transfers, Writer writer) throws IOException {
+        Map<String, TransferMetrics.RepositoryStats> repositories = new TreeMap<>(transfers.getRepositories());
+        if (repositories.isEmpty()) {
+            return;
+        }
+
+        repositoryGauge(writer, repositories, "repository_transfers", "transfers from a remote repository",
+                stats -> stats.transfers.sum());
+        repositoryGauge(writer, repositories, "repository_downloads", "artifacts downloaded from a repository",
+                stats -> stats.downloads.sum());
+        repositoryGauge(writer, repositories, "repository_cache_hits",
+                "artifacts of a repository served by the local repository, counted once for all the modules",
+                stats -> stats.cacheHits.sum());
+        repositoryGauge(writer, repositories, "repository_not_found", "resources not found in a repository",
+                stats -> stats.notFound.sum());
+        repositoryGauge(writer, repositories, "repository_failures", "transfers from a repository failed",
+                stats -> stats.failures.sum());
+        repositoryGauge(writer, repositories, "repository_retries", "transfers from a repository retried",
+                stats -> stats.retries.sum());
+        repositoryGauge(writer, repositories, "repository_bytes", "bytes downloaded from a repository",
+                stats -> stats.bytes.sum());
+
+        String name = "transfer_seconds";
+        writer.write("# TYPE " + PREFIX + name + " histogram\n");
+        writer.write("# HELP " + PREFIX + name + " latency of the transfers from a repository\n");
+        for (Map.Entry<String, TransferMetrics.RepositoryStats> repository : repositories.entrySet()) {
+            LatencyHistogram latencies = repository.getValue().latencies;
+            if (latencies.getCount() == 0) {
+                // the reactor or the local repository, nothing is transferred from it
+                continue;
+            }
+            String label = "repository=\"" + escape(repository.getKey()) + "\"";
+            long cumulative = 0;
+            for (int i = 0; i < LatencyHistogram.getBucketCount(); i++) {
+                cumulative += latencies.getCount(i);
+                long bound = LatencyHistogram.getBound(i);
+                String le = bound == Long.MAX_VALUE ? "+Inf" : String.valueOf(bound / 1000.0);
+                sample(writer, name + "_bucket", "{" + label + ",le=\"" + le + "\"}", cumulative);
+            }
+            sample(writer, name + "_count", "{" + label + "}", cumulative);
+            sample(writer, name + "_sum", "{" + label + "}", latencies.getNanos() / NANOS_PER_SECOND);
+        }
+    }
+
+    private static void repositoryGauge(Writer writer, Map<String, TransferMetrics.RepositoryStats> repositories,
+                                        String name, String help,
+                                        ToLongFunction<TransferMetrics.RepositoryStats> value) throws IOException {
+        gauge(writer, name, help);
+        for (Map.Entry<String, TransferMetrics.RepositoryStats> repository : repositories.entrySet()) {
+            sample(writer, name, "repository", repository.getKey(), value.applyAsLong(repository.getValue()));
+        }
+    }
+
+    private static void gauge(Writer writer, String name, String help) throws IOException {
+        writer.write("# TYPE " + PREFIX + name + " gauge\n");
+        writer.write("# HELP " + PREFIX + name + " " + help + "\n");
+    }
+
+    private static void sample(Writer writer, String name, String label, String labelValue, double value)
+            throws IOException {
+        sample(writer, name, label == null ? "" : "{" + label + "=\"" + escape(labelValue) + "\"}", value);
+    }
+
+    private static void sample(Writer writer, String name, String labels, double value) throws IOException {
+        writer.write(PREFIX);
+        writer.write(name);
+        writer.write(labels);
+        writer.write(' ');
+        writer.write(value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value)
+                : String.format(Locale.ROOT, "%.6f", value));
+        writer.write('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
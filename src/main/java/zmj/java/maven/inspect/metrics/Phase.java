@@ -0,0 +1,69 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+/**
+ * phases of an inspection, in the order they run
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public enum Phase {
+    /**
+     * fingerprint of the project and the result of the last run
+     */
+    RUN_CACHE("run_cache"),
+
+    /**
+     * read the user settings file
+     */
+    SETTINGS("settings"),
+
+    /**
+     * class realm of the maven installation, plexus container (or one of the pool) and the maven session
+     */
+    CONTAINER("container"),
+
+    /**
+     * build the maven projects of all the modules
+     */
+    PROJECT_BUILDING("project_building"),
+
+    /**
+     * collect and resolve the dependencies of the modules, summed over the threads
+     */
+    DEPENDENCY_RESOLUTION("dependency_resolution"),
+
+    /**
+     * write the options of the modules to the output, summed over the threads
+     */
+    OUTPUT("output");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * name of the phase in the metrics
+     *
+     * @return name of the phase
+     */
+    public String getLabel() {
+        return label;
+    }
+}
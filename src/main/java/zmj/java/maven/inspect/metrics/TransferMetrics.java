@@ -0,0 +1,289 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.ArtifactRepository;
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * listener of the transfers from the remote repositories, for the maven session the projects are built with
+ * and for the sessions the dependencies are resolved with. it records per repository and per resource (an
+ * artifact, its pom or a metadata file): bytes, wall time, retries and failures, and a latency histogram per
+ * repository.
+ * </p>
+ * <p>
+ * a resolution served by the local repository has no transfer, cache hits and downloads of a repository are
+ * counted from the repository events, see {@link #artifactResolved(Artifact, ArtifactRepository)} and
+ * {@link #artifactDownloaded(Artifact, ArtifactRepository)}. an artifact is a cache hit once, however many
+ * modules resolve it.
+ * </p>
+ * <p>
+ * a resource asked again to a repository it failed in is a retry, asking the next repository after a not
+ * found is not. the time of a transfer starts when its resource is created, a checksum retry is in the same
+ * transfer.
+ * the listener is called by the download threads of the connectors, all the methods are thread-safe.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class TransferMetrics extends AbstractTransferListener {
+    private static final int SLOWEST = 10;
+
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private static final String LOCAL_REPOSITORY = "local";
+
+    private final Map<String, RepositoryStats> repositories = new ConcurrentHashMap<>();
+
+    private final Map<String, ResourceStats> resources = new ConcurrentHashMap<>();
+
+    /**
+     * repository and resource of the transfers whose last try failed
+     */
+    private final Set<String> failedTransfers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * artifacts resolved or downloaded, true if downloaded
+     */
+    private final Map<String, Boolean> artifacts = new ConcurrentHashMap<>();
+
+    @Override
+    public void transferInitiated(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        // the last transfer of the resource from this repository failed, it is asked again
+        if (failedTransfers.remove(getTransferKey(resource))) {
+            getResourceStats(resource).retries.increment();
+            getRepositoryStats(resource).retries.increment();
+        }
+    }
+
+    @Override
+    public void transferCorrupted(TransferEvent event) {
+        // the checksum doesn't match, the connector downloads it again
+        TransferResource resource = event.getResource();
+        getResourceStats(resource).retries.increment();
+        getRepositoryStats(resource).retries.increment();
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        long elapsed = elapsedNanos(resource);
+        long bytes = event.getTransferredBytes();
+
+        RepositoryStats repositoryStats = getRepositoryStats(resource);
+        repositoryStats.transfers.increment();
+        repositoryStats.bytes.add(bytes);
+        repositoryStats.latencies.record(elapsed);
+
+        ResourceStats resourceStats = getResourceStats(resource);
+        resourceStats.bytes.add(bytes);
+        resourceStats.nanos.add(elapsed);
+        resourceStats.repositoryId = resource.getRepositoryId();
+        failedTransfers.remove(getTransferKey(resource));
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        TransferResource resource = event.getResource();
+        long elapsed = elapsedNanos(resource);
+
+        // a missing resource is expected in all the repositories but one, it takes a round trip too
+        RepositoryStats repositoryStats = getRepositoryStats(resource);
+        repositoryStats.transfers.increment();
+        if (event.getException() instanceof ArtifactNotFoundException
+                || event.getException() instanceof MetadataNotFoundException) {
+            repositoryStats.notFound.increment();
+        } else {
+            repositoryStats.failures.increment();
+        }
+        repositoryStats.latencies.record(elapsed);
+
+        ResourceStats resourceStats = getResourceStats(resource);
+        resourceStats.failures.increment();
+        resourceStats.nanos.add(elapsed);
+        failedTransfers.add(getTransferKey(resource));
+        if (resourceStats.repositoryId == null) {
+            resourceStats.repositoryId = resource.getRepositoryId();
+        }
+    }
+
+    /**
+     * record an artifact resolved, downloaded or from the local repository. the first resolution of an
+     * artifact not downloaded is a cache hit of the repository
+     *
+     * @param artifact   the artifact
+     * @param repository repository the artifact is from, the local copy may be from it too, can be null
+     */
+    public void artifactResolved(Artifact artifact, ArtifactRepository repository) {
+        // the resolver reports the download of an artifact before its resolution
+        if (artifacts.putIfAbsent(artifact.toString(), Boolean.FALSE) == null) {
+            getRepositoryStats(repository).cacheHits.increment();
+        }
+    }
+
+    /**
+     * record an artifact downloaded
+     *
+     * @param artifact   the artifact
+     * @param repository repository the artifact is downloaded from
+     */
+    public void artifactDownloaded(Artifact artifact, ArtifactRepository repository) {
+        artifacts.put(artifact.toString(), Boolean.TRUE);
+        getRepositoryStats(repository).downloads.increment();
+    }
+
+    private RepositoryStats getRepositoryStats(ArtifactRepository repository) {
+        String repositoryId = repository == null ? LOCAL_REPOSITORY : repository.getId();
+        return repositories.computeIfAbsent(repositoryId, id -> new RepositoryStats(null));
+    }
+
+    private static long elapsedNanos(TransferResource resource) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis()
+                - resource.getTransferStartTime()));
+    }
+
+    private RepositoryStats getRepositoryStats(TransferResource resource) {
+        RepositoryStats repositoryStats = repositories.computeIfAbsent(resource.getRepositoryId(),
+                id -> new RepositoryStats(resource.getRepositoryUrl()));
+        if (repositoryStats.url == null) {
+            repositoryStats.url = resource.getRepositoryUrl();
+        }
+        return repositoryStats;
+    }
+
+    private static String getTransferKey(TransferResource resource) {
+        return resource.getRepositoryId() + '|' + resource.getResourceName();
+    }
+
+    private ResourceStats getResourceStats(TransferResource resource) {
+        return resources.computeIfAbsent(resource.getResourceName(), name -> new ResourceStats());
+    }
+
+    Map<String, RepositoryStats> getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * report of the repositories, the slowest repositories first, and of the slowest resources
+     *
+     * @return lines of the report, empty if nothing is resolved
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        if (repositories.isEmpty()) {
+            return lines;
+        }
+
+        List<Map.Entry<String, RepositoryStats>> slowestRepositories = new ArrayList<>(repositories.entrySet());
+        slowestRepositories.sort(Collections.reverseOrder(Map.Entry.comparingByValue(
+                Comparator.comparingLong(stats -> stats.latencies.getNanos()))));
+        lines.add(String.format(Locale.ROOT, "%-24s %9s %9s %9s %9s %9s %8s %10s %10s %8s %8s", "repository",
+                "transfers", "downloads", "cached", "not found", "failures", "retries", "MB", "time(ms)", "p50(ms)",
+                "p95(ms)"));
+        for (Map.Entry<String, RepositoryStats> repository : slowestRepositories) {
+            RepositoryStats stats = repository.getValue();
+            lines.add(String.format(Locale.ROOT, "%-24s %9d %9d %9d %9d %9d %8d %10.1f %10d %8s %8s",
+                    repository.getKey(), stats.transfers.sum(), stats.downloads.sum(), stats.cacheHits.sum(),
+                    stats.notFound.sum(), stats.failures.sum(), stats.retries.sum(), stats.bytes.sum() / BYTES_PER_MB,
+                    TimeUnit.NANOSECONDS.toMillis(stats.latencies.getNanos()),
+                    bound(stats.latencies.getQuantileBound(0.5)), bound(stats.latencies.getQuantileBound(0.95))));
+        }
+
+        for (Map.Entry<String, RepositoryStats> repository : slowestRepositories) {
+            LatencyHistogram latencies = repository.getValue().latencies;
+            if (latencies.getCount() == 0) {
+                continue;
+            }
+            StringBuilder histogram = new StringBuilder("latencies of ").append(repository.getKey()).append(':');
+            for (int i = 0; i < LatencyHistogram.getBucketCount(); i++) {
+                long bound = LatencyHistogram.getBound(i);
+                histogram.append(bound == Long.MAX_VALUE ? " more" : " " + bound + "ms").append('=')
+                        .append(latencies.getCount(i));
+            }
+            lines.add(histogram.toString());
+        }
+
+        if (!resources.isEmpty()) {
+            List<Map.Entry<String, ResourceStats>> slowestResources = new ArrayList<>(resources.entrySet());
+            slowestResources.sort(Collections.reverseOrder(Map.Entry.comparingByValue(
+                    Comparator.comparingLong(stats -> stats.nanos.sum()))));
+            lines.add(String.format(Locale.ROOT, "%-60s %-24s %8s %8s %10s %10s",
+                    "slowest resources (of " + resources.size() + ")", "repository", "retries", "failures", "KB",
+                    "time(ms)"));
+            for (Map.Entry<String, ResourceStats> resource : slowestResources.subList(0,
+                    Math.min(SLOWEST, slowestResources.size()))) {
+                ResourceStats stats = resource.getValue();
+                lines.add(String.format(Locale.ROOT, "%-60s %-24s %8d %8d %10.1f %10d", resource.getKey(),
+                        stats.repositoryId, stats.retries.sum(), stats.failures.sum(), stats.bytes.sum() / 1024.0,
+                        TimeUnit.NANOSECONDS.toMillis(stats.nanos.sum())));
+            }
+        }
+        return lines;
+    }
+
+    private static String bound(long millis) {
+        return millis == Long.MAX_VALUE ? "inf" : String.valueOf(millis);
+    }
+
+    /**
+     * sums of the transfers from one repository
+     */
+    static final class RepositoryStats {
+        final LongAdder transfers = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+        final LongAdder downloads = new LongAdder();
+        final LongAdder notFound = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LatencyHistogram latencies = new LatencyHistogram();
+        volatile String url;
+
+        RepositoryStats(String url) {
+            this.url = url;
+        }
+    }
+
+    /**
+     * sums of the transfers of one resource, from all the repositories
+     */
+    private static final class ResourceStats {
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private volatile String repositoryId;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>
+ * the compact output format, a stream of records after a header (magic, format version).
+ * each record starts with a tag byte:
+ * </p>
+ * <ul>
+ * <li>{@link #ARTIFACT}: groupId, artifactId, version, scope, file path. the id of an artifact is its position
+ * among the artifact records, starting from 0.</li>
+ * <li>{@link #CLASSPATH}: count, then the artifact ids in classpath order. ids are assigned like artifacts.</li>
+ * <li>{@link #MODULE}: projectId, source, encoding, source paths, test source path, output path,
+ * test output path, resolved, classpath id.</li>
+ * <li>{@link #END}: no more records.</li>
+ * </ul>
+ * <p>
+ * an artifact or a classpath is written once, right before the first module that uses it, so the format
+ * can be written and read while the modules are still being handled. counts and ids are unsigned varints,
+ * strings are written by {@link zmj.java.maven.inspect.util.JavaOptionBeanCodec#writeString}.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public final class CompactFormat {
+    /**
+     * "MPIC"
+     */
+    public static final int MAGIC = 0x4d504943;
+
+    public static final int VERSION = 1;
+
+    public static final byte END = 0;
+
+    public static final byte ARTIFACT = 1;
+
+    public static final byte CLASSPATH = 2;
+
+    public static final byte MODULE = 3;
+
+    private CompactFormat() {
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+}
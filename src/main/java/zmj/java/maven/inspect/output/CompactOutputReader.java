@@ -0,0 +1,196 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static zmj.java.maven.inspect.util.JavaOptionBeanCodec.readString;
+
+/**
+ * <p>
+ * read the modules written in the {@link CompactFormat}, one module at a time.
+ * </p>
+ * <p>
+ * each artifact is one {@link DependencyBean} for the whole reactor, and modules with the same classpath get
+ * the same (unmodifiable) dependency set, so loading a large reactor costs about the size of its artifacts.
+ * the modules are read as they are written, a reader on a pipe gets the first modules before the inspection
+ * is finished.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class CompactOutputReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataInputStream in;
+
+    private final List<DependencyBean> artifacts = new ArrayList<>();
+
+    private final List<Set<DependencyBean>> classpaths = new ArrayList<>();
+
+    private boolean finished;
+
+    /**
+     * @param in input, it's buffered by this reader
+     * @throws IOException if it's not in the compact format
+     */
+    public CompactOutputReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        if (this.in.readInt() != CompactFormat.MAGIC) {
+            throw new IOException("not in the compact output format");
+        }
+        int version = this.in.readInt();
+        if (version != CompactFormat.VERSION) {
+            throw new IOException("unsupported compact output format version " + version);
+        }
+    }
+
+    /**
+     * open a file in the compact format
+     *
+     * @param path file path
+     * @return the reader
+     * @throws IOException if the file can't be read or it's not in the compact format
+     */
+    public static CompactOutputReader open(String path) throws IOException {
+        FileInputStream in = new FileInputStream(path);
+        try {
+            return new CompactOutputReader(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * read the next module
+     *
+     * @return the module, null if there is no more module
+     * @throws IOException if the input is broken
+     */
+    public JavaOptionBean next() throws IOException {
+        while (!finished) {
+            int tag;
+            try {
+                tag = in.readByte();
+            } catch (EOFException e) {
+                // the writer was not closed, take what was written
+                finished = true;
+                break;
+            }
+
+            switch (tag) {
+                case CompactFormat.END:
+                    finished = true;
+                    break;
+                case CompactFormat.ARTIFACT:
+                    artifacts.add(new DependencyBean(readString(in), readString(in), readString(in),
+                            readString(in), readString(in)));
+                    break;
+                case CompactFormat.CLASSPATH:
+                    classpaths.add(readClasspath());
+                    break;
+                case CompactFormat.MODULE:
+                    return readModule();
+                default:
+                    throw new IOException("unknown record " + tag);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * read all the remaining modules
+     *
+     * @return the modules, in the order they were written
+     * @throws IOException if the input is broken
+     */
+    public List<JavaOptionBean> readAll() throws IOException {
+        List<JavaOptionBean> optionBeans = new ArrayList<>();
+        for (JavaOptionBean optionBean = next(); optionBean != null; optionBean = next()) {
+            optionBeans.add(optionBean);
+        }
+        return optionBeans;
+    }
+
+    /**
+     * all the artifacts read so far, the index is the artifact id
+     *
+     * @return the artifacts
+     */
+    public List<DependencyBean> getArtifacts() {
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    private Set<DependencyBean> readClasspath() throws IOException {
+        int count = CompactFormat.readVarInt(in);
+        Set<DependencyBean> classpath = new LinkedHashSet<>(count * 4 / 3 + 1);
+        for (int i = 0; i < count; i++) {
+            classpath.add(artifact(CompactFormat.readVarInt(in)));
+        }
+        return Collections.unmodifiableSet(classpath);
+    }
+
+    private DependencyBean artifact(int id) throws IOException {
+        if (id >= artifacts.size()) {
+            throw new IOException("artifact " + id + " used before it is defined");
+        }
+        return artifacts.get(id);
+    }
+
+    private JavaOptionBean readModule() throws IOException {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId(readString(in));
+        optionBean.setSource(readString(in));
+        optionBean.setEncoding(readString(in));
+        int sourcePathCount = CompactFormat.readVarInt(in);
+        Set<String> sourcePaths = new LinkedHashSet<>();
+        for (int i = 0; i < sourcePathCount; i++) {
+            sourcePaths.add(readString(in));
+        }
+        optionBean.setSourcePaths(sourcePaths);
+        optionBean.setTestSourcePath(readString(in));
+        optionBean.setOutputPath(readString(in));
+        optionBean.setTestOutputPath(readString(in));
+        optionBean.setResolved(in.readBoolean());
+        int classpathId = CompactFormat.readVarInt(in);
+        if (classpathId >= classpaths.size()) {
+            throw new IOException("classpath " + classpathId + " used before it is defined");
+        }
+        optionBean.setDependencyBeans(classpaths.get(classpathId));
+        return optionBean;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
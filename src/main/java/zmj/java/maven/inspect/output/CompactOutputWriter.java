@@ -0,0 +1,224 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static zmj.java.maven.inspect.util.JavaOptionBeanCodec.writeString;
+
+/**
+ * write the modules in the {@link CompactFormat}. every artifact is written once for the whole reactor,
+ * modules with the same classpath share it. each module is flushed as soon as it is written.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class CompactOutputWriter implements JavaOptionOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+
+    private final boolean closeOut;
+
+    private final Map<ArtifactKey, Integer> artifactIds = new HashMap<>();
+
+    private final Map<ClasspathKey, Integer> classpathIds = new HashMap<>();
+
+    /**
+     * @param out      where to write, it's buffered by this writer
+     * @param closeOut close {@code out} when this writer is closed
+     * @throws IOException if the header can't be written
+     */
+    public CompactOutputWriter(OutputStream out, boolean closeOut) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.closeOut = closeOut;
+        this.out.writeInt(CompactFormat.MAGIC);
+        this.out.writeInt(CompactFormat.VERSION);
+    }
+
+    /**
+     * open a writer to a file, or to the standard output
+     *
+     * @param path file path, or {@link JsonLinesWriter#STDOUT}
+     * @return the writer
+     * @throws IOException if the file can't be created
+     */
+    public static CompactOutputWriter open(String path) throws IOException {
+        if (JsonLinesWriter.STDOUT.equals(path)) {
+            return new CompactOutputWriter(System.out, false);
+        }
+        return new CompactOutputWriter(new FileOutputStream(path), true);
+    }
+
+    @Override
+    public synchronized void accept(JavaOptionBean optionBean) throws IOException {
+        int classpathId = classpathId(optionBean.getDependencyBeans());
+
+        out.writeByte(CompactFormat.MODULE);
+        writeString(out, optionBean.getProjectId());
+        writeString(out, optionBean.getSource());
+        writeString(out, optionBean.getEncoding());
+        Set<String> sourcePaths = optionBean.getSourcePaths();
+        CompactFormat.writeVarInt(out, sourcePaths == null ? 0 : sourcePaths.size());
+        if (sourcePaths != null) {
+            for (String sourcePath : sourcePaths) {
+                writeString(out, sourcePath);
+            }
+        }
+        writeString(out, optionBean.getTestSourcePath());
+        writeString(out, optionBean.getOutputPath());
+        writeString(out, optionBean.getTestOutputPath());
+        out.writeBoolean(optionBean.isResolved());
+        CompactFormat.writeVarInt(out, classpathId);
+        out.flush();
+    }
+
+    /**
+     * id of the classpath, the classpath and its new artifacts are written first if it's not known yet
+     */
+    private int classpathId(Set<DependencyBean> dependencyBeans) throws IOException {
+        int[] ids = new int[dependencyBeans == null ? 0 : dependencyBeans.size()];
+        if (dependencyBeans != null) {
+            int i = 0;
+            for (DependencyBean dependencyBean : dependencyBeans) {
+                ids[i++] = artifactId(dependencyBean);
+            }
+        }
+
+        ClasspathKey key = new ClasspathKey(ids);
+        Integer id = classpathIds.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        id = classpathIds.size();
+        classpathIds.put(key, id);
+        out.writeByte(CompactFormat.CLASSPATH);
+        CompactFormat.writeVarInt(out, ids.length);
+        for (int artifactId : ids) {
+            CompactFormat.writeVarInt(out, artifactId);
+        }
+        return id;
+    }
+
+    private int artifactId(DependencyBean dependencyBean) throws IOException {
+        ArtifactKey key = new ArtifactKey(dependencyBean);
+        Integer id = artifactIds.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        id = artifactIds.size();
+        artifactIds.put(key, id);
+        out.writeByte(CompactFormat.ARTIFACT);
+        writeString(out, dependencyBean.getGroupId());
+        writeString(out, dependencyBean.getArtifactId());
+        writeString(out, dependencyBean.getVersion());
+        writeString(out, dependencyBean.getScope());
+        writeString(out, dependencyBean.getFilePath());
+        return id;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.writeByte(CompactFormat.END);
+        out.flush();
+        if (closeOut) {
+            out.close();
+        }
+    }
+
+    /**
+     * everything stored for an artifact, two artifacts are the same only if all of them are the same
+     */
+    private static final class ArtifactKey {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String scope;
+        private final String filePath;
+        private final int hash;
+
+        ArtifactKey(DependencyBean dependencyBean) {
+            this.groupId = dependencyBean.getGroupId();
+            this.artifactId = dependencyBean.getArtifactId();
+            this.version = dependencyBean.getVersion();
+            this.scope = dependencyBean.getScope();
+            this.filePath = dependencyBean.getFilePath();
+            int h = Objects.hashCode(groupId);
+            h = 31 * h + Objects.hashCode(artifactId);
+            h = 31 * h + Objects.hashCode(version);
+            h = 31 * h + Objects.hashCode(scope);
+            h = 31 * h + Objects.hashCode(filePath);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ArtifactKey)) {
+                return false;
+            }
+            ArtifactKey that = (ArtifactKey) o;
+            return hash == that.hash && Objects.equals(groupId, that.groupId)
+                    && Objects.equals(artifactId, that.artifactId) && Objects.equals(version, that.version)
+                    && Objects.equals(scope, that.scope) && Objects.equals(filePath, that.filePath);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * artifact ids of a classpath, in order
+     */
+    private static final class ClasspathKey {
+        private final int[] ids;
+        private final int hash;
+
+        ClasspathKey(int[] ids) {
+            this.ids = ids;
+            this.hash = Arrays.hashCode(ids);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ClasspathKey && hash == ((ClasspathKey) o).hash
+                    && Arrays.equals(ids, ((ClasspathKey) o).ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
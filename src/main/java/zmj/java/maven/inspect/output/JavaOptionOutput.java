@@ -0,0 +1,27 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import java.io.Closeable;
+
+/**
+ * a sink that writes the modules somewhere, close it after the last module
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public interface JavaOptionOutput extends JavaOptionSink, Closeable {
+}
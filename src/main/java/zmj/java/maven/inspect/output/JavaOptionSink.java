@@ -0,0 +1,38 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.IOException;
+
+/**
+ * receives the options of each module as soon as the module is handled.
+ * modules are handled concurrently, an implementation must be thread-safe.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@FunctionalInterface
+public interface JavaOptionSink {
+    /**
+     * a module is handled
+     *
+     * @param optionBean options of the module
+     * @throws IOException if the options can't be written
+     */
+    void accept(JavaOptionBean optionBean) throws IOException;
+}
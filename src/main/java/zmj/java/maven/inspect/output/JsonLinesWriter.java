@@ -0,0 +1,181 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * write the options of each module as one JSON object per line (JSON Lines).
+ * the record of a module is flushed as soon as it is written, a reader can start with the first modules
+ * while the others are still resolving. characters are escaped straight into the buffer, no string is built
+ * for a record.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class JsonLinesWriter implements JavaOptionOutput {
+    /**
+     * output path for the standard output
+     */
+    public static final String STDOUT = "-";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+
+    private final boolean closeOut;
+
+    /**
+     * @param out      where to write, it's buffered by this writer
+     * @param closeOut close {@code out} when this writer is closed
+     */
+    public JsonLinesWriter(Writer out, boolean closeOut) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+        this.closeOut = closeOut;
+    }
+
+    /**
+     * open a writer to a file, or to the standard output
+     *
+     * @param path file path, or {@link #STDOUT}
+     * @return the writer
+     * @throws IOException if the file can't be created
+     */
+    public static JsonLinesWriter open(String path) throws IOException {
+        if (STDOUT.equals(path)) {
+            return new JsonLinesWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), false);
+        }
+        return new JsonLinesWriter(new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8), true);
+    }
+
+    @Override
+    public synchronized void accept(JavaOptionBean optionBean) throws IOException {
+        out.write("{\"projectId\":");
+        writeString(optionBean.getProjectId());
+        out.write(",\"source\":");
+        writeString(optionBean.getSource());
+        out.write(",\"encoding\":");
+        writeString(optionBean.getEncoding());
+        out.write(",\"sourcePaths\":[");
+        if (optionBean.getSourcePaths() != null) {
+            boolean first = true;
+            for (String sourcePath : optionBean.getSourcePaths()) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeString(sourcePath);
+            }
+        }
+        out.write("],\"testSourcePath\":");
+        writeString(optionBean.getTestSourcePath());
+        out.write(",\"outputPath\":");
+        writeString(optionBean.getOutputPath());
+        out.write(",\"testOutputPath\":");
+        writeString(optionBean.getTestOutputPath());
+        out.write(",\"resolved\":");
+        out.write(optionBean.isResolved() ? "true" : "false");
+        out.write(",\"dependencies\":[");
+        if (optionBean.getDependencyBeans() != null) {
+            boolean first = true;
+            for (DependencyBean dependencyBean : optionBean.getDependencyBeans()) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeDependency(dependencyBean);
+            }
+        }
+        out.write("]}\n");
+        out.flush();
+    }
+
+    private void writeDependency(DependencyBean dependencyBean) throws IOException {
+        out.write("{\"groupId\":");
+        writeString(dependencyBean.getGroupId());
+        out.write(",\"artifactId\":");
+        writeString(dependencyBean.getArtifactId());
+        out.write(",\"version\":");
+        writeString(dependencyBean.getVersion());
+        out.write(",\"scope\":");
+        writeString(dependencyBean.getScope());
+        out.write(",\"filePath\":");
+        writeString(dependencyBean.getFilePath());
+        out.write('}');
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+
+        out.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+
+            // write the plain run before the character in one call
+            out.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    out.write("\\u00");
+                    out.write(HEX_DIGITS[c >> 4]);
+                    out.write(HEX_DIGITS[c & 0xF]);
+            }
+        }
+        out.write(value, start, length - start);
+        out.write('"');
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.flush();
+        if (closeOut) {
+            out.close();
+        }
+    }
+}
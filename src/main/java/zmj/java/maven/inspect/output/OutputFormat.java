@@ -0,0 +1,68 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * supported output formats
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public enum OutputFormat {
+    /**
+     * one JSON object per module and line, see {@link JsonLinesWriter}
+     */
+    JSONL,
+
+    /**
+     * artifacts and classpaths written once, see {@link CompactFormat}
+     */
+    COMPACT;
+
+    /**
+     * get the format by name, ignoring case
+     *
+     * @param name name of the format
+     * @return the format, null if not supported
+     */
+    public static OutputFormat of(String name) {
+        for (OutputFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * open an output of this format
+     *
+     * @param path file path, or {@link JsonLinesWriter#STDOUT}
+     * @return the output
+     * @throws IOException if the file can't be created
+     */
+    public JavaOptionOutput open(String path) throws IOException {
+        return this == COMPACT ? CompactOutputWriter.open(path) : JsonLinesWriter.open(path);
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.apache.maven.repository.internal.DefaultArtifactDescriptorReader;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.spi.locator.Service;
+import org.eclipse.aether.spi.locator.ServiceLocator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * read the pom descriptor of an artifact once per offline session.
+ * <p>
+ * offline, a descriptor only depends on the pom files in the local repository, so the descriptor read by one
+ * module is used by all the others, no effective model is built twice for the same artifact. failed reads are
+ * not kept. online sessions are given to the maven reader as they are.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class CachingArtifactDescriptorReader implements ArtifactDescriptorReader, Service {
+    private static final Object DESCRIPTORS_KEY = CachingArtifactDescriptorReader.class.getName() + ".descriptors";
+
+    private DefaultArtifactDescriptorReader delegate;
+
+    @Override
+    public void initService(ServiceLocator locator) {
+        delegate = new DefaultArtifactDescriptorReader();
+        delegate.initService(locator);
+    }
+
+    @Override
+    public ArtifactDescriptorResult readArtifactDescriptor(RepositorySystemSession session,
+                                                           ArtifactDescriptorRequest request)
+            throws ArtifactDescriptorException {
+        if (!session.isOffline()) {
+            return delegate.readArtifactDescriptor(session, request);
+        }
+
+        Map<String, ArtifactDescriptorResult> descriptors = getDescriptors(session.getData());
+        String key = request.getArtifact().toString();
+        ArtifactDescriptorResult result = descriptors.get(key);
+        if (result == null) {
+            // two threads may read the same pom at the same time, both results are the same
+            result = delegate.readArtifactDescriptor(session, request);
+            descriptors.put(key, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, ArtifactDescriptorResult> getDescriptors(SessionData data) {
+        Map<String, ArtifactDescriptorResult> descriptors =
+                (Map<String, ArtifactDescriptorResult>) data.get(DESCRIPTORS_KEY);
+        if (descriptors == null) {
+            data.set(DESCRIPTORS_KEY, null, new ConcurrentHashMap<>());
+            descriptors = (Map<String, ArtifactDescriptorResult>) data.get(DESCRIPTORS_KEY);
+        }
+        return descriptors;
+    }
+}
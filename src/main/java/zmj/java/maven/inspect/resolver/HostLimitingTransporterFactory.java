@@ -0,0 +1,150 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.PeekTask;
+import org.eclipse.aether.spi.connector.transport.PutTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.locator.Service;
+import org.eclipse.aether.spi.locator.ServiceLocator;
+import org.eclipse.aether.transfer.NoTransporterException;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.util.ConfigUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>
+ * http transporter with a limit of the concurrent transfers to one host, for all the connectors of the
+ * sessions sharing the same session data. the module threads of an inspection each run their own connector
+ * with its download threads, without the limit they would open (module threads x download threads)
+ * connections to the same repository manager.
+ * </p>
+ * <p>
+ * the transfers are done by the http transporter of the resolver, its pooled keep-alive connections are kept
+ * in the session cache, shared by the sessions of an inspection with {@link SharedHttpStateCache}.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class HostLimitingTransporterFactory implements TransporterFactory, Service {
+    /**
+     * configuration property of the session, the most concurrent transfers to one host, no limit if not positive
+     */
+    public static final String CONFIG_PROP_TRANSFERS_PER_HOST = HostLimitingTransporterFactory.class.getName()
+            + ".transfersPerHost";
+
+    private static final Object PERMITS_KEY = HostLimitingTransporterFactory.class.getName() + ".permits";
+
+    private final HttpTransporterFactory delegate = new HttpTransporterFactory();
+
+    @Override
+    public void initService(ServiceLocator locator) {
+        delegate.initService(locator);
+    }
+
+    @Override
+    public Transporter newInstance(RepositorySystemSession session, RemoteRepository repository)
+            throws NoTransporterException {
+        Transporter transporter = delegate.newInstance(session, repository);
+        int limit = ConfigUtils.getInteger(session, 0, CONFIG_PROP_TRANSFERS_PER_HOST);
+        if (limit <= 0) {
+            return transporter;
+        }
+
+        URI uri = URI.create(repository.getUrl());
+        String host = uri.getScheme() + "://" + uri.getHost() + ':' + uri.getPort();
+        Semaphore permits = getPermits(session.getData()).computeIfAbsent(host, key -> new Semaphore(limit, true));
+        return new HostLimitedTransporter(transporter, permits);
+    }
+
+    @Override
+    public float getPriority() {
+        return delegate.getPriority();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Semaphore> getPermits(SessionData data) {
+        Map<String, Semaphore> permits = (Map<String, Semaphore>) data.get(PERMITS_KEY);
+        if (permits == null) {
+            data.set(PERMITS_KEY, null, new ConcurrentHashMap<>());
+            permits = (Map<String, Semaphore>) data.get(PERMITS_KEY);
+        }
+        return permits;
+    }
+
+    /**
+     * a transfer waits for a permit of its host
+     */
+    private static final class HostLimitedTransporter implements Transporter {
+        private final Transporter delegate;
+        private final Semaphore permits;
+
+        HostLimitedTransporter(Transporter delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public int classify(Throwable error) {
+            return delegate.classify(error);
+        }
+
+        @Override
+        public void peek(PeekTask task) throws Exception {
+            permits.acquire();
+            try {
+                delegate.peek(task);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void get(GetTask task) throws Exception {
+            permits.acquire();
+            try {
+                delegate.get(task);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void put(PutTask task) throws Exception {
+            permits.acquire();
+            try {
+                delegate.put(task);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.impl.UpdateCheck;
+import org.eclipse.aether.internal.impl.DefaultUpdateCheckManager;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.transfer.MetadataTransferException;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * answer the metadata checks (versions of SNAPSHOTs and ranges) from the local repository for a configured
+ * number of minutes, whatever the update policy of the repository is.
+ * <p>
+ * the time of the last check of every metadata file and repository is kept by the resolver in the local
+ * repository (<code>resolver-status.properties</code>), so the window is shared by all the inspections using
+ * the same local repository. a metadata not found in a repository is not asked again within the window either,
+ * when the session caches the missing files. the artifacts are checked by the update policy.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class MetadataTtlUpdateCheckManager extends DefaultUpdateCheckManager {
+    /**
+     * minutes the metadata of the local repository is used without a remote check, the update policy of the
+     * repository if not positive
+     */
+    public static final String CONFIG_PROP_METADATA_TTL = MetadataTtlUpdateCheckManager.class.getName() + ".ttl";
+
+    @Override
+    public void checkMetadata(RepositorySystemSession session,
+                              UpdateCheck<Metadata, MetadataTransferException> check) {
+        int ttl = ConfigUtils.getInteger(session, 0, CONFIG_PROP_METADATA_TTL);
+        if (ttl > 0) {
+            check.setPolicy(RepositoryPolicy.UPDATE_POLICY_INTERVAL + ":" + ttl);
+        }
+        super.checkMetadata(session, check);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * order of the remote repositories an artifact is asked to. the repository that served an artifact last time
+ * (by groupId:artifactId) is asked first, the others are ordered by their expected cost: the smoothed latency
+ * of their transfers, raised by their smoothed error rate. a repository not seen yet is asked first, once.
+ * </p>
+ * <p>
+ * it listens to the transfers of the sessions it is set on, see {@link #CONFIG_KEY}. the routes and the scores
+ * can be kept in a file, so the next inspection starts with them. all the methods are thread-safe.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class RepositoryRouter extends AbstractTransferListener {
+    /**
+     * key of the router in the configuration properties of a session
+     */
+    public static final String CONFIG_KEY = RepositoryRouter.class.getName();
+
+    /**
+     * change it when the file format changes, the routes in the old file are dropped
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * weight of the newest sample in the smoothed latency and error rate
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * a failed transfer is retried somewhere else, it costs this many times the latency
+     */
+    private static final double ERROR_PENALTY = 4.0;
+
+    private final File file;
+
+    /**
+     * groupId:artifactId -> id of the repository that served it
+     */
+    private final Map<String, String> routes = new ConcurrentHashMap<>();
+
+    /**
+     * repository id -> score
+     */
+    private final Map<String, Score> scores = new ConcurrentHashMap<>();
+
+    private volatile boolean changed;
+
+    /**
+     * a router kept in memory only
+     */
+    public RepositoryRouter() {
+        this.file = null;
+    }
+
+    private RepositoryRouter(File file) {
+        this.file = file;
+    }
+
+    /**
+     * open the router kept in a file, the file is created by {@link #store()}
+     *
+     * @param file the file, an empty router if it doesn't exist or can't be read
+     * @return the router
+     */
+    public static RepositoryRouter open(File file) {
+        RepositoryRouter router = new RepositoryRouter(file);
+        if (!file.isFile()) {
+            return router;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return router;
+            }
+            int routeCount = in.readInt();
+            for (int i = 0; i < routeCount; i++) {
+                router.routes.put(in.readUTF(), in.readUTF());
+            }
+            int scoreCount = in.readInt();
+            for (int i = 0; i < scoreCount; i++) {
+                router.scores.put(in.readUTF(), new Score(in.readDouble(), in.readDouble()));
+            }
+        } catch (IOException e) {
+            log.warn("read repository routes {} failed, error message: {}", file, e.getMessage());
+            router.routes.clear();
+            router.scores.clear();
+        }
+        return router;
+    }
+
+    /**
+     * the repository that served every artifact, the artifacts are asked to it first
+     *
+     * @return repository id by groupId:artifactId, sorted
+     */
+    public SortedMap<String, String> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    /**
+     * get the router of a session
+     *
+     * @param session the session
+     * @return the router, null if not set
+     */
+    public static RepositoryRouter get(RepositorySystemSession session) {
+        Object router = session.getConfigProperties().get(CONFIG_KEY);
+        return router instanceof RepositoryRouter ? (RepositoryRouter) router : null;
+    }
+
+    /**
+     * order the repositories to ask for an artifact
+     *
+     * @param artifact     the artifact
+     * @param repositories repositories in the declared order
+     * @return the repositories to ask first, first
+     */
+    public List<RemoteRepository> route(Artifact artifact, List<RemoteRepository> repositories) {
+        if (repositories.size() < 2) {
+            return repositories;
+        }
+
+        String served = routes.get(key(artifact));
+        List<RemoteRepository> routed = new ArrayList<>(repositories);
+        // stable, repositories of the same cost keep the declared order
+        routed.sort(Comparator.comparingDouble(repository -> repository.getId().equals(served)
+                ? Double.NEGATIVE_INFINITY : cost(repository.getId())));
+        return routed;
+    }
+
+    /**
+     * record the repository an artifact is resolved from
+     *
+     * @param artifact   the artifact
+     * @param repository repository it is downloaded from, or its local copy was downloaded from
+     */
+    public void served(Artifact artifact, RemoteRepository repository) {
+        String previous = routes.put(key(artifact), repository.getId());
+        if (!repository.getId().equals(previous)) {
+            changed = true;
+        }
+    }
+
+    private double cost(String repositoryId) {
+        Score score = scores.get(repositoryId);
+        return score == null ? 0 : score.cost();
+    }
+
+    private static String key(Artifact artifact) {
+        return artifact.getGroupId() + ':' + artifact.getArtifactId();
+    }
+
+    @Override
+    public void transferSucceeded(TransferEvent event) {
+        record(event.getResource(), false);
+    }
+
+    @Override
+    public void transferFailed(TransferEvent event) {
+        // not found is a normal answer of a repository without the artifact
+        Exception exception = event.getException();
+        record(event.getResource(), !(exception instanceof ArtifactNotFoundException
+                || exception instanceof MetadataNotFoundException));
+    }
+
+    private void record(TransferResource resource, boolean failed) {
+        double latency = Math.max(0, System.currentTimeMillis() - resource.getTransferStartTime());
+        scores.computeIfAbsent(resource.getRepositoryId(), id -> new Score(Double.NaN, 0)).add(latency, failed);
+        changed = true;
+    }
+
+    /**
+     * write the routes and the scores to the file the router is opened from, nothing if they are not changed
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void store() throws IOException {
+        if (file == null || !changed) {
+            return;
+        }
+
+        Map<String, String> routesCopy = new HashMap<>(routes);
+        Map<String, Score> scoresCopy = new HashMap<>(scores);
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        File tempFile = new File(file.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(routesCopy.size());
+                for (Map.Entry<String, String> route : routesCopy.entrySet()) {
+                    out.writeUTF(route.getKey());
+                    out.writeUTF(route.getValue());
+                }
+                out.writeInt(scoresCopy.size());
+                for (Map.Entry<String, Score> score : scoresCopy.entrySet()) {
+                    double[] values = score.getValue().get();
+                    out.writeUTF(score.getKey());
+                    out.writeDouble(values[0]);
+                    out.writeDouble(values[1]);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            changed = false;
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * smoothed latency and error rate of a repository
+     */
+    private static final class Score {
+        private double latency;
+        private double errorRate;
+
+        Score(double latency, double errorRate) {
+            this.latency = latency;
+            this.errorRate = errorRate;
+        }
+
+        synchronized void add(double sampleLatency, boolean failed) {
+            latency = Double.isNaN(latency) ? sampleLatency : latency + SMOOTHING * (sampleLatency - latency);
+            errorRate += SMOOTHING * ((failed ? 1 : 0) - errorRate);
+        }
+
+        synchronized double cost() {
+            // at least one millisecond, a repository that only fails is not free
+            return Math.max(1, Double.isNaN(latency) ? 0 : latency) * (1 + ERROR_PENALTY * errorRate);
+        }
+
+        synchronized double[] get() {
+            return new double[]{latency, errorRate};
+        }
+    }
+}
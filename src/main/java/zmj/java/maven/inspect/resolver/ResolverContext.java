@@ -0,0 +1,62 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import zmj.java.maven.inspect.cache.LocalRepositoryIndex;
+
+import java.util.List;
+
+/**
+ * resolver objects shared by all the modules of one inspection.
+ * the repository system and the session are thread-safe, the session is read-only
+ * and holds a repository cache, so the artifact descriptors read by one module are reused by the others.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Getter
+@AllArgsConstructor
+public class ResolverContext {
+    /**
+     * key of this context: local repository and remote repositories
+     */
+    private final String key;
+
+    /**
+     * repository system, used to collect and resolve dependencies
+     */
+    private final RepositorySystem system;
+
+    /**
+     * session shared by all the resolve requests
+     */
+    private final RepositorySystemSession session;
+
+    /**
+     * remote repositories the dependencies are resolved from
+     */
+    private final List<RemoteRepository> repositories;
+
+    /**
+     * index of the local repository, null if not used
+     */
+    private final LocalRepositoryIndex localRepositoryIndex;
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.eclipse.aether.repository.WorkspaceReader;
+import zmj.java.maven.inspect.bean.ResolverOptionBean;
+import zmj.java.maven.inspect.bean.RemoteRepositoryMessageBean;
+import zmj.java.maven.inspect.util.DependencyUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * resolver contexts of one inspection, keyed by local repository and remote repositories.
+ * create one instance for each inspection, the contexts are not shared between inspections.
+ * all the contexts read the modules of the inspected project from the same workspace reader.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class ResolverContextCache {
+    private final Map<String, ResolverContext> contexts = new ConcurrentHashMap<>();
+
+    private final WorkspaceReader workspaceReader;
+
+    private final ResolverOptionBean options;
+
+    /**
+     * create the contexts of one inspection
+     *
+     * @param workspaceReader reader of the modules of the inspected project, can be null
+     */
+    public ResolverContextCache(WorkspaceReader workspaceReader) {
+        this(workspaceReader, new ResolverOptionBean());
+    }
+
+    /**
+     * create the contexts of one inspection
+     *
+     * @param workspaceReader reader of the modules of the inspected project, can be null
+     * @param options         how the dependencies are resolved
+     */
+    public ResolverContextCache(WorkspaceReader workspaceReader, ResolverOptionBean options) {
+        this.workspaceReader = workspaceReader;
+        this.options = options;
+    }
+
+    /**
+     * get the resolver context of the local repository and remote repositories, create it if not exist
+     *
+     * @param localRepo    local maven repository
+     * @param repositories remote maven repositories
+     * @return resolver context
+     */
+    public ResolverContext get(String localRepo, List<RemoteRepositoryMessageBean> repositories) {
+        return contexts.computeIfAbsent(key(localRepo, repositories),
+                key -> DependencyUtil.newResolverContext(key, localRepo, repositories,
+                        workspaceReader, options));
+    }
+
+    private static String key(String localRepo, List<RemoteRepositoryMessageBean> repositories) {
+        StringBuilder key = new StringBuilder(localRepo);
+        for (RemoteRepositoryMessageBean repository : repositories) {
+            key.append('|').append(repository.getId()).append('=').append(repository.getUrl())
+                    .append(repository.getReleasePolicy()).append(repository.getSnapshotPolicy());
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.internal.impl.DefaultArtifactResolver;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * artifact resolver asking the repositories in the order of the {@link RepositoryRouter} of the session,
+ * and telling it which repository served each artifact. the poms read for the dependency graph are resolved
+ * here too. without a router it is the default resolver.
+ * <p>
+ * the default resolver asks the repositories of a batch in the order they are first seen in the whole batch,
+ * so the requests are resolved in groups of the same first repository, each group asks it first.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class RoutingArtifactResolver extends DefaultArtifactResolver {
+    @Override
+    public List<ArtifactResult> resolveArtifacts(RepositorySystemSession session,
+                                                 Collection<? extends ArtifactRequest> requests)
+            throws ArtifactResolutionException {
+        RepositoryRouter router = RepositoryRouter.get(session);
+        if (router == null) {
+            return super.resolveArtifacts(session, requests);
+        }
+
+        // first repository id -> indexes of the requests asking it first, in the order of the requests
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        List<ArtifactRequest> routedRequests = new ArrayList<>(requests.size());
+        for (ArtifactRequest request : requests) {
+            List<RemoteRepository> repositories = router.route(request.getArtifact(), request.getRepositories());
+            request.setRepositories(repositories);
+            String first = repositories.isEmpty() ? "" : repositories.get(0).getId();
+            groups.computeIfAbsent(first, id -> new ArrayList<>()).add(routedRequests.size());
+            routedRequests.add(request);
+        }
+        if (groups.size() < 2) {
+            return resolve(session, router, routedRequests);
+        }
+
+        List<ArtifactResult> results = new ArrayList<>(Collections.nCopies(routedRequests.size(), null));
+        boolean failed = false;
+        for (List<Integer> group : groups.values()) {
+            List<ArtifactRequest> groupRequests = new ArrayList<>(group.size());
+            for (int index : group) {
+                groupRequests.add(routedRequests.get(index));
+            }
+            List<ArtifactResult> groupResults;
+            try {
+                groupResults = resolve(session, router, groupRequests);
+            } catch (ArtifactResolutionException e) {
+                groupResults = e.getResults();
+                failed = true;
+            }
+            for (int i = 0; i < group.size(); i++) {
+                results.set(group.get(i), groupResults.get(i));
+            }
+        }
+        if (failed) {
+            throw new ArtifactResolutionException(results);
+        }
+        return results;
+    }
+
+    private List<ArtifactResult> resolve(RepositorySystemSession session, RepositoryRouter router,
+                                         List<ArtifactRequest> requests) throws ArtifactResolutionException {
+        List<ArtifactResult> results;
+        try {
+            results = super.resolveArtifacts(session, requests);
+        } catch (ArtifactResolutionException e) {
+            served(router, e.getResults());
+            throw e;
+        }
+        served(router, results);
+        return results;
+    }
+
+    private static void served(RepositoryRouter router, List<ArtifactResult> results) {
+        for (ArtifactResult result : results) {
+            if (result.isResolved() && result.getRepository() instanceof RemoteRepository) {
+                router.served(result.getArtifact(), (RemoteRepository) result.getRepository());
+            }
+        }
+    }
+}
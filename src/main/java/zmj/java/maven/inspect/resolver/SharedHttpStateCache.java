@@ -0,0 +1,83 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * <p>
+ * cache of one resolver session. the state of the http transporter of the resolver (its pooled keep-alive
+ * connections) is kept in a cache shared by all the sessions of an inspection, so they share the connections.
+ * </p>
+ * <p>
+ * the other entries, the descriptors and version ranges of the dependency collector, are found again by
+ * artifact only, not by repository, so they stay in the session: a pom not found in the repositories of one
+ * module must not be missing for a module with other repositories.
+ * </p>
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class SharedHttpStateCache implements RepositoryCache {
+    /**
+     * key of the state in the session cache, see GlobalState of the http transporter of the resolver
+     */
+    private static final String HTTP_STATE_KEY = "org.eclipse.aether.transport.http.GlobalState";
+
+    private final DefaultRepositoryCache shared;
+
+    private final RepositoryCache cache = new DefaultRepositoryCache();
+
+    /**
+     * @param shared cache shared with the other sessions of the inspection
+     */
+    public SharedHttpStateCache(DefaultRepositoryCache shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * close the pooled http connections kept in the shared cache, when no session uses them any more
+     *
+     * @param shared cache shared by the sessions, it doesn't depend on the session it is asked with
+     * @throws IOException if the connections can't be closed
+     */
+    public static void closeHttpState(DefaultRepositoryCache shared) throws IOException {
+        Object httpState = shared.get(null, HTTP_STATE_KEY);
+        if (httpState instanceof Closeable) {
+            shared.put(null, HTTP_STATE_KEY, null);
+            ((Closeable) httpState).close();
+        }
+    }
+
+    @Override
+    public void put(RepositorySystemSession session, Object key, Object data) {
+        if (HTTP_STATE_KEY.equals(key)) {
+            shared.put(session, key, data);
+        } else {
+            cache.put(session, key, data);
+        }
+    }
+
+    @Override
+    public Object get(RepositorySystemSession session, Object key) {
+        return HTTP_STATE_KEY.equals(key) ? shared.get(session, key) : cache.get(session, key);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import zmj.java.maven.inspect.Main;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * application class data sharing archive of the inspection.
+ * <p>
+ * a training inspection runs in a new jvm which records the classes it loads and dumps them into a dynamic
+ * archive when it exits (java 13 or later). launches of the same inspection with and without the archive are
+ * timed after that, and the report is written next to the archive. the launcher uses the archive when it runs
+ * the java the archive was trained with, see {@link #getJavaFile(File)}.
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+@Slf4j
+public class ClassDataSharing {
+    /**
+     * the first java version which can dump the classes of custom class loaders (the maven home realm) at exit
+     */
+    private static final int MIN_JAVA_VERSION = 13;
+
+    private static final String CLASS_LIST_SUFFIX = ".classlist";
+    private static final String JAVA_FILE_SUFFIX = ".java";
+    private static final String REPORT_SUFFIX = ".report";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String SHARED_CLASS_SOURCE = "source: shared objects file";
+
+    /**
+     * options of this jvm which would conflict with the training or the timed launches
+     */
+    private static final List<String> EXCLUDED_JVM_ARGUMENTS = Arrays.asList("-XX:SharedArchiveFile",
+            "-XX:ArchiveClassesAtExit", "-XX:DumpLoadedClassList", "-Xshare", "-Xlog", "-agentlib:jdwp");
+
+    private final File archive;
+
+    private final String java;
+
+    private final String classPath;
+
+    private final List<String> jvmArguments = new ArrayList<>();
+
+    /**
+     * check the running java and class path can be archived
+     *
+     * @param archive archive file to write
+     * @throws MavenProjectInspectException if they can't
+     */
+    public ClassDataSharing(File archive) throws MavenProjectInspectException {
+        int javaVersion = getJavaVersion();
+        if (javaVersion < MIN_JAVA_VERSION) {
+            log.error("class data sharing of the application classes needs java {} or later, it's {}",
+                    MIN_JAVA_VERSION, javaVersion);
+            throw new MavenProjectInspectException("class data sharing is not supported by this java");
+        }
+
+        // only classes of jar files are archived
+        this.classPath = System.getProperty("java.class.path");
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (!new File(entry).isFile()) {
+                log.error("class path entry {} is not a jar file, use the jar of the inspection", entry);
+                throw new MavenProjectInspectException("class data sharing needs a class path of jar files");
+            }
+        }
+
+        this.archive = archive.getAbsoluteFile();
+        this.java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (EXCLUDED_JVM_ARGUMENTS.stream().noneMatch(argument::startsWith)) {
+                jvmArguments.add(argument);
+            }
+        }
+    }
+
+    /**
+     * file the launcher reads the java the archive was trained with from, an archive is only valid for its java
+     */
+    public static File getJavaFile(File archive) {
+        return new File(archive.getPath() + JAVA_FILE_SUFFIX);
+    }
+
+    private static int getJavaVersion() {
+        String version = System.getProperty("java.specification.version");
+        // 1.8 before java 9
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * run the training inspection and write the archive, the loaded class list and the java file
+     *
+     * @param arguments arguments of the inspection
+     * @throws MavenProjectInspectException if the archive can't be written
+     */
+    public void train(List<String> arguments) throws MavenProjectInspectException {
+        File tempArchive = new File(archive.getPath() + TEMP_SUFFIX);
+        File classList = new File(archive.getPath() + CLASS_LIST_SUFFIX);
+        try {
+            Files.createDirectories(archive.getAbsoluteFile().getParentFile().toPath());
+            Files.deleteIfExists(tempArchive.toPath());
+
+            List<String> command = newCommand(Arrays.asList("-XX:ArchiveClassesAtExit=" + tempArchive,
+                    "-XX:DumpLoadedClassList=" + classList), arguments);
+            log.info("training class data sharing archive {}", archive);
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0 || !tempArchive.isFile()) {
+                log.error("training inspection exited with {}, no archive is written", exitCode);
+                throw new MavenProjectInspectException("train class data sharing archive failed");
+            }
+
+            Files.move(tempArchive.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.write(getJavaFile(archive).toPath(), Collections.singletonList(
+                    new File(java).toPath().toRealPath().toString()), StandardCharsets.UTF_8);
+            log.info("class data sharing archive {} written, {} classes loaded by the training", archive,
+                    Files.readAllLines(classList.toPath(), StandardCharsets.UTF_8).size());
+        } catch (IOException e) {
+            log.error("write class data sharing archive {} failed, error message: {}", archive, e.getMessage());
+            throw new MavenProjectInspectException("train class data sharing archive failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MavenProjectInspectException("train class data sharing archive interrupted");
+        } finally {
+            tempArchive.delete();
+        }
+    }
+
+    /**
+     * time the inspection launched without and with the archive, one after the other
+     *
+     * @param arguments arguments of the inspection
+     * @param launches  launches of each kind
+     * @return lines of the report, also written next to the archive
+     * @throws MavenProjectInspectException if a launch fails
+     */
+    public List<String> report(List<String> arguments, int launches) throws MavenProjectInspectException {
+        List<Launch> cold = new ArrayList<>();
+        List<Launch> shared = new ArrayList<>();
+        for (int i = 0; i < launches; i++) {
+            log.info("timing launch {} of {}", i + 1, launches);
+            cold.add(launch(Collections.emptyList(), arguments));
+            shared.add(launch(Arrays.asList("-XX:SharedArchiveFile=" + archive, "-Xshare:auto"), arguments));
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-10s %8s %12s %10s %10s %10s %10s", "launch", "runs",
+                "median(ms)", "min(ms)", "max(ms)", "classes", "shared"));
+        long coldMedian = addLine(lines, "cold", cold);
+        long sharedMedian = addLine(lines, "cds", shared);
+        lines.add(String.format(Locale.ROOT, "%-10s %8s %12d %10s", "saved", "", coldMedian - sharedMedian,
+                coldMedian == 0 ? "" : String.format(Locale.ROOT, "%.1f%%",
+                        100.0 * (coldMedian - sharedMedian) / coldMedian)));
+
+        try {
+            Files.write(new File(archive.getPath() + REPORT_SUFFIX).toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("write class data sharing report failed, error message: {}", e.getMessage());
+        }
+        return lines;
+    }
+
+    private static long addLine(List<String> lines, String name, List<Launch> launches) {
+        long[] millis = launches.stream().mapToLong(launch -> launch.millis).sorted().toArray();
+        long median = millis[millis.length / 2];
+        Launch last = launches.get(launches.size() - 1);
+        lines.add(String.format(Locale.ROOT, "%-10s %8d %12d %10d %10d %10d %10d", name, millis.length, median,
+                millis[0], millis[millis.length - 1], last.classes, last.sharedClasses));
+        return median;
+    }
+
+    private Launch launch(List<String> options, List<String> arguments) throws MavenProjectInspectException {
+        File classLog = null;
+        File output = null;
+        try {
+            classLog = File.createTempFile("inspect-classes", ".log");
+            output = File.createTempFile("inspect-output", ".log");
+            List<String> jvmOptions = new ArrayList<>(options);
+            jvmOptions.add("-Xlog:class+load=info:file=" + classLog);
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(newCommand(jvmOptions, arguments)).redirectErrorStream(true)
+                    .redirectOutput(output).start();
+            int exitCode = process.waitFor();
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (exitCode != 0) {
+                log.error("timed inspection exited with {}, output in {}", exitCode, output);
+                output = null;
+                throw new MavenProjectInspectException("timed inspection failed");
+            }
+
+            Launch launch = new Launch(millis);
+            try (BufferedReader reader = Files.newBufferedReader(classLog.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    launch.classes++;
+                    if (line.contains(SHARED_CLASS_SOURCE)) {
+                        launch.sharedClasses++;
+                    }
+                }
+            }
+            return launch;
+        } catch (IOException e) {
+            log.error("launch timed inspection failed, error message: {}", e.getMessage());
+            throw new MavenProjectInspectException("timed inspection failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MavenProjectInspectException("timed inspection interrupted");
+        } finally {
+            if (classLog != null) {
+                classLog.delete();
+            }
+            if (output != null) {
+                output.delete();
+            }
+        }
+    }
+
+    private List<String> newCommand(List<String> options, List<String> arguments) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmArguments);
+        command.addAll(options);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(Main.class.getName());
+        command.addAll(arguments);
+        return command;
+    }
+
+    /**
+     * wall time of a launch, and the classes it loaded
+     */
+    private static final class Launch {
+        private final long millis;
+        private int classes;
+        private int sharedClasses;
+
+        Launch(long millis) {
+            this.millis = millis;
+        }
+    }
+}
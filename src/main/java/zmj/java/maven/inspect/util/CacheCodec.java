@@ -0,0 +1,132 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * file format and hashing shared by the caches kept on disk, those of the containers included
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public final class CacheCodec {
+    private CacheCodec() {
+        // no op only to prevent construction
+    }
+
+    /**
+     * writes the content of a cache file
+     */
+    public interface CacheWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public static DataInputStream openInput(File file) throws IOException {
+        return new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))));
+    }
+
+    /**
+     * write to a temporary file first, a reader never sees a half written file
+     */
+    public static void writeAtomically(File file, CacheWriter writer) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))))) {
+                writer.write(out);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    public static void updateFile(MessageDigest digest, File file) throws IOException {
+        update(digest, file.getAbsolutePath());
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * like {@link #updateFile(MessageDigest, File)}, a missing file has its own hash
+     */
+    public static void updateOptionalFile(MessageDigest digest, File file) throws IOException {
+        if (file.isFile()) {
+            updateFile(digest, file);
+        } else {
+            update(digest, file.getAbsolutePath());
+            update(digest, "missing");
+        }
+    }
+
+    /**
+     * name, length and modification time of the jar files of a directory, sorted by name. the maven version,
+     * without loading any class from the installation
+     */
+    public static void updateJars(MessageDigest digest, File directory) {
+        File[] jarFiles = directory.listFiles((dir, name) -> name.endsWith(".jar"));
+        if (jarFiles != null) {
+            Arrays.sort(jarFiles);
+            for (File jarFile : jarFiles) {
+                update(digest, jarFile.getName() + ":" + jarFile.length() + ":" + jarFile.lastModified());
+            }
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -15,29 +15,67 @@
  */
 package zmj.java.maven.inspect.util;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.RepositoryUtils;
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
 import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryEvent.EventType;
+import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.ArtifactTypeRegistry;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
 import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
 import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.impl.ArtifactResolver;
 import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.impl.UpdateCheckManager;
 import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.LocalRepositoryManager;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.WorkspaceReader;
 import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyRequest;
 import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.eclipse.aether.resolution.DependencyResult;
+import org.eclipse.aether.resolution.VersionRequest;
+import org.eclipse.aether.resolution.VersionResolutionException;
 import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
 import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
 import org.eclipse.aether.transport.file.FileTransporterFactory;
-import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.util.graph.visitor.PreorderNodeListGenerator;
+import org.eclipse.aether.util.repository.SimpleArtifactDescriptorPolicy;
+import org.eclipse.aether.util.repository.SimpleResolutionErrorPolicy;
 import zmj.java.maven.inspect.bean.RemoteRepositoryMessageBean;
+import zmj.java.maven.inspect.bean.ResolverOptionBean;
+import zmj.java.maven.inspect.cache.LocalRepositoryIndex;
+import zmj.java.maven.inspect.resolver.CachingArtifactDescriptorReader;
+import zmj.java.maven.inspect.resolver.HostLimitingTransporterFactory;
+import zmj.java.maven.inspect.resolver.MetadataTtlUpdateCheckManager;
+import zmj.java.maven.inspect.resolver.RepositoryRouter;
+import zmj.java.maven.inspect.resolver.ResolverContext;
+import zmj.java.maven.inspect.resolver.RoutingArtifactResolver;
+import zmj.java.maven.inspect.resolver.SharedHttpStateCache;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * get transitive dependency information of the exact dependency
@@ -46,7 +84,18 @@ import java.util.Collections;
  * @author zhang maijun
  * @since 2020/08/22
  */
+@Slf4j
 public class DependencyUtil {
+    /**
+     * type of the local repository manager that doesn't track the origin of the files
+     */
+    private static final String SIMPLE_LOCAL_REPOSITORY = "simple";
+
+    /**
+     * threads of the basic connector, the artifacts of a request are downloaded concurrently by them
+     */
+    private static final String CONFIG_PROP_DOWNLOAD_THREADS = "aether.connector.basic.threads";
+
     /**
      * get transitive dependency information of the exact dependency
      *
@@ -55,16 +104,28 @@ public class DependencyUtil {
      * @param localRepo                   local maven repository
      * @return transitive dependency
      * @throws ArtifactDescriptorException
+     * @deprecated builds a new repository system for every call,
+     * use {@link #getDependencies(ResolverContext, String, String)} instead
      */
+    @Deprecated
     public static DependencyResult getDependencies(RemoteRepositoryMessageBean remoteRepositoryMessageBean,
                                                    String projectId, String localRepo, String scope) throws DependencyResolutionException {
-        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
-        RepositorySystem system = newRepositorySystem(locator);
-        RepositorySystemSession session = newSession(system, localRepo);
-
-        RemoteRepository central = new RemoteRepository.Builder(remoteRepositoryMessageBean.getId(),
-                remoteRepositoryMessageBean.getType(), remoteRepositoryMessageBean.getUrl()).build();
+        ResolverContext context = newResolverContext(localRepo, localRepo,
+                Collections.singletonList(remoteRepositoryMessageBean), null, new ResolverOptionBean());
+        return getDependencies(context, projectId, scope);
+    }
 
+    /**
+     * get transitive dependency information of the exact dependency
+     *
+     * @param context   resolver context shared by the inspection
+     * @param projectId groupId:artifactId:version project id
+     * @param scope     scope of the dependency
+     * @return transitive dependency
+     * @throws DependencyResolutionException
+     */
+    public static DependencyResult getDependencies(ResolverContext context, String projectId, String scope)
+            throws DependencyResolutionException {
         Artifact artifact = new DefaultArtifact(projectId);
         // ArtifactDescriptorRequest request = new ArtifactDescriptorRequest(artifact, Arrays.asList(central), null);
         // ArtifactDescriptorResult result = system.readArtifactDescriptor(session, request);
@@ -72,24 +133,291 @@ public class DependencyUtil {
         // resolved artifact, used to get the path of artifact in the local repository
         CollectRequest collectRequest = new CollectRequest();
         collectRequest.setRoot(new Dependency(artifact, scope));
-        collectRequest.setRepositories(Collections.singletonList(central));
+        collectRequest.setRepositories(context.getRepositories());
+        return resolve(context, collectRequest);
+    }
+
+    /**
+     * get the flattened classpath of a maven module.
+     * all the direct dependencies are collected as siblings in one graph, so shared transitive dependencies
+     * are collected only once and version conflicts are mediated the same way as maven does.
+     *
+     * @param context               resolver context shared by the inspection
+     * @param dependencies          direct dependencies of the module
+     * @param managedDependencies   dependency management of the module
+     * @return transitive dependency of all the direct dependencies
+     * @throws DependencyResolutionException
+     */
+    public static DependencyResult getModuleDependencies(ResolverContext context,
+                                                         List<org.apache.maven.model.Dependency> dependencies,
+                                                         List<org.apache.maven.model.Dependency> managedDependencies)
+            throws DependencyResolutionException {
+        ArtifactTypeRegistry typeRegistry = context.getSession().getArtifactTypeRegistry();
+
+        CollectRequest collectRequest = new CollectRequest();
+        for (org.apache.maven.model.Dependency dependency : dependencies) {
+            collectRequest.addDependency(RepositoryUtils.toDependency(dependency, typeRegistry));
+        }
+        if (managedDependencies != null) {
+            for (org.apache.maven.model.Dependency dependency : managedDependencies) {
+                collectRequest.addManagedDependency(RepositoryUtils.toDependency(dependency, typeRegistry));
+            }
+        }
+        collectRequest.setRepositories(context.getRepositories());
+        return resolve(context, collectRequest);
+    }
+
+    private static DependencyResult resolve(ResolverContext context, CollectRequest collectRequest)
+            throws DependencyResolutionException {
         DependencyRequest dependencyRequest = new DependencyRequest(collectRequest, null);
-        DependencyResult result = system.resolveDependencies(session, dependencyRequest);
+        if (context.getSession().isOffline()) {
+            return resolveOffline(context, dependencyRequest);
+        }
+        return context.getSystem().resolveDependencies(context.getSession(), dependencyRequest);
+    }
 
+    /**
+     * collect the dependency graph, then take the artifact files straight from the local repository layout,
+     * without the artifact resolver. stop at the first file not in the local repository.
+     */
+    private static DependencyResult resolveOffline(ResolverContext context, DependencyRequest dependencyRequest)
+            throws DependencyResolutionException {
+        RepositorySystemSession session = context.getSession();
+        DependencyResult result = new DependencyResult(dependencyRequest);
+        try {
+            CollectResult collectResult = context.getSystem().collectDependencies(session,
+                    dependencyRequest.getCollectRequest());
+            result.setRoot(collectResult.getRoot());
+        } catch (DependencyCollectionException e) {
+            result.setRoot(e.getResult().getRoot());
+            result.setCollectExceptions(e.getResult().getExceptions());
+            throw new DependencyResolutionException(result, e);
+        }
+
+        PreorderNodeListGenerator nodes = new PreorderNodeListGenerator();
+        result.getRoot().accept(nodes);
+        List<ArtifactResult> artifactResults = new ArrayList<>();
+        for (DependencyNode node : nodes.getNodes()) {
+            if (node.getDependency() == null) {
+                continue;
+            }
+
+            ArtifactResult artifactResult = new ArtifactResult(new ArtifactRequest(node));
+            artifactResults.add(artifactResult);
+            Artifact artifact = node.getArtifact();
+            File file = null;
+            try {
+                // the timestamp of a SNAPSHOT, read from the metadata in the local repository
+                if (artifact.isSnapshot() && artifact.getFile() == null) {
+                    VersionRequest versionRequest = new VersionRequest(artifact, node.getRepositories(),
+                            node.getRequestContext());
+                    artifact = artifact.setVersion(context.getSystem().resolveVersion(session, versionRequest)
+                            .getVersion());
+                }
+                file = findOfflineFile(session, context.getLocalRepositoryIndex(), artifact);
+            } catch (VersionResolutionException e) {
+                artifactResult.addException(e);
+            }
+            if (file == null) {
+                ArtifactNotFoundException exception = new ArtifactNotFoundException(artifact, null,
+                        "The artifact " + artifact + " is not in the local repository "
+                                + session.getLocalRepository().getBasedir() + ", can't download it in offline mode");
+                artifactResult.addException(exception);
+                result.setArtifactResults(artifactResults);
+                throw new DependencyResolutionException(result, exception);
+            }
+
+            artifact = artifact.setFile(file);
+            node.setArtifact(artifact);
+            artifactResult.setArtifact(artifact);
+            artifactResult.setRepository(session.getLocalRepository());
+
+            // the same event as the artifact resolver sends for a file found in the local repository
+            RepositoryListener listener = session.getRepositoryListener();
+            if (listener != null) {
+                listener.artifactResolved(new RepositoryEvent.Builder(session, EventType.ARTIFACT_RESOLVED)
+                        .setArtifact(artifact).setRepository(session.getLocalRepository()).setFile(file).build());
+            }
+        }
+        result.setArtifactResults(artifactResults);
         return result;
     }
 
+    private static File findOfflineFile(RepositorySystemSession session, LocalRepositoryIndex index,
+                                        Artifact artifact) {
+        if (artifact.getFile() != null) {
+            return artifact.getFile();
+        }
+
+        // system scope
+        String localPath = artifact.getProperty(ArtifactProperties.LOCAL_PATH, null);
+        if (localPath != null) {
+            File file = new File(localPath);
+            return file.isFile() ? file : null;
+        }
+
+        // modules of the inspected project
+        WorkspaceReader workspaceReader = session.getWorkspaceReader();
+        if (workspaceReader != null) {
+            File file = workspaceReader.findArtifact(artifact);
+            if (file != null) {
+                return file;
+            }
+        }
+
+        // a timestamped SNAPSHOT is also copied without the timestamp in the file name,
+        // that copy is the file the artifact resolver gives
+        LocalRepositoryManager manager = session.getLocalRepositoryManager();
+        File baseDir = manager.getRepository().getBasedir();
+        if (artifact.isSnapshot() && !artifact.getVersion().equals(artifact.getBaseVersion())) {
+            File file = new File(baseDir, manager.getPathForLocalArtifact(artifact.setVersion(
+                    artifact.getBaseVersion())));
+            if (isFile(index, file)) {
+                return file;
+            }
+        }
+
+        File file = new File(baseDir, manager.getPathForLocalArtifact(artifact));
+        return isFile(index, file) ? file : null;
+    }
+
+    private static boolean isFile(LocalRepositoryIndex index, File file) {
+        return index == null ? file.isFile() : index.isFile(file);
+    }
+
+    /**
+     * create the session once, it will be shared by all the resolve requests of an inspection
+     *
+     * @param key             key of the context
+     * @param localRepo       local maven repository
+     * @param repositories    remote maven repositories
+     * @param workspaceReader reader of the modules of the inspected project, consulted before any repository,
+     *                        can be null
+     * @param options         how the dependencies are resolved. offline, the artifact files are taken from the
+     *                        local repository layout (or its index) without the artifact resolver
+     * @return resolver context
+     */
+    public static ResolverContext newResolverContext(String key, String localRepo,
+                                                     List<RemoteRepositoryMessageBean> repositories,
+                                                     WorkspaceReader workspaceReader, ResolverOptionBean options) {
+        RepositorySystem system = RepositorySystemHolder.SYSTEM;
+        RepositorySystemSession session = newSession(system, localRepo, workspaceReader, options);
+
+        // repositories of the dependency poms are mirrored by the resolver, these ones are mirrored here.
+        // several repositories may have the same mirror, it is asked once
+        Map<String, RemoteRepository> remoteRepositories = new LinkedHashMap<>();
+        for (RemoteRepositoryMessageBean repository : repositories) {
+            RemoteRepository remoteRepository = new RemoteRepository.Builder(repository.getId(),
+                    repository.getType(), repository.getUrl()).setReleasePolicy(repository.getReleasePolicy())
+                    .setSnapshotPolicy(repository.getSnapshotPolicy()).build();
+            RemoteRepository mirror = session.getMirrorSelector().getMirror(remoteRepository);
+            if (mirror != null) {
+                remoteRepository = mirror;
+            }
+            remoteRepositories.putIfAbsent(remoteRepository.getId(), remoteRepository);
+        }
+
+        return new ResolverContext(key, system, session,
+                Collections.unmodifiableList(new ArrayList<>(remoteRepositories.values())),
+                options.getLocalRepositoryIndex());
+    }
+
+    /**
+     * close the pooled http connections kept in the cache shared by the sessions, when no session uses them
+     * any more
+     *
+     * @param sharedCache cache shared by the sessions of an inspection
+     */
+    public static void closeSharedCache(DefaultRepositoryCache sharedCache) {
+        try {
+            SharedHttpStateCache.closeHttpState(sharedCache);
+        } catch (IOException e) {
+            log.debug("close http connections failed, error message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * the repository system has no state of an inspection, one instance is shared by the whole jvm,
+     * created when it is used the first time
+     */
+    private static class RepositorySystemHolder {
+        private static final RepositorySystem SYSTEM =
+                newRepositorySystem(MavenRepositorySystemUtils.newServiceLocator());
+    }
+
     private static RepositorySystem newRepositorySystem(DefaultServiceLocator locator) {
         locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
         locator.addService(TransporterFactory.class, FileTransporterFactory.class);
-        locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+        locator.addService(TransporterFactory.class, HostLimitingTransporterFactory.class);
+        locator.setService(ArtifactDescriptorReader.class, CachingArtifactDescriptorReader.class);
+        locator.setService(ArtifactResolver.class, RoutingArtifactResolver.class);
+        locator.setService(UpdateCheckManager.class, MetadataTtlUpdateCheckManager.class);
         return locator.getService(RepositorySystem.class);
     }
 
-    private static RepositorySystemSession newSession(RepositorySystem system, String localRepo) {
+    private static RepositorySystemSession newSession(RepositorySystem system, String localRepo,
+                                                      WorkspaceReader workspaceReader, ResolverOptionBean options) {
         DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
-        LocalRepository localRepository = new LocalRepository(localRepo);
+        LocalRepository localRepository;
+        if (options.isOffline()) {
+            // the simple layout doesn't check which repository a file was downloaded from (_remote.repositories)
+            localRepository = new LocalRepository(new File(localRepo), SIMPLE_LOCAL_REPOSITORY);
+            session.setOffline(true);
+            // a missing pom is an error, not an artifact without dependencies
+            session.setArtifactDescriptorPolicy(new SimpleArtifactDescriptorPolicy(false, true));
+        } else {
+            localRepository = new LocalRepository(localRepo);
+            applyRemoteCheckPolicies(session, options);
+        }
         session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, localRepository));
+
+        // modules of the inspected project are never looked up in the local or remote repository
+        session.setWorkspaceReader(workspaceReader);
+
+        // artifact descriptors and resolved artifacts are kept here, shared by all the modules,
+        // the http connections are shared with the other sessions of the inspection
+        session.setCache(options.getSharedCache() == null ? new DefaultRepositoryCache()
+                : new SharedHttpStateCache(options.getSharedCache()));
+
+        // limits are shared with the other sessions of the inspection
+        if (options.getSessionData() != null) {
+            session.setData(options.getSessionData());
+        }
+        if (options.getDownloadThreads() > 0) {
+            session.setConfigProperty(CONFIG_PROP_DOWNLOAD_THREADS, options.getDownloadThreads());
+        }
+        if (options.getDownloadsPerHost() > 0) {
+            session.setConfigProperty(HostLimitingTransporterFactory.CONFIG_PROP_TRANSFERS_PER_HOST,
+                    options.getDownloadsPerHost());
+        }
+
+        session.setRepositoryListener(options.getRepositoryListener());
+        session.setTransferListener(options.getTransferListener());
+        if (options.getMirrorSelector() != null) {
+            session.setMirrorSelector(options.getMirrorSelector());
+        }
+        if (options.getRepositoryRouter() != null) {
+            session.setConfigProperty(RepositoryRouter.CONFIG_KEY, options.getRepositoryRouter());
+        }
+
+        // the session is shared between threads, nothing should change it any more
+        session.setReadOnly();
         return session;
     }
+
+    /**
+     * when the remote repositories are asked again for what the local repository already has
+     */
+    private static void applyRemoteCheckPolicies(DefaultRepositorySystemSession session,
+                                                 ResolverOptionBean options) {
+        // null keeps the policies of the repositories
+        session.setUpdatePolicy(options.getUpdatePolicy());
+        session.setChecksumPolicy(options.getChecksumPolicy());
+        // like maven: a file not found is not asked for again before the next update check, a failed transfer is
+        session.setResolutionErrorPolicy(new SimpleResolutionErrorPolicy(true, false));
+        if (options.getMetadataTtl() > 0) {
+            session.setConfigProperty(MetadataTtlUpdateCheckManager.CONFIG_PROP_METADATA_TTL,
+                    options.getMetadataTtl());
+        }
+    }
 }
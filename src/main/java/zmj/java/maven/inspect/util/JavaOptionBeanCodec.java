@@ -0,0 +1,138 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.util;
+
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * binary form of JavaOptionBean, used by the caches on disk and between the daemon and its client
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class JavaOptionBeanCodec {
+    /**
+     * write all the modules, with the count first
+     *
+     * @param out         output
+     * @param optionBeans the modules
+     * @throws IOException
+     */
+    public static void writeAll(DataOutputStream out, List<JavaOptionBean> optionBeans) throws IOException {
+        out.writeInt(optionBeans.size());
+        for (JavaOptionBean optionBean : optionBeans) {
+            write(out, optionBean);
+        }
+    }
+
+    /**
+     * read all the modules written by {@link #writeAll(DataOutputStream, List)}
+     *
+     * @param in input
+     * @return the modules
+     * @throws IOException
+     */
+    public static List<JavaOptionBean> readAll(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<JavaOptionBean> optionBeans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            optionBeans.add(read(in));
+        }
+        return optionBeans;
+    }
+
+    public static void write(DataOutputStream out, JavaOptionBean optionBean) throws IOException {
+        writeString(out, optionBean.getProjectId());
+        writeString(out, optionBean.getSource());
+        writeString(out, optionBean.getEncoding());
+        out.writeInt(optionBean.getSourcePaths().size());
+        for (String sourcePath : optionBean.getSourcePaths()) {
+            writeString(out, sourcePath);
+        }
+        writeString(out, optionBean.getTestSourcePath());
+        writeString(out, optionBean.getOutputPath());
+        writeString(out, optionBean.getTestOutputPath());
+        out.writeInt(optionBean.getDependencyBeans().size());
+        for (DependencyBean dependencyBean : optionBean.getDependencyBeans()) {
+            writeString(out, dependencyBean.getGroupId());
+            writeString(out, dependencyBean.getArtifactId());
+            writeString(out, dependencyBean.getVersion());
+            writeString(out, dependencyBean.getScope());
+            writeString(out, dependencyBean.getFilePath());
+        }
+        out.writeBoolean(optionBean.isResolved());
+    }
+
+    public static JavaOptionBean read(DataInputStream in) throws IOException {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId(readString(in));
+        optionBean.setSource(readString(in));
+        optionBean.setEncoding(readString(in));
+        int sourcePathCount = in.readInt();
+        Set<String> sourcePaths = new HashSet<>();
+        for (int i = 0; i < sourcePathCount; i++) {
+            sourcePaths.add(readString(in));
+        }
+        optionBean.setSourcePaths(sourcePaths);
+        optionBean.setTestSourcePath(readString(in));
+        optionBean.setOutputPath(readString(in));
+        optionBean.setTestOutputPath(readString(in));
+        int dependencyCount = in.readInt();
+        Set<DependencyBean> dependencyBeans = new LinkedHashSet<>();
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencyBeans.add(new DependencyBean(readString(in), readString(in), readString(in), readString(in),
+                    readString(in)));
+        }
+        optionBean.setDependencyBeans(dependencyBeans);
+        optionBean.setResolved(in.readBoolean());
+        return optionBean;
+    }
+
+    /**
+     * write a string that can be null
+     *
+     * @param out   output
+     * @param value the string
+     * @throws IOException
+     */
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * read a string written by {@link #writeString(DataOutputStream, String)}
+     *
+     * @param in input
+     * @return the string, can be null
+     * @throws IOException
+     */
+    public static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -30,9 +30,13 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -60,30 +64,23 @@ public class MavenProjectUtil {
     }
 
     /**
-     * insert all maven modules to a list, contains the sub module of this project
+     * insert all maven modules to a list, contains the sub module of this project.
+     * all the pom files are read by one maven embedder, the sub modules of a module are read at the same time.
      *
      * @param project   MavenProject
      * @param localRepo the local maven repository
-     * @return List of all maven modules
+     * @return List of all maven modules, a module is always before its sub modules
      */
     public static List<MavenProject> getAllSubProjects(MavenProject project, String localRepo) {
-        List<MavenProject> projects = new ArrayList<>();
-        addAllSubProjectsToList(projects, project, localRepo);
-        return projects;
-    }
-
-    private static void addAllSubProjectsToList(List<MavenProject> projects, MavenProject project, String localRepo) {
-        projects.add(project);
-
         if (!isParent(project)) {
-            return;
+            return new ArrayList<>(Collections.singletonList(project));
         }
 
-        List<MavenProject> subProjects = getSubProjects(project, localRepo);
-        if (CollectionUtils.isNotEmpty(subProjects)) {
-            for (MavenProject subProject : subProjects) {
-                addAllSubProjectsToList(projects, subProject, localRepo);
-            }
+        try (MavenEmbedder mavenEmbedder = newMavenEmbedder(localRepo)) {
+            return ForkJoinPool.commonPool().invoke(new ModuleTask(mavenEmbedder, project));
+        } catch (MavenEmbedderException e) {
+            log.warn("start maven embedder failed, we will skip all the sub modules, message: {}", e.getMessage());
+            return new ArrayList<>(Collections.singletonList(project));
         }
     }
 
@@ -95,7 +92,32 @@ public class MavenProjectUtil {
      * @return all sub modules of current MavenProject
      */
     public static List<MavenProject> getSubProjects(MavenProject project, String localRepo) {
-        List<MavenProject> projects = new ArrayList<>();
+        List<File> subPoms = getSubPomFiles(project);
+        if (subPoms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try (MavenEmbedder mavenEmbedder = newMavenEmbedder(localRepo)) {
+            List<ModuleTask> tasks = new ArrayList<>(subPoms.size());
+            for (File subPom : subPoms) {
+                tasks.add(new ModuleTask(mavenEmbedder, subPom, project, false));
+            }
+            List<MavenProject> projects = new ArrayList<>(subPoms.size());
+            for (ModuleTask task : ForkJoinTask.invokeAll(tasks)) {
+                projects.addAll(task.join());
+            }
+            return projects;
+        } catch (MavenEmbedderException e) {
+            log.warn("start maven embedder failed, we will skip all the sub modules, message: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * pom files of the sub modules, in the order of the modules
+     */
+    private static List<File> getSubPomFiles(MavenProject project) {
+        List<File> subPoms = new ArrayList<>();
 
         File baseDir = project.getBasedir();
         List<String> modules = project.getModules();
@@ -104,19 +126,16 @@ public class MavenProjectUtil {
             File subPom = new File(subDir, POM_FILE_NAME);
             if (subPom.exists() && subPom.isFile()) {
                 try {
-                    String pomPath = subPom.getCanonicalPath();
-                    projects.add(getMavenProject(pomPath, localRepo, project));
+                    subPoms.add(subPom.getCanonicalFile());
                 } catch (IOException e) {
                     log.warn("get pom file failed, we will skip this module, message: {}", e.getMessage());
-                } catch (ProjectBuildingException | MavenEmbedderException e) {
-                    log.warn("parse pom file failed, we will skip this module, message: {}", e.getMessage());
                 }
             } else {
                 log.warn("there is no pom.xml in module {}, we will skip this module", module);
             }
         }
 
-        return projects;
+        return subPoms;
     }
 
     /**
@@ -131,13 +150,14 @@ public class MavenProjectUtil {
      */
     public static MavenProject getMavenProject(String pomFile, String localRepo, MavenProject parent)
             throws MavenEmbedderException, ProjectBuildingException {
-        MavenRequest mavenRequest = new MavenRequest();
-        mavenRequest.setPom(pomFile);
-        mavenRequest.setLocalRepositoryPath(localRepo);
-
-        MavenEmbedder mavenEmbedder = new MavenEmbedder(Thread.currentThread().getContextClassLoader(), mavenRequest);
+        try (MavenEmbedder mavenEmbedder = newMavenEmbedder(localRepo)) {
+            return getMavenProject(mavenEmbedder, new File(pomFile), parent);
+        }
+    }
 
-        MavenProject project = mavenEmbedder.readProject(new File(pomFile));
+    private static MavenProject getMavenProject(MavenEmbedder mavenEmbedder, File pomFile, MavenProject parent)
+            throws MavenEmbedderException, ProjectBuildingException {
+        MavenProject project = mavenEmbedder.readProject(pomFile);
 
         if (parent != null) {
             project.setParent(parent);
@@ -146,6 +166,69 @@ public class MavenProjectUtil {
         return project;
     }
 
+    private static MavenEmbedder newMavenEmbedder(String localRepo) throws MavenEmbedderException {
+        MavenRequest mavenRequest = new MavenRequest();
+        mavenRequest.setLocalRepositoryPath(localRepo);
+
+        return new MavenEmbedder(Thread.currentThread().getContextClassLoader(), mavenRequest);
+    }
+
+    /**
+     * read a module and, recursively, all its sub modules. the sub modules of one module are read in parallel,
+     * the result keeps the order of the modules.
+     */
+    private static final class ModuleTask extends RecursiveTask<List<MavenProject>> {
+        private static final long serialVersionUID = 1L;
+
+        private final MavenEmbedder mavenEmbedder;
+        private final File pomFile;
+        private final MavenProject parent;
+        private final boolean recursive;
+        private MavenProject project;
+
+        /**
+         * the module is already read, only read its sub modules
+         */
+        ModuleTask(MavenEmbedder mavenEmbedder, MavenProject project) {
+            this(mavenEmbedder, null, null, true);
+            this.project = project;
+        }
+
+        ModuleTask(MavenEmbedder mavenEmbedder, File pomFile, MavenProject parent, boolean recursive) {
+            this.mavenEmbedder = mavenEmbedder;
+            this.pomFile = pomFile;
+            this.parent = parent;
+            this.recursive = recursive;
+        }
+
+        @Override
+        protected List<MavenProject> compute() {
+            if (project == null) {
+                try {
+                    project = getMavenProject(mavenEmbedder, pomFile, parent);
+                } catch (ProjectBuildingException | MavenEmbedderException e) {
+                    log.warn("parse pom file failed, we will skip this module, message: {}", e.getMessage());
+                    return Collections.emptyList();
+                }
+            }
+
+            List<MavenProject> projects = new ArrayList<>();
+            projects.add(project);
+            if (!recursive || !isParent(project)) {
+                return projects;
+            }
+
+            List<ModuleTask> subTasks = new ArrayList<>();
+            for (File subPom : getSubPomFiles(project)) {
+                subTasks.add(new ModuleTask(mavenEmbedder, subPom, project, true));
+            }
+            for (ModuleTask subTask : invokeAll(subTasks)) {
+                projects.addAll(subTask.join());
+            }
+            return projects;
+        }
+    }
+
     /**
      * get all source paths of current module
      *
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.util;
+
+import org.eclipse.aether.repository.RepositoryPolicy;
+import zmj.java.maven.inspect.constant.Constants;
+
+/**
+ * checks of the option values, the same for the command line and the daemon requests
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class OptionUtil {
+    /**
+     * @param option       name of the option
+     * @param value        value of the option, can be null
+     * @param defaultValue returned if the value is null
+     * @return the number
+     * @throws IllegalArgumentException if the value is not a positive number
+     */
+    public static int getPositiveNumber(String option, String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // report below
+        }
+        throw new IllegalArgumentException(option + " should be a positive number");
+    }
+
+    /**
+     * @param value update policy, can be null
+     * @return the update policy
+     * @throws IllegalArgumentException if the value is not never, daily, always or interval:minutes
+     */
+    public static String getUpdatePolicy(String value) {
+        if (value == null || RepositoryPolicy.UPDATE_POLICY_NEVER.equals(value)
+                || RepositoryPolicy.UPDATE_POLICY_DAILY.equals(value)
+                || RepositoryPolicy.UPDATE_POLICY_ALWAYS.equals(value)) {
+            return value;
+        }
+
+        String prefix = RepositoryPolicy.UPDATE_POLICY_INTERVAL + ":";
+        if (value.startsWith(prefix)) {
+            try {
+                if (Integer.parseInt(value.substring(prefix.length())) > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // report below
+            }
+        }
+        throw new IllegalArgumentException(Constants.OPTION_UPDATE_POLICY
+                + " should be never, daily, always or interval:minutes");
+    }
+
+    /**
+     * @param value checksum policy, can be null
+     * @return the checksum policy
+     * @throws IllegalArgumentException if the value is not fail, warn or ignore
+     */
+    public static String getChecksumPolicy(String value) {
+        if (value == null || RepositoryPolicy.CHECKSUM_POLICY_FAIL.equals(value)
+                || RepositoryPolicy.CHECKSUM_POLICY_WARN.equals(value)
+                || RepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals(value)) {
+            return value;
+        }
+        throw new IllegalArgumentException(Constants.OPTION_CHECKSUM_POLICY + " should be fail, warn or ignore");
+    }
+}
@@ -15,16 +15,17 @@
  */
 package zmj.java.maven.inspect.util;
 
+import hudson.maven.SettingsCache;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Settings;
-import org.apache.maven.settings.io.xpp3.SettingsXpp3Reader;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.eclipse.aether.repository.MirrorSelector;
+import org.eclipse.aether.util.repository.DefaultMirrorSelector;
 import zmj.java.maven.inspect.exception.MavenProjectInspectException;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
+import java.util.Properties;
 
 /**
  * get maven settings message
@@ -35,25 +36,46 @@ import java.io.IOException;
 @Slf4j
 public class SettingsUtil {
     /**
-     * build maven settings
+     * build the effective maven settings, the same ones the maven embedder uses: they are built once
+     * and shared as long as the settings files don't change
      *
-     * @param settingsFile user settings file
+     * @param globalSettingsFile global settings file, see {@link SettingsCache#getGlobalSettingsFile(File)}
+     * @param settingsFile       user settings file
      * @return maven settings message
      * @throws MavenProjectInspectException
      */
-    public static Settings build(String settingsFile) throws MavenProjectInspectException {
-        try {
-            return new SettingsXpp3Reader().read(new FileReader(new File(settingsFile)));
-        } catch (IOException e) {
+    public static Settings build(String globalSettingsFile, String settingsFile) throws MavenProjectInspectException {
+        if (!new File(settingsFile).isFile()) {
             log.error("read maven settings failed, maybe not exist.");
             throw new MavenProjectInspectException("get user setting error");
-        } catch (XmlPullParserException e) {
+        }
+
+        try {
+            return SettingsCache.getSettings(globalSettingsFile, settingsFile, new Properties(),
+                    System.getProperties());
+        } catch (SettingsBuildingException e) {
             log.error("read maven setting failed, maybe user settings file format error");
             log.error(e.getMessage());
             throw new MavenProjectInspectException("get user setting error");
         }
     }
 
+    /**
+     * mirrors of the settings, selected by their mirrorOf and mirrorOfLayouts like maven does:
+     * a mirror of the exact repository id first, then the first mirror whose pattern matches
+     *
+     * @param settings maven settings
+     * @return mirror selector
+     */
+    public static MirrorSelector newMirrorSelector(Settings settings) {
+        DefaultMirrorSelector selector = new DefaultMirrorSelector();
+        for (Mirror mirror : settings.getMirrors()) {
+            selector.add(mirror.getId(), mirror.getUrl(), mirror.getLayout(), false, mirror.getMirrorOf(),
+                    mirror.getMirrorOfLayouts());
+        }
+        return selector;
+    }
+
     /**
      * default mirror, if not set, will use this mirror
      *
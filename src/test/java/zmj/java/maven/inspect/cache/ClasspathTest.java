@@ -0,0 +1,136 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import zmj.java.maven.inspect.bean.DependencyBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test of {@link Classpath}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class ClasspathTest {
+    private ArtifactTable table;
+
+    private byte compile;
+
+    private byte test;
+
+    @Before
+    public void setUp() {
+        table = new ArtifactTable();
+        for (int i = 0; i < 6; i++) {
+            String artifactId = "a" + i;
+            table.intern("test", artifactId, "1.0", "", "jar", () -> "/m2/test/" + artifactId + "-1.0.jar");
+        }
+        compile = table.scopeCode("compile");
+        test = table.scopeCode("test");
+    }
+
+    @Test
+    public void idsAreSortedAndTheFirstScopeIsKept() {
+        Classpath classpath = classpath(new int[]{3, 1, 3, 0}, new byte[]{test, compile, compile, compile});
+
+        assertArrayEquals(new int[]{0, 1, 3}, classpath.getIds());
+        assertEquals(Arrays.asList("compile", "compile", "test"), scopes(classpath));
+        assertTrue(classpath.contains(3));
+        assertFalse(classpath.contains(2));
+    }
+
+    @Test
+    public void unionKeepsTheScopesOfThisClasspath() {
+        Classpath first = classpath(new int[]{0, 2, 4}, new byte[]{compile, compile, compile});
+        Classpath second = classpath(new int[]{1, 2, 5}, new byte[]{test, test, test});
+
+        Classpath union = first.union(second);
+
+        assertArrayEquals(new int[]{0, 1, 2, 4, 5}, union.getIds());
+        assertEquals(Arrays.asList("compile", "test", "compile", "compile", "test"), scopes(union));
+    }
+
+    @Test
+    public void unionWithEmpty() {
+        Classpath classpath = classpath(new int[]{1, 2}, new byte[]{compile, test});
+        Classpath empty = classpath(new int[0], new byte[0]);
+
+        assertEquals(classpath, classpath.union(empty));
+        assertEquals(classpath, empty.union(classpath));
+        assertEquals(0, empty.union(empty).size());
+    }
+
+    @Test
+    public void differenceRemovesTheOtherArtifacts() {
+        Classpath first = classpath(new int[]{0, 1, 2, 3, 5}, new byte[]{compile, test, compile, test, compile});
+        Classpath second = classpath(new int[]{1, 3, 4}, new byte[]{compile, compile, compile});
+
+        Classpath difference = first.difference(second);
+
+        assertArrayEquals(new int[]{0, 2, 5}, difference.getIds());
+        assertEquals(Arrays.asList("compile", "compile", "compile"), scopes(difference));
+        assertArrayEquals(new int[]{4}, second.difference(first).getIds());
+        assertEquals(0, first.difference(first).size());
+        assertEquals(first, first.difference(classpath(new int[0], new byte[0])));
+    }
+
+    @Test
+    public void bitSetHasTheIds() {
+        BitSet expected = new BitSet();
+        expected.set(1);
+        expected.set(4);
+
+        assertEquals(expected, classpath(new int[]{4, 1}, new byte[]{compile, compile}).toBitSet());
+        assertTrue(classpath(new int[0], new byte[0]).toBitSet().isEmpty());
+    }
+
+    @Test
+    public void mainAndTestJarOfOneVersionAreTwoDependencies() {
+        int main = table.intern("test", "lib", "1.0", "", "jar", () -> "/m2/test/lib-1.0.jar");
+        int tests = table.intern("test", "lib", "1.0", "tests", "jar", () -> "/m2/test/lib-1.0-tests.jar");
+
+        Set<DependencyBean> dependencyBeans = classpath(new int[]{main, tests}, new byte[]{compile, test})
+                .asDependencyBeans();
+
+        // the caches and the compact output read the dependencies back into a set
+        assertEquals(2, new LinkedHashSet<>(dependencyBeans).size());
+    }
+
+    private Classpath classpath(int[] ids, byte[] scopes) {
+        return Classpath.of(table, ids, scopes, ids.length);
+    }
+
+    private List<String> scopes(Classpath classpath) {
+        List<String> scopes = new ArrayList<>();
+        for (DependencyBean dependencyBean : classpath.asDependencyBeans()) {
+            scopes.add(dependencyBean.getScope());
+        }
+        return scopes;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test of {@link LocalRepositoryIndex}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class LocalRepositoryIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File repository;
+
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        repository = folder.newFolder("repository");
+        indexFile = new File(folder.getRoot(), "repository.idx");
+        artifact("org/test/lib/1.0/lib-1.0.jar");
+        artifact("org/test/lib/1.0/lib-1.0.pom");
+        artifact("org/test/lib/1.0/lib-1.0.jar.sha1");
+        artifact("org/test/lib/1.0/_remote.repositories");
+    }
+
+    @Test
+    public void filesOfTheRepositoryAreIndexed() throws IOException {
+        LocalRepositoryIndex index = LocalRepositoryIndex.open(indexFile, repository);
+
+        // the checksums and the bookkeeping of the resolver are not indexed
+        assertEquals(2, index.size());
+        File jar = new File(repository, "org/test/lib/1.0/lib-1.0.jar");
+        assertTrue(index.isFile(jar));
+        assertEquals(jar.getCanonicalPath(), index.getCanonicalPath(jar));
+        assertFalse(index.isFile(new File(repository, "org/test/lib/2.0/lib-2.0.jar")));
+    }
+
+    @Test
+    public void deletedFileIsDroppedFromTheIndex() throws IOException {
+        File jar = new File(repository, "org/test/lib/1.0/lib-1.0.jar");
+        LocalRepositoryIndex.open(indexFile, repository);
+        Files.delete(jar.toPath());
+
+        LocalRepositoryIndex index = LocalRepositoryIndex.open(indexFile, repository);
+        assertFalse(index.isFile(jar));
+        assertEquals(1, index.size());
+        index.store();
+
+        assertEquals(1, LocalRepositoryIndex.open(indexFile, repository).size());
+    }
+
+    @Test
+    public void fileFoundLaterIsAddedAndStored() throws IOException {
+        LocalRepositoryIndex index = LocalRepositoryIndex.open(indexFile, repository);
+        File jar = artifact("org/test/lib/2.0/lib-2.0.jar");
+
+        assertTrue(index.isFile(jar));
+        assertEquals(3, index.size());
+        index.store();
+
+        LocalRepositoryIndex reopened = LocalRepositoryIndex.open(indexFile, repository);
+        assertEquals(3, reopened.size());
+        assertEquals(jar.getCanonicalPath(), reopened.getCanonicalPath(jar));
+    }
+
+    @Test
+    public void fileDeletedAndDownloadedAgainIsKept() throws IOException {
+        File jar = new File(repository, "org/test/lib/1.0/lib-1.0.jar");
+        LocalRepositoryIndex index = LocalRepositoryIndex.open(indexFile, repository);
+        Files.delete(jar.toPath());
+        assertFalse(index.isFile(jar));
+
+        artifact("org/test/lib/1.0/lib-1.0.jar");
+        assertTrue(index.isFile(jar));
+        assertEquals(2, index.size());
+        index.store();
+
+        assertEquals(2, LocalRepositoryIndex.open(indexFile, repository).size());
+    }
+
+    @Test
+    public void fileThroughSymbolicLinkIsNotIndexed() throws IOException {
+        File outside = folder.newFolder("outside");
+        Files.write(new File(outside, "linked-1.0.jar").toPath(), new byte[]{1});
+        File linkedDirectory = new File(repository, "org/test/linked/1.0");
+        Files.createDirectories(linkedDirectory.getParentFile().toPath());
+        Files.createSymbolicLink(linkedDirectory.toPath(), outside.toPath());
+        LocalRepositoryIndex index = LocalRepositoryIndex.open(indexFile, repository);
+        File jar = new File(linkedDirectory, "linked-1.0.jar");
+
+        assertTrue(index.isFile(jar));
+        assertEquals(new File(outside, "linked-1.0.jar").getCanonicalPath(), index.getCanonicalPath(jar));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void indexOfAnotherRepositoryIsBuiltAgain() throws IOException {
+        LocalRepositoryIndex.open(indexFile, repository);
+        File other = folder.newFolder("other");
+
+        assertEquals(0, LocalRepositoryIndex.open(indexFile, other).size());
+    }
+
+    private File artifact(String path) throws IOException {
+        File file = new File(repository, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new byte[]{0});
+        return file;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.handler;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.junit.Test;
+import zmj.java.maven.inspect.cache.ReactorModuleIndex;
+import zmj.java.maven.inspect.exception.MavenProjectInspectException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test of {@link ModuleScheduler}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class ModuleSchedulerTest {
+    @Test
+    public void resultsKeepTheOrderOfTheModules() throws MavenProjectInspectException {
+        List<ProjectBuildingResult> results = Arrays.asList(module("a"), module("b"), module("c"), module("d"));
+
+        List<String> names = newScheduler(results).run(3, result -> result.getProject().getArtifactId());
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), names);
+    }
+
+    @Test
+    public void moduleStartsAfterItsUpstreams() throws MavenProjectInspectException {
+        // d -> c -> b -> a, declared in the reverse order
+        List<ProjectBuildingResult> results = Arrays.asList(module("d", "c"), module("c", "b"), module("b", "a"),
+                module("a"));
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+        newScheduler(results).run(4, result -> {
+            started.add(result.getProject().getArtifactId());
+            return null;
+        });
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), started);
+    }
+
+    @Test
+    public void longestChainStartsFirst() throws MavenProjectInspectException {
+        // "single" has no downstream, "root" has the longest chain
+        List<ProjectBuildingResult> results = Arrays.asList(module("single"), module("root"),
+                module("middle", "root"), module("leaf", "middle"));
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+        newScheduler(results).run(1, result -> {
+            started.add(result.getProject().getArtifactId());
+            return null;
+        });
+
+        // modules of the same height keep their order
+        assertEquals(Arrays.asList("root", "middle", "single", "leaf"), started);
+    }
+
+    @Test
+    public void cycleHandlesAllModules() throws MavenProjectInspectException {
+        List<ProjectBuildingResult> results = Arrays.asList(module("a", "b"), module("b", "a"), module("c"));
+
+        List<String> names = newScheduler(results).run(2, result -> result.getProject().getArtifactId());
+
+        assertEquals(Arrays.asList("a", "b", "c"), names);
+    }
+
+    @Test(timeout = 10000)
+    public void noThreadsRunsOnOneThread() throws MavenProjectInspectException {
+        List<ProjectBuildingResult> results = Arrays.asList(module("a"), module("b", "a"));
+
+        List<String> names = newScheduler(results).run(0, result -> result.getProject().getArtifactId());
+
+        assertEquals(Arrays.asList("a", "b"), names);
+    }
+
+    @Test
+    public void failedTaskFailsTheRun() {
+        List<ProjectBuildingResult> results = Arrays.asList(module("a"), module("b", "a"));
+
+        try {
+            newScheduler(results).run(2, result -> {
+                throw new IllegalStateException("broken " + result.getProject().getArtifactId());
+            });
+            fail("the run should fail");
+        } catch (MavenProjectInspectException e) {
+            assertTrue(e.getMessage().contains("handle maven module error"));
+        }
+    }
+
+    private static ModuleScheduler newScheduler(List<ProjectBuildingResult> results) {
+        List<MavenProject> projects = new ArrayList<>();
+        for (ProjectBuildingResult result : results) {
+            projects.add(result.getProject());
+        }
+        return new ModuleScheduler(results, new ReactorModuleIndex(projects));
+    }
+
+    private static ProjectBuildingResult module(String artifactId, String... upstreams) {
+        Model model = new Model();
+        model.setGroupId("test");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0");
+        for (String upstream : upstreams) {
+            Dependency dependency = new Dependency();
+            dependency.setGroupId("test");
+            dependency.setArtifactId(upstream);
+            dependency.setVersion("1.0");
+            model.addDependency(dependency);
+        }
+        MavenProject project = new MavenProject(model);
+        return new ProjectBuildingResult() {
+            @Override
+            public String getProjectId() {
+                return project.getId();
+            }
+
+            @Override
+            public File getPomFile() {
+                return null;
+            }
+
+            @Override
+            public MavenProject getProject() {
+                return project;
+            }
+
+            @Override
+            public List<ModelProblem> getProblems() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public DependencyResolutionResult getDependencyResolutionResult() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.metrics;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.ChecksumFailureException;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transfer.TransferResource;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * test of {@link TransferMetrics}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class TransferMetricsTest {
+    private static final String JAR = "org/test/lib/1.0/lib-1.0.jar";
+
+    private static final Artifact ARTIFACT = new DefaultArtifact("org.test:lib:1.0");
+
+    private final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+    private final TransferMetrics metrics = new TransferMetrics();
+
+    @Test
+    public void notFoundThenNextRepositoryIsNotRetry() {
+        failed("first", JAR, new ArtifactNotFoundException(ARTIFACT, null));
+        succeeded("second", JAR);
+
+        Map<String, TransferMetrics.RepositoryStats> repositories = metrics.getRepositories();
+        assertEquals(0, repositories.get("first").retries.sum());
+        assertEquals(1, repositories.get("first").notFound.sum());
+        assertEquals(0, repositories.get("second").retries.sum());
+    }
+
+    @Test
+    public void failureThenSameRepositoryIsRetry() {
+        failed("first", JAR, new IllegalStateException("connection reset"));
+        failed("second", JAR, new ArtifactNotFoundException(ARTIFACT, null));
+        succeeded("first", JAR);
+        // a transfer after a success is not a retry
+        succeeded("first", JAR);
+
+        Map<String, TransferMetrics.RepositoryStats> repositories = metrics.getRepositories();
+        assertEquals(1, repositories.get("first").retries.sum());
+        assertEquals(1, repositories.get("first").failures.sum());
+        assertEquals(0, repositories.get("second").retries.sum());
+    }
+
+    @Test
+    public void corruptedTransferIsRetry() {
+        TransferResource resource = resource("first", JAR);
+        metrics.transferInitiated(event(resource).setType(TransferEvent.EventType.INITIATED).build());
+        metrics.transferCorrupted(event(resource).setType(TransferEvent.EventType.CORRUPTED)
+                .setException(new ChecksumFailureException("checksum")).build());
+        metrics.transferSucceeded(event(resource).setType(TransferEvent.EventType.SUCCEEDED).build());
+
+        assertEquals(1, metrics.getRepositories().get("first").retries.sum());
+    }
+
+    @Test
+    public void cacheHitIsCountedOncePerArtifact() {
+        RemoteRepository central = new RemoteRepository.Builder("central", "default", "http://central").build();
+        RemoteRepository other = new RemoteRepository.Builder("other", "default", "http://other").build();
+        Artifact downloaded = new DefaultArtifact("org.test:downloaded:1.0");
+
+        // resolved by three modules, from two repositories
+        metrics.artifactResolved(ARTIFACT, central);
+        metrics.artifactResolved(ARTIFACT, central);
+        metrics.artifactResolved(ARTIFACT, other);
+        // the download is reported before the resolution
+        metrics.artifactDownloaded(downloaded, central);
+        metrics.artifactResolved(downloaded, central);
+        metrics.artifactResolved(downloaded, central);
+
+        Map<String, TransferMetrics.RepositoryStats> repositories = metrics.getRepositories();
+        assertEquals(1, repositories.get("central").cacheHits.sum());
+        assertEquals(1, repositories.get("central").downloads.sum());
+        assertNull(repositories.get("other"));
+    }
+
+    private void succeeded(String repositoryId, String resourceName) {
+        TransferResource resource = resource(repositoryId, resourceName);
+        metrics.transferInitiated(event(resource).setType(TransferEvent.EventType.INITIATED).build());
+        metrics.transferSucceeded(event(resource).setType(TransferEvent.EventType.SUCCEEDED).build());
+    }
+
+    private void failed(String repositoryId, String resourceName, Exception exception) {
+        TransferResource resource = resource(repositoryId, resourceName);
+        metrics.transferInitiated(event(resource).setType(TransferEvent.EventType.INITIATED).build());
+        metrics.transferFailed(event(resource).setType(TransferEvent.EventType.FAILED).setException(exception)
+                .build());
+    }
+
+    private static TransferResource resource(String repositoryId, String resourceName) {
+        return new TransferResource(repositoryId, "http://" + repositoryId + "/", resourceName, null, null);
+    }
+
+    private TransferEvent.Builder event(TransferResource resource) {
+        return new TransferEvent.Builder(session, resource);
+    }
+}
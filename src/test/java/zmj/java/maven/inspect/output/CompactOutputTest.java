@@ -0,0 +1,149 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.output;
+
+import org.junit.Test;
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test of {@link CompactOutputWriter} and {@link CompactOutputReader}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class CompactOutputTest {
+    @Test
+    public void modulesAreReadAsWritten() throws IOException {
+        List<JavaOptionBean> optionBeans = Arrays.asList(module("test:a:1.0"), module("test:b:1.0"));
+
+        List<JavaOptionBean> read = roundTrip(optionBeans, true);
+
+        assertEquals(optionBeans, read);
+        // the dependencies keep the classpath order
+        assertEquals(new ArrayList<>(optionBeans.get(0).getDependencyBeans()),
+                new ArrayList<>(read.get(0).getDependencyBeans()));
+    }
+
+    @Test
+    public void noModule() throws IOException {
+        assertEquals(Collections.emptyList(), roundTrip(Collections.emptyList(), true));
+    }
+
+    @Test
+    public void emptySetsAndNullPathsAreKept() throws IOException {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId("test:empty:1.0");
+        optionBean.setSourcePaths(new HashSet<>());
+        optionBean.setDependencyBeans(new LinkedHashSet<>(Collections.singletonList(
+                new DependencyBean("test", "no-file", "1.0", null, null))));
+        optionBean.setResolved(false);
+        JavaOptionBean noDependency = module("test:no-dependency:1.0");
+        noDependency.setDependencyBeans(new LinkedHashSet<>());
+
+        List<JavaOptionBean> read = roundTrip(Arrays.asList(optionBean, noDependency), true);
+
+        assertEquals(Arrays.asList(optionBean, noDependency), read);
+        assertNull(read.get(0).getSource());
+        assertNull(read.get(0).getOutputPath());
+        assertNull(read.get(0).getDependencyBeans().iterator().next().getFilePath());
+        assertFalse(read.get(0).isResolved());
+        assertTrue(read.get(1).getDependencyBeans().isEmpty());
+    }
+
+    @Test
+    public void nullSetsAreReadEmpty() throws IOException {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId("test:null:1.0");
+
+        JavaOptionBean read = roundTrip(Collections.singletonList(optionBean), true).get(0);
+
+        assertTrue(read.getSourcePaths().isEmpty());
+        assertTrue(read.getDependencyBeans().isEmpty());
+    }
+
+    @Test
+    public void nonAsciiStringsAreKept() throws IOException {
+        JavaOptionBean optionBean = module("test:模块:1.0");
+        optionBean.setSourcePaths(new HashSet<>(Arrays.asList("/home/zhang/工程/src/main/java", "/tmp/ünïcödé")));
+        optionBean.setDependencyBeans(new LinkedHashSet<>(Collections.singletonList(
+                new DependencyBean("组", "构件", "1.0-快照", "compile", "/m2/组/构件/1.0-快照/构件.jar"))));
+
+        assertEquals(Collections.singletonList(optionBean), roundTrip(Collections.singletonList(optionBean), true));
+    }
+
+    @Test
+    public void sameClasspathIsShared() throws IOException {
+        List<JavaOptionBean> read = roundTrip(Arrays.asList(module("test:a:1.0"), module("test:b:1.0")), true);
+
+        assertSame(read.get(0).getDependencyBeans(), read.get(1).getDependencyBeans());
+    }
+
+    @Test
+    public void writerNotClosedGivesTheModulesWritten() throws IOException {
+        List<JavaOptionBean> optionBeans = Arrays.asList(module("test:a:1.0"), module("test:b:1.0"));
+
+        assertEquals(optionBeans, roundTrip(optionBeans, false));
+    }
+
+    private static List<JavaOptionBean> roundTrip(List<JavaOptionBean> optionBeans, boolean close)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactOutputWriter writer = new CompactOutputWriter(bytes, true);
+        for (JavaOptionBean optionBean : optionBeans) {
+            writer.accept(optionBean);
+        }
+        if (close) {
+            writer.close();
+        }
+        try (CompactOutputReader reader = new CompactOutputReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return reader.readAll();
+        }
+    }
+
+    private static JavaOptionBean module(String projectId) {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId(projectId);
+        optionBean.setSource("1.8");
+        optionBean.setEncoding("UTF-8");
+        optionBean.setSourcePaths(new HashSet<>(Collections.singletonList("/project/src/main/java")));
+        optionBean.setTestSourcePath("/project/src/test/java");
+        optionBean.setOutputPath("/project/target/classes");
+        optionBean.setTestOutputPath("/project/target/test-classes");
+        Set<DependencyBean> dependencyBeans = new LinkedHashSet<>();
+        dependencyBeans.add(new DependencyBean("org.z", "last", "2.0", "compile", "/m2/org/z/last-2.0.jar"));
+        dependencyBeans.add(new DependencyBean("org.a", "first", "1.0", "test", "/m2/org/a/first-1.0.jar"));
+        optionBean.setDependencyBeans(dependencyBeans);
+        return optionBean;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.resolver;
+
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transfer.AbstractTransferListener;
+import org.eclipse.aether.transfer.TransferEvent;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * test of {@link RoutingArtifactResolver}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class RoutingArtifactResolverTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RemoteRepository first;
+
+    private RemoteRepository second;
+
+    /**
+     * resourceName@repositoryId of every transfer started
+     */
+    private final List<String> transfers = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws IOException {
+        first = repository("first", "lib", "tool");
+        second = repository("second", "lib", "tool");
+    }
+
+    @Test
+    public void routedArtifactIsAskedToItsRepositoryFirst() throws ArtifactResolutionException {
+        Artifact lib = new DefaultArtifact("org.test:lib:1.0");
+        Artifact tool = new DefaultArtifact("org.test:tool:1.0");
+        RepositoryRouter router = new RepositoryRouter();
+        router.served(tool, second);
+
+        List<ArtifactResult> results = newRepositorySystem().resolveArtifacts(newSession(router),
+                Arrays.asList(request(lib), request(tool)));
+
+        // the declared order for lib, the repository that served it last time for tool
+        assertEquals("first", results.get(0).getRepository().getId());
+        assertEquals("second", results.get(1).getRepository().getId());
+        assertEquals(Arrays.asList("org/test/lib/1.0/lib-1.0.jar@first", "org/test/tool/1.0/tool-1.0.jar@second"),
+                jarTransfers());
+    }
+
+    @Test
+    public void withoutRouterTheDeclaredOrderIsUsed() throws ArtifactResolutionException {
+        Artifact tool = new DefaultArtifact("org.test:tool:1.0");
+
+        List<ArtifactResult> results = newRepositorySystem().resolveArtifacts(newSession(null),
+                Collections.singletonList(request(tool)));
+
+        assertEquals("first", results.get(0).getRepository().getId());
+        assertEquals(Collections.singletonList("org/test/tool/1.0/tool-1.0.jar@first"), jarTransfers());
+    }
+
+    private List<String> jarTransfers() {
+        List<String> jars = new ArrayList<>();
+        for (String transfer : transfers) {
+            if (transfer.contains(".jar@")) {
+                jars.add(transfer);
+            }
+        }
+        return jars;
+    }
+
+    private ArtifactRequest request(Artifact artifact) {
+        return new ArtifactRequest(artifact, Arrays.asList(first, second), null);
+    }
+
+    private RemoteRepository repository(String id, String... artifactIds) throws IOException {
+        File directory = folder.newFolder(id);
+        for (String artifactId : artifactIds) {
+            File jar = new File(directory, "org/test/" + artifactId + "/1.0/" + artifactId + "-1.0.jar");
+            Files.createDirectories(jar.getParentFile().toPath());
+            Files.write(jar.toPath(), (id + ":" + artifactId).getBytes(StandardCharsets.UTF_8));
+        }
+        return new RemoteRepository.Builder(id, "default", directory.toURI().toString()).build();
+    }
+
+    private DefaultRepositorySystemSession newSession(RepositoryRouter router) {
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(newRepositorySystem().newLocalRepositoryManager(session,
+                new LocalRepository(new File(folder.getRoot(), "local"))));
+        // the test repositories have no checksum files
+        session.setChecksumPolicy(RepositoryPolicy.CHECKSUM_POLICY_IGNORE);
+        session.setTransferListener(new AbstractTransferListener() {
+            @Override
+            public void transferInitiated(TransferEvent event) {
+                transfers.add(event.getResource().getResourceName() + "@" + event.getResource().getRepositoryId());
+            }
+        });
+        if (router != null) {
+            session.setConfigProperty(RepositoryRouter.CONFIG_KEY, router);
+        }
+        return session;
+    }
+
+    private static RepositorySystem newRepositorySystem() {
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+        locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+        locator.setService(ArtifactResolver.class, RoutingArtifactResolver.class);
+        return locator.getService(RepositorySystem.class);
+    }
+}
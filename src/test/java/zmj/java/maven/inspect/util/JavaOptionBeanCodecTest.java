@@ -0,0 +1,126 @@
+/*
+ * Copyright 2001-2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package zmj.java.maven.inspect.util;
+
+import org.junit.Test;
+import zmj.java.maven.inspect.bean.DependencyBean;
+import zmj.java.maven.inspect.bean.JavaOptionBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * test of {@link JavaOptionBeanCodec}
+ *
+ * @author zhang maijun
+ * @since 2026/10/17
+ */
+public class JavaOptionBeanCodecTest {
+    @Test
+    public void moduleIsReadAsWritten() throws IOException {
+        JavaOptionBean optionBean = module("test:module:1.0");
+
+        JavaOptionBean read = roundTrip(Collections.singletonList(optionBean)).get(0);
+
+        assertEquals(optionBean, read);
+        // the dependencies keep the classpath order
+        assertEquals(new ArrayList<>(optionBean.getDependencyBeans()), new ArrayList<>(read.getDependencyBeans()));
+    }
+
+    @Test
+    public void nullsAndEmptySetsAreKept() throws IOException {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId("test:empty:1.0");
+        optionBean.setSourcePaths(new HashSet<>());
+        optionBean.setDependencyBeans(new LinkedHashSet<>(Collections.singletonList(
+                new DependencyBean("test", "no-file", "1.0", null, null))));
+
+        JavaOptionBean read = roundTrip(Collections.singletonList(optionBean)).get(0);
+
+        assertEquals(optionBean, read);
+        assertNull(read.getSource());
+        assertNull(read.getTestSourcePath());
+        assertNull(read.getDependencyBeans().iterator().next().getFilePath());
+    }
+
+    @Test
+    public void nonAsciiStringsAreKept() throws IOException {
+        JavaOptionBean optionBean = module("test:模块:1.0");
+        optionBean.setEncoding("GBK");
+        optionBean.setSourcePaths(new HashSet<>(Arrays.asList("/home/zhang/工程/src/main/java", "/tmp/ünïcödé")));
+
+        assertEquals(optionBean, roundTrip(Collections.singletonList(optionBean)).get(0));
+    }
+
+    @Test
+    public void unresolvedModuleStaysUnresolved() throws IOException {
+        JavaOptionBean optionBean = module("test:module:1.0");
+        optionBean.setResolved(false);
+
+        assertFalse(roundTrip(Collections.singletonList(optionBean)).get(0).isResolved());
+    }
+
+    @Test
+    public void allModulesAreReadInOrder() throws IOException {
+        List<JavaOptionBean> optionBeans = Arrays.asList(module("test:a:1.0"), module("test:b:1.0"),
+                module("test:c:1.0"));
+
+        assertEquals(optionBeans, roundTrip(optionBeans));
+        assertEquals(Collections.emptyList(), roundTrip(Collections.emptyList()));
+    }
+
+    private static List<JavaOptionBean> roundTrip(List<JavaOptionBean> optionBeans) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            JavaOptionBeanCodec.writeAll(out, optionBeans);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return JavaOptionBeanCodec.readAll(in);
+        }
+    }
+
+    private static JavaOptionBean module(String projectId) {
+        JavaOptionBean optionBean = new JavaOptionBean();
+        optionBean.setProjectId(projectId);
+        optionBean.setSource("1.8");
+        optionBean.setEncoding("UTF-8");
+        optionBean.setSourcePaths(new HashSet<>(Arrays.asList("/project/src/main/java",
+                "/project/target/generated-sources")));
+        optionBean.setTestSourcePath("/project/src/test/java");
+        optionBean.setOutputPath("/project/target/classes");
+        optionBean.setTestOutputPath("/project/target/test-classes");
+        Set<DependencyBean> dependencyBeans = new LinkedHashSet<>();
+        dependencyBeans.add(new DependencyBean("org.z", "last", "2.0", "compile", "/m2/org/z/last-2.0.jar"));
+        dependencyBeans.add(new DependencyBean("org.a", "first", "1.0", "test", "/m2/org/a/first-1.0.jar"));
+        dependencyBeans.add(new DependencyBean("org.a", "first", "1.0", "test", "/m2/org/a/first-1.0-tests.jar"));
+        optionBean.setDependencyBeans(dependencyBeans);
+        return optionBean;
+    }
+}